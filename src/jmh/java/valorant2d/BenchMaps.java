@@ -0,0 +1,59 @@
+package valorant2d;
+
+import java.awt.*;
+import java.util.Random;
+
+// Maps shared by the benchmarks
+final class BenchMaps {
+
+	private BenchMaps() {
+	}
+
+	// Walls around the edge and nowhere else, like the game's map
+	static TileMap bordered(int rows, int cols) {
+		return TileMap.bordered(cols, rows, Simulation.TILE_SIZE);
+	}
+
+	// Bordered map with about one wall in ten tiles scattered inside
+	static TileMap scattered(int rows, int cols, long seed) {
+		Random random = new Random(seed);
+		TileMap map = bordered(rows, cols);
+		for (int row = 1; row < rows - 1; row++) {
+			for (int col = 1; col < cols - 1; col++) {
+				if (random.nextInt(10) == 0) {
+					map.set(row, col, Tile.WALL);
+				}
+			}
+		}
+		return map;
+	}
+
+	// No walls at all
+	static TileMap open(int rows, int cols) {
+		return new TileMap(cols, rows, Simulation.TILE_SIZE);
+	}
+
+	// The map as it used to be kept: one object per tile with its own bounds
+	static OldTile[][] toObjects(TileMap map) {
+		int size = map.getTileSize();
+		OldTile[][] tiles = new OldTile[map.getRows()][map.getCols()];
+		for (int row = 0; row < map.getRows(); row++) {
+			for (int col = 0; col < map.getCols(); col++) {
+				tiles[row][col] = new OldTile(col * size, row * size, size, map.getType(row, col));
+			}
+		}
+		return tiles;
+	}
+
+	static final class OldTile {
+		final Tile.Type type;
+		final int size;
+		final Rectangle bounds;
+
+		OldTile(int x, int y, int size, Tile.Type type) {
+			this.type = type;
+			this.size = size;
+			this.bounds = new Rectangle(x, y, size, size);
+		}
+	}
+}
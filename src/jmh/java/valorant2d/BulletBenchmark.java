@@ -0,0 +1,97 @@
+package valorant2d;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// One tick of bullet updates at a fixed live count: the old ArrayList<Bullet>
+// loop with remove(i) vs BulletPool. Bullets that leave are replaced right away.
+// The pool also traces every bullet through the tile map, which the old loop never did.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulletBenchmark {
+
+	private static final int WIDTH = 1920;
+	private static final int HEIGHT = 1080;
+
+	@Param({ "10000", "100000" })
+	public int liveBullets;
+
+	private Random random;
+	private ArrayList<OldBullet> list;
+	private BulletPool pool;
+	private CollisionMap collision;
+
+	@Setup
+	public void setup() {
+		random = new Random(1);
+		list = new ArrayList<>();
+		pool = new BulletPool(liveBullets);
+		collision = new CollisionMap(BenchMaps.open(HEIGHT / Simulation.TILE_SIZE, WIDTH / Simulation.TILE_SIZE));
+		fillList();
+		fillPool();
+	}
+
+	// The loop GamePanel.tick used to run
+	@Benchmark
+	public int arrayList() {
+		for (int i = 0; i < list.size(); i++) {
+			OldBullet b = list.get(i);
+			b.update();
+			if (b.isOffScreen(WIDTH, HEIGHT)) {
+				list.remove(i);
+				i--;
+			}
+		}
+		fillList();
+		return list.size();
+	}
+
+	@Benchmark
+	public int pool() {
+		pool.update(collision, WIDTH, HEIGHT);
+		fillPool();
+		return pool.size();
+	}
+
+	private void fillList() {
+		while (list.size() < liveBullets) {
+			list.add(new OldBullet(random.nextInt(WIDTH), random.nextInt(HEIGHT), random.nextDouble() * Math.PI * 2));
+		}
+	}
+
+	private void fillPool() {
+		while (pool.size() < liveBullets) {
+			pool.spawn(random.nextInt(WIDTH), random.nextInt(HEIGHT), random.nextDouble() * Math.PI * 2);
+		}
+	}
+
+	// Copy of the Bullet class BulletPool replaced
+	private static class OldBullet {
+		private double x, y;
+		private final double speed = 40;
+		private final double dx, dy;
+
+		OldBullet(double x, double y, double angle) {
+			this.x = x;
+			this.y = y;
+			dx = Math.cos(angle) * speed;
+			dy = Math.sin(angle) * speed;
+		}
+
+		void update() {
+			x += dx;
+			y += dy;
+		}
+
+		boolean isOffScreen(int width, int height) {
+			return x < 0 || x > width || y < 0 || y > height;
+		}
+	}
+}
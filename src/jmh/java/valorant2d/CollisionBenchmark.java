@@ -0,0 +1,87 @@
+package valorant2d;
+
+import java.awt.*;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Wall collision per tick (two checks, one per axis like Player.move):
+// the old full-map scan vs CollisionMap, from one screen of tiles up to 500x500.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+
+	private static final int PLAYER_SIZE = 40;
+	private static final int POSITIONS = 4096;
+
+	// rows x cols, the first is a 1080p screen
+	@Param({ "27x48", "100x100", "250x250", "500x500" })
+	public String mapSize;
+
+	private BenchMaps.OldTile[][] map;
+	private CollisionMap collision;
+	private Player player;
+	private int[] xs, ys;
+	private int next = 0;
+	private int tick = 0;
+
+	@Setup
+	public void setup() {
+		int rows = Integer.parseInt(mapSize.split("x")[0]);
+		int cols = Integer.parseInt(mapSize.split("x")[1]);
+		TileMap tiles = BenchMaps.scattered(rows, cols, 42);
+		map = BenchMaps.toObjects(tiles);
+		collision = new CollisionMap(tiles);
+		player = new Player(2 * Simulation.TILE_SIZE, 2 * Simulation.TILE_SIZE, collision);
+
+		Random random = new Random(7);
+		xs = new int[POSITIONS];
+		ys = new int[POSITIONS];
+		for (int i = 0; i < POSITIONS; i++) {
+			xs[i] = random.nextInt(cols * Simulation.TILE_SIZE - PLAYER_SIZE);
+			ys[i] = random.nextInt(rows * Simulation.TILE_SIZE - PLAYER_SIZE);
+		}
+	}
+
+	@Benchmark
+	public boolean fullScan() {
+		int i = next++ & (POSITIONS - 1);
+		return fullScan(xs[i] + 3, ys[i]) | fullScan(xs[i], ys[i] + 3);
+	}
+
+	@Benchmark
+	public boolean grid() {
+		int i = next++ & (POSITIONS - 1);
+		return collision.overlapsWall(xs[i] + 3, ys[i], PLAYER_SIZE, PLAYER_SIZE)
+				| collision.overlapsWall(xs[i], ys[i] + 3, PLAYER_SIZE, PLAYER_SIZE);
+	}
+
+	// Player.move end to end, changing direction every so often
+	@Benchmark
+	public int playerMove() {
+		int t = tick++;
+		int dir = (t >> 5) & 3;
+		player.move(dir == 0, dir == 1, dir == 2 || dir == 0, dir == 3);
+		return player.getX();
+	}
+
+	// The original Player.collidesWithWall
+	private boolean fullScan(int nextX, int nextY) {
+		Rectangle nextBounds = new Rectangle(nextX, nextY, PLAYER_SIZE, PLAYER_SIZE);
+
+		for (int row = 0; row < map.length; row++) {
+			for (int col = 0; col < map[0].length; col++) {
+				BenchMaps.OldTile tile = map[row][col];
+				if (tile.type == Tile.Type.WALL && nextBounds.intersects(tile.bounds)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
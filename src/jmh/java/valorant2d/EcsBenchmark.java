@@ -0,0 +1,147 @@
+package valorant2d;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// One tick over 100k+ entities on a 500x500 map, objects against the EntityWorld
+// prototype.
+// objectPlayers runs PlayerState (a Player, a HashMap of Weapon objects and the
+// loose state around them) the way Simulation does; ecsPlayers runs
+// MovementSystem and WeaponSystem over the same number of PLAYER entities.
+// poolProjectiles and ecsProjectiles fly that many bullets through BulletPool
+// and ProjectileSystem, respawning the ones that die so the count stays fixed.
+// Everyone walks around in a square, turning at different times.
+//
+//   java -jar target/benchmarks.jar EcsBenchmark -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class EcsBenchmark {
+
+	private static final long TICK_NS = 1_000_000_000L / 60;
+	private static final int MAP_TILES = 500;
+
+	@Param({ "100000", "250000" })
+	public int entities;
+
+	private CollisionMap collision;
+	private int width, height;
+	private GameClock clock;
+	private Random random;
+	private int tick = 0;
+
+	private PlayerState[] states;
+	private BulletPool pool;
+
+	private EntityWorld world;
+	private Archetype players;
+	private MovementSystem movement;
+	private ProjectileSystem projectiles;
+	private WeaponSystem weapons;
+	private EntityWorld bulletWorld;
+
+	@Setup
+	public void setup() {
+		TileMap map = BenchMaps.bordered(MAP_TILES, MAP_TILES);
+		collision = new CollisionMap(map);
+		width = map.getWidth();
+		height = map.getHeight();
+		clock = GameClock.virtual();
+		random = new Random(5);
+
+		states = new PlayerState[entities];
+		world = new EntityWorld(entities);
+		weapons = new WeaponSystem(new Random(6));
+		for (int i = 0; i < entities; i++) {
+			int x = Simulation.TILE_SIZE * (1 + random.nextInt(MAP_TILES - 3));
+			int y = Simulation.TILE_SIZE * (1 + random.nextInt(MAP_TILES - 3));
+			states[i] = new PlayerState(new Player(x, y, collision));
+
+			int entity = world.create(EntityWorld.PLAYER);
+			players = world.archetypeOf(entity);
+			int row = world.rowOf(entity);
+			players.x[row] = players.prevX[row] = x;
+			players.y[row] = players.prevY[row] = y;
+			players.width[row] = players.height[row] = states[i].getPlayer().getSize();
+			weapons.equip(players, row, states[i].getCurrentWeapon());
+		}
+		movement = new MovementSystem(collision);
+
+		pool = new BulletPool(entities);
+		bulletWorld = new EntityWorld(entities);
+		projectiles = new ProjectileSystem(collision, width, height);
+	}
+
+	private int direction(int i) {
+		return ((tick + i * 7) >> 6) & 3;
+	}
+
+	@Benchmark
+	public int objectPlayers() {
+		clock.beginTick();
+		for (int i = 0; i < states.length; i++) {
+			PlayerState state = states[i];
+			PlayerInput input = state.getInput();
+			int dir = direction(i);
+			input.up = dir == 0;
+			input.right = dir == 1;
+			input.down = dir == 2;
+			input.left = dir == 3;
+			state.handleCommands(clock);
+			state.move();
+			state.updateWeapons(clock);
+		}
+		clock.advance(TICK_NS);
+		tick++;
+		return states[0].getPlayer().getX();
+	}
+
+	@Benchmark
+	public double ecsPlayers() {
+		clock.beginTick();
+		byte[] buttons = players.buttons;
+		for (int i = 0, n = players.size(); i < n; i++) {
+			buttons[i] = (byte) (switch (direction(i)) {
+				case 0 -> NetProtocol.UP;
+				case 1 -> NetProtocol.RIGHT;
+				case 2 -> NetProtocol.DOWN;
+				default -> NetProtocol.LEFT;
+			});
+		}
+		movement.update(world);
+		weapons.update(world, clock);
+		clock.advance(TICK_NS);
+		tick++;
+		return players.x[0];
+	}
+
+	@Benchmark
+	public int poolProjectiles() {
+		while (pool.size() < entities) {
+			pool.spawn(random.nextInt(width), random.nextInt(height), random.nextDouble() * Math.PI * 2);
+		}
+		pool.update(collision, width, height);
+		return pool.size();
+	}
+
+	@Benchmark
+	public int ecsProjectiles() {
+		while (bulletWorld.size() < entities) {
+			int entity = bulletWorld.create(EntityWorld.PROJECTILE);
+			Archetype archetype = bulletWorld.archetypeOf(entity);
+			int row = bulletWorld.rowOf(entity);
+			double angle = random.nextDouble() * Math.PI * 2;
+			archetype.x[row] = archetype.prevX[row] = random.nextInt(width);
+			archetype.y[row] = archetype.prevY[row] = random.nextInt(height);
+			archetype.dx[row] = Math.cos(angle) * 40;
+			archetype.dy[row] = Math.sin(angle) * 40;
+		}
+		projectiles.update(bulletWorld);
+		return bulletWorld.size();
+	}
+}
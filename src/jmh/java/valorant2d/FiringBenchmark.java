@@ -0,0 +1,103 @@
+package valorant2d;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Sustained full-auto from many shooters holding the Classic: every tick each
+// one fires a single shot and a five-bullet spray, half of them on the move.
+// oldPath is the firing code from before RecoilPattern (atan2, toRadians, a fresh
+// offsets array per spray and cos/sin per bullet), kept here to compare; tables
+// is PlayerState's shootBullet and sprayBullet.
+//
+//   java -jar target/benchmarks.jar FiringBenchmark -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FiringBenchmark {
+
+	@Param({ "64", "1024" })
+	public int shooters;
+
+	private PlayerState[] states;
+	private BulletPool bullets;
+	private Random random;
+
+	@Setup
+	public void setup() {
+		TileMap map = BenchMaps.bordered(200, 200);
+		CollisionMap collision = new CollisionMap(map);
+		Random placement = new Random(3);
+		GameClock clock = GameClock.virtual();
+		states = new PlayerState[shooters];
+		for (int i = 0; i < shooters; i++) {
+			int x = Simulation.TILE_SIZE * (2 + placement.nextInt(190));
+			int y = Simulation.TILE_SIZE * (2 + placement.nextInt(190));
+			PlayerState state = new PlayerState(new Player(x, y, collision));
+			PlayerInput input = state.getInput();
+			input.aimX = placement.nextInt(map.getWidth());
+			input.aimY = placement.nextInt(map.getHeight());
+			input.spray = true;
+			input.right = (i & 1) == 0;  // Half of them keep moving
+			input.switchTo = WeaponType.SECONDARY;  // The Classic, the only one with a spray
+			state.handleCommands(clock);
+			state.move();
+			states[i] = state;
+		}
+		bullets = new BulletPool(shooters * 6);
+		random = new GameRandom(4);
+	}
+
+	@Benchmark
+	public int oldPath() {
+		bullets.clear();
+		for (PlayerState state : states) {
+			oldShoot(state, bullets, random);
+			oldSpray(state, bullets, random);
+		}
+		return bullets.size();
+	}
+
+	@Benchmark
+	public int tables() {
+		bullets.clear();
+		for (int i = 0; i < states.length; i++) {
+			states[i].shootBullet(bullets, random, i);
+			states[i].sprayBullet(bullets, random, i);
+		}
+		return bullets.size();
+	}
+
+	private static void oldShoot(PlayerState state, BulletPool bullets, Random random) {
+		Player player = state.getPlayer();
+		PlayerInput input = state.getInput();
+		double angle = Math.atan2(input.aimY - player.getY(), input.aimX - player.getX());
+		double recoilMultiplier = player.isMoving() ? 1.0 : 0.0;
+		double recoil = Math.toRadians(1 + random.nextDouble() * 2) * recoilMultiplier;
+		oldSpawn(bullets, player.getX(), player.getY(), angle + recoil);
+	}
+
+	private static void oldSpray(PlayerState state, BulletPool bullets, Random random) {
+		Player player = state.getPlayer();
+		PlayerInput input = state.getInput();
+		double angle = Math.atan2(input.aimY - player.getY(), input.aimX - player.getX());
+		double[] offsets = { Math.toRadians(-10), Math.toRadians(-5), 0, Math.toRadians(5), Math.toRadians(10) };
+		for (double offset : offsets) {
+			double recoilMultiplier = 1.0;
+			if (player.isMoving() || input.spray) {
+				recoilMultiplier = 3.0;
+			}
+			double sprayAngle = angle + offset + (random.nextDouble() - 0.5) * recoilMultiplier * Math.toRadians(10);
+			oldSpawn(bullets, player.getX(), player.getY(), sprayAngle);
+		}
+	}
+
+	// What BulletPool.spawn did with an angle
+	private static void oldSpawn(BulletPool bullets, double x, double y, double angle) {
+		bullets.spawn(x, y, Math.cos(angle), Math.sin(angle));
+	}
+}
@@ -0,0 +1,91 @@
+package valorant2d;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// One tick's hit pass: every live bullet's step tested against the players'
+// head, body and legs boxes. allPairs tests each bullet against every player;
+// grid builds the tick's HitGrid and tests each bullet against the players in
+// the cells its step crosses. Players and bullets are spread over a 150x100 tile
+// map (the game's default), bullets flying 40 pixels a tick in any direction.
+//
+//   java -jar target/benchmarks.jar HitBenchmark -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HitBenchmark {
+
+	private static final int WIDTH = 150 * Simulation.TILE_SIZE, HEIGHT = 100 * Simulation.TILE_SIZE;
+	private static final int BOX = 40;  // Player size
+	private static final double SPEED = 40;  // As BulletPool
+
+	@Param({ "50" })
+	public int players;
+
+	@Param({ "20000" })
+	public int projectiles;
+
+	private HitGrid grid;
+	private int[] left, top;
+	private double[] x0, y0, x1, y1;
+	private int[] owner;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(9);
+		grid = new HitGrid(players, BOX);
+		left = new int[players];
+		top = new int[players];
+		for (int i = 0; i < players; i++) {
+			left[i] = random.nextInt(WIDTH - BOX);
+			top[i] = random.nextInt(HEIGHT - BOX);
+		}
+		x0 = new double[projectiles];
+		y0 = new double[projectiles];
+		x1 = new double[projectiles];
+		y1 = new double[projectiles];
+		owner = new int[projectiles];
+		for (int b = 0; b < projectiles; b++) {
+			double angle = random.nextDouble() * Math.PI * 2;
+			x0[b] = random.nextDouble() * WIDTH;
+			y0[b] = random.nextDouble() * HEIGHT;
+			x1[b] = x0[b] + Math.cos(angle) * SPEED;
+			y1[b] = y0[b] + Math.sin(angle) * SPEED;
+			owner[b] = random.nextInt(players);
+		}
+		if (grid() != allPairs()) {
+			throw new IllegalStateException("grid and all pairs disagree");
+		}
+	}
+
+	@Benchmark
+	public int allPairs() {
+		int hits = 0;
+		for (int b = 0; b < projectiles; b++) {
+			if (grid.raycastAll(x0[b], y0[b], x1[b], y1[b], 1, owner[b]) != HitGrid.NONE) {
+				hits++;
+			}
+		}
+		return hits;
+	}
+
+	@Benchmark
+	public int grid() {
+		grid.clear();
+		for (int i = 0; i < players; i++) {
+			grid.add(i, left[i], top[i]);
+		}
+		int hits = 0;
+		for (int b = 0; b < projectiles; b++) {
+			if (grid.raycast(x0[b], y0[b], x1[b], y1[b], 1, owner[b]) != HitGrid.NONE) {
+				hits++;
+			}
+		}
+		return hits;
+	}
+}
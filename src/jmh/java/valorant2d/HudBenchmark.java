@@ -0,0 +1,84 @@
+package valorant2d;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Text drawing per frame: the HUD as GamePanel used to draw it (string
+// concatenation and drawString every frame) against Hud's cached labels, plus the
+// title and menu screens. Run with -prof gc to see allocation per frame; the
+// cached paths should show (close to) 0 B/op once nothing on screen changes
+// (HudAllocationTest checks that on every build).
+//
+//   java -jar target/benchmarks.jar HudBenchmark -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class HudBenchmark {
+
+	private static final int WIDTH = 1920, HEIGHT = 1080;
+
+	private BufferedImage frame;
+	private Graphics g;
+	private WorldSnapshot snapshot;
+	private Hud hud;
+	private TitleScreen title;
+	private MenuScreen menu;
+
+	@Setup
+	public void setup() {
+		Simulation simulation = new Simulation(WIDTH, HEIGHT, 1);
+		snapshot = new WorldSnapshot(Simulation.MAX_BULLETS);
+		snapshot.capture(0, simulation);
+		hud = new Hud();
+		title = new TitleScreen(WIDTH, HEIGHT, null);
+
+		// MenuScreen takes its size from the panel it listens to
+		Canvas panel = new Canvas();
+		panel.setSize(WIDTH, HEIGHT);
+		menu = new MenuScreen(panel);
+
+		frame = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		g = frame.getGraphics();
+	}
+
+	@TearDown
+	public void tearDown() {
+		g.dispose();
+	}
+
+	// The HUD code WorldRenderer had before Hud
+	@Benchmark
+	public BufferedImage hudDrawString() {
+		g.setColor(Color.YELLOW);
+		WeaponType weaponType = snapshot.getWeaponType();
+		g.drawString("Weapon: " + weaponType.name(), 10, 20);
+		if (weaponType != WeaponType.KNIFE) {
+			g.drawString("Ammo: " + snapshot.getBulletsInMag() + " / " + snapshot.getReserveAmmo(), 10, 40);
+		}
+		return frame;
+	}
+
+	@Benchmark
+	public BufferedImage hudCached() {
+		hud.draw(g, snapshot);
+		return frame;
+	}
+
+	@Benchmark
+	public BufferedImage titleScreen() {
+		title.render(g);
+		return frame;
+	}
+
+	@Benchmark
+	public BufferedImage menuScreen() {
+		menu.render(g);
+		return frame;
+	}
+}
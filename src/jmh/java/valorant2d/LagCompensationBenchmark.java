@@ -0,0 +1,83 @@
+package valorant2d;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Cost of judging one hitscan shot on the server: rewind to the shooter's view tick,
+// trace the walls and find the head, body or legs it hits among the players who were
+// alive then (HitGrid.raycastAll). Players wander around a generated 60x40 map so the
+// history holds real positions, and shots are aimed near a random target. A PRIMARY on
+// full auto fires every 114 ms, about 9 shots a second, so the per-second cost of a
+// match is roughly score * 9 * players.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LagCompensationBenchmark {
+
+	private static final int SHOTS = 1024;
+	private static final int MAX_REWIND_TICKS = 30;
+
+	@Param({ "2", "10" })
+	public int players;
+
+	// How far behind the newest tick the shooter is, 0 is no lag compensation
+	@Param({ "0", "12", "30" })
+	public int rewind;
+
+	private Simulation simulation;
+	private HitboxHistory history;
+	private final RayHit wallHit = new RayHit();
+	private int[] shooter;
+	private double[] x0, y0, x1, y1;
+	private int next = 0;
+
+	@Setup
+	public void setup() {
+		simulation = new Simulation(MapFile.generate(60, 40, 1), 1, players);
+		history = new HitboxHistory(players, MAX_REWIND_TICKS, simulation.getPlayer().getSize());
+		GameClock clock = GameClock.virtual();
+		Random bot = new Random(2);
+		for (int tick = 1; tick <= 600; tick++) {
+			for (int i = 0; i < players; i++) {
+				HeadlessRunner.updateBot(bot, simulation.getPlayerState(i).getInput(), tick + i * 7);
+			}
+			clock.beginTick();
+			simulation.tick(clock);
+			clock.advance(1_000_000_000L / GameServer.TICKS_PER_SECOND);
+			history.record(tick, simulation);
+		}
+
+		// Shoot from where each shooter is now at roughly where a target is
+		Random random = new Random(3);
+		double range = Math.hypot(simulation.getWidth(), simulation.getHeight());
+		shooter = new int[SHOTS];
+		x0 = new double[SHOTS];
+		y0 = new double[SHOTS];
+		x1 = new double[SHOTS];
+		y1 = new double[SHOTS];
+		for (int s = 0; s < SHOTS; s++) {
+			int from = random.nextInt(players);
+			int to = (from + 1 + random.nextInt(players - 1)) % players;
+			Player a = simulation.getPlayerState(from).getPlayer();
+			Player b = simulation.getPlayerState(to).getPlayer();
+			double angle = Math.atan2(b.getY() - a.getY(), b.getX() - a.getX()) + (random.nextDouble() - 0.5) * 0.2;
+			shooter[s] = from;
+			x0[s] = a.getX();
+			y0[s] = a.getY();
+			x1[s] = a.getX() + Math.cos(angle) * range;
+			y1[s] = a.getY() + Math.sin(angle) * range;
+		}
+	}
+
+	@Benchmark
+	public int rewindAndTrace() {
+		int s = next++ & (SHOTS - 1);
+		int viewTick = history.getNewestTick() - rewind;
+		return history.raycast(viewTick, shooter[s], x0[s], y0[s], x1[s], y1[s], simulation.getCollision(), wallHit);
+	}
+}
@@ -0,0 +1,57 @@
+package valorant2d;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Getting a map ready to play: building one Tile object per tile like we used to,
+// vs opening a .v2dm file and loading the chunks around a 1080p camera.
+// The object map grows with the tile count; the mapped one should stay flat.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapBenchmark {
+
+	// Map edge in tiles
+	@Param({ "100", "500", "2000" })
+	public int size;
+
+	private Path file;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		file = Files.createTempFile("bench", ".v2dm");
+		MapFile.write(file, MapFile.generate(size, size, 1));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	@Benchmark
+	public BenchMaps.OldTile[][] tileObjects() {
+		BenchMaps.OldTile[][] tiles = new BenchMaps.OldTile[size][size];
+		for (int row = 0; row < size; row++) {
+			for (int col = 0; col < size; col++) {
+				boolean border = row == 0 || row == size - 1 || col == 0 || col == size - 1;
+				tiles[row][col] = new BenchMaps.OldTile(col * Simulation.TILE_SIZE, row * Simulation.TILE_SIZE,
+						Simulation.TILE_SIZE, border ? Tile.Type.WALL : Tile.Type.FLOOR);
+			}
+		}
+		return tiles;
+	}
+
+	@Benchmark
+	public TileMap mappedFile() throws IOException {
+		TileMap map = MapFile.open(file);
+		map.retainAround(0, 0, 1920, 1080);
+		return map;
+	}
+}
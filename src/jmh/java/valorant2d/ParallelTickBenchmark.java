@@ -0,0 +1,82 @@
+package valorant2d;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Simulation.tick spread over 1..8 threads (TickScheduler), with a crowd of
+// players all walking and firing and the bullets topped back up before every
+// tick so the count stays fixed. Speedup is limited by the cores the machine
+// actually has; on one core the extra threads are pure overhead.
+//
+//   java -jar target/benchmarks.jar ParallelTickBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelTickBenchmark {
+
+	private static final long TICK_NS = 1_000_000_000L / 60;
+	private static final int PLAYERS = 32;
+
+	@Param({ "1", "2", "4", "8" })
+	public int threads;
+
+	@Param({ "4000" })
+	public int bullets;
+
+	private Simulation simulation;
+	private TickScheduler scheduler;
+	private GameClock clock;
+	private Random random;
+	private int tick = 0;
+
+	@Setup
+	public void setup() {
+		simulation = new Simulation(TileMap.bordered(250, 250, Simulation.TILE_SIZE), 1, PLAYERS);
+		scheduler = new TickScheduler(threads);
+		simulation.setScheduler(scheduler);
+		clock = GameClock.virtual();
+		random = new Random(2);
+
+		for (int i = 0; i < PLAYERS; i++) {
+			PlayerInput input = simulation.getPlayerState(i).getInput();
+			input.fire = true;
+			input.aimX = simulation.getWidth() / 2;
+			input.aimY = simulation.getHeight() / 2;
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		scheduler.close();
+	}
+
+	@Benchmark
+	public int tick() {
+		// Everyone walks around in a square, each a bit out of step
+		for (int i = 0; i < PLAYERS; i++) {
+			PlayerInput input = simulation.getPlayerState(i).getInput();
+			int dir = ((tick + i * 16) >> 6) & 3;
+			input.up = dir == 0;
+			input.right = dir == 1;
+			input.down = dir == 2;
+			input.left = dir == 3;
+		}
+		tick++;
+
+		BulletPool pool = simulation.getBullets();
+		while (pool.size() < bullets) {
+			pool.spawn(random.nextInt(simulation.getWidth()), random.nextInt(simulation.getHeight()),
+					random.nextDouble() * Math.PI * 2);
+		}
+
+		clock.beginTick();
+		simulation.tick(clock);
+		clock.advance(TICK_NS);
+		return pool.size();
+	}
+}
@@ -0,0 +1,162 @@
+package valorant2d;
+
+import java.util.HashMap;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// One path query between random open tiles on a generated map (MapFile.generate,
+// the same kind of map the game loads for big maps). boxedAStar is a textbook A*
+// with a node object per tile, a PriorityQueue and a HashMap; jps is PathFinder;
+// cachedPath is a PathCache hit for a path asked for before. Run with -prof gc
+// to see that PathFinder and the cache don't allocate.
+//
+//   java -jar target/benchmarks.jar PathfindingBenchmark -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathfindingBenchmark {
+
+	private static final int QUERIES = 256;
+
+	@Param({ "256", "1024" })
+	public int mapSize;
+
+	private TileMap map;
+	private PathFinder finder;
+	private PathCache cache;
+	private final Path path = new Path();
+	private int[] startRow, startCol, goalRow, goalCol;
+	private int next = 0;
+
+	@Setup
+	public void setup() {
+		map = MapFile.generate(mapSize, mapSize, 1);
+		finder = new PathFinder(map);
+		cache = new PathCache(QUERIES);
+
+		Random random = new Random(9);
+		startRow = new int[QUERIES];
+		startCol = new int[QUERIES];
+		goalRow = new int[QUERIES];
+		goalCol = new int[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			do {
+				startRow[i] = random.nextInt(mapSize);
+				startCol[i] = random.nextInt(mapSize);
+			} while (!finder.isWalkable(startRow[i], startCol[i]));
+			do {
+				goalRow[i] = random.nextInt(mapSize);
+				goalCol[i] = random.nextInt(mapSize);
+			} while (!finder.isWalkable(goalRow[i], goalCol[i]));
+
+			finder.find(startRow[i], startCol[i], goalRow[i], goalCol[i], path);
+			cache.put(PathCache.key(i, i), path);
+		}
+	}
+
+	private int nextQuery() {
+		int i = next;
+		next = (next + 1) % QUERIES;
+		return i;
+	}
+
+	@Benchmark
+	public double boxedAStar() {
+		int i = nextQuery();
+		return BoxedAStar.find(map, startRow[i], startCol[i], goalRow[i], goalCol[i]);
+	}
+
+	@Benchmark
+	public Path jps() {
+		int i = nextQuery();
+		finder.find(startRow[i], startCol[i], goalRow[i], goalCol[i], path);
+		return path;
+	}
+
+	@Benchmark
+	public Path cachedPath() {
+		int i = nextQuery();
+		cache.get(PathCache.key(i, i), path);
+		return path;
+	}
+
+	// A* the way it's usually first written. Same moves and costs as PathFinder.
+	static final class BoxedAStar {
+		private static final int[] DX = { 1, -1, 0, 0, 1, 1, -1, -1 };
+		private static final int[] DY = { 0, 0, 1, -1, 1, -1, 1, -1 };
+
+		static final class Node {
+			final int row, col;
+			int g;
+			double f;
+			Node parent;
+
+			Node(int row, int col) {
+				this.row = row;
+				this.col = col;
+			}
+		}
+
+		// Returns the path cost in tiles, -1 if there is none
+		static double find(TileMap map, int startRow, int startCol, int goalRow, int goalCol) {
+			HashMap<Integer, Node> nodes = new HashMap<>();
+			HashMap<Integer, Boolean> closed = new HashMap<>();
+			PriorityQueue<Node> open = new PriorityQueue<>((a, b) -> Double.compare(a.f, b.f));
+			int cols = map.getCols();
+
+			Node start = new Node(startRow, startCol);
+			start.f = heuristic(startRow, startCol, goalRow, goalCol);
+			nodes.put(startRow * cols + startCol, start);
+			open.add(start);
+			while (!open.isEmpty()) {
+				Node node = open.poll();
+				if (closed.containsKey(node.row * cols + node.col)) {
+					continue;
+				}
+				closed.put(node.row * cols + node.col, true);
+				if (node.row == goalRow && node.col == goalCol) {
+					return node.g / 100.0;
+				}
+				for (int d = 0; d < 8; d++) {
+					int row = node.row + DY[d], col = node.col + DX[d];
+					if (!walkable(map, row, col)) {
+						continue;
+					}
+					boolean diagonal = DX[d] != 0 && DY[d] != 0;
+					if (diagonal && (!walkable(map, node.row, col) || !walkable(map, row, node.col))) {
+						continue;
+					}
+					int g = node.g + (diagonal ? 141 : 100);
+					Node next = nodes.get(row * cols + col);
+					if (next == null) {
+						next = new Node(row, col);
+						next.g = Integer.MAX_VALUE;
+						nodes.put(row * cols + col, next);
+					}
+					if (g < next.g) {
+						next.g = g;
+						next.f = g + heuristic(row, col, goalRow, goalCol);
+						next.parent = node;
+						open.add(next);
+					}
+				}
+			}
+			return -1;
+		}
+
+		private static boolean walkable(TileMap map, int row, int col) {
+			return row >= 0 && col >= 0 && row < map.getRows() && col < map.getCols() && map.get(row, col) != Tile.WALL;
+		}
+
+		private static double heuristic(int row, int col, int goalRow, int goalCol) {
+			int dx = Math.abs(col - goalCol), dy = Math.abs(row - goalRow);
+			return 100 * Math.max(dx, dy) + 41 * Math.min(dx, dy);
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package valorant2d;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Off-screen rendering into a BufferedImage. fullFrame is what GamePanel draws
+// while playing; tilesPerTile/tilesCached compare the map alone before and
+// after TileLayer. worldScale makes the map that many screens wide and high:
+// tilesPerTile grows with it, the culled paths should not.
+// Headless, so this measures Java2D's software loops.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBenchmark {
+
+	@Param({ "1920x1080", "3840x2160" })
+	public String screen;
+
+	@Param({ "0", "4000" })
+	public int bullets;
+
+	@Param({ "1", "4" })
+	public int worldScale;
+
+	private BufferedImage frame;
+	private Graphics g;
+	private TileMap map;
+	private TileLayer tileLayer;
+	private WorldRenderer renderer;
+	private WorldSnapshot snapshot;
+	private int width, height;
+
+	@Setup
+	public void setup() throws IOException {
+		width = Integer.parseInt(screen.split("x")[0]);
+		height = Integer.parseInt(screen.split("x")[1]);
+		int worldWidth = width * worldScale;
+		int worldHeight = height * worldScale;
+
+		Simulation simulation = new Simulation(worldWidth, worldHeight, 1);
+		Random random = new Random(3);
+		for (int i = 0; i < bullets; i++) {
+			simulation.getBullets().spawn(random.nextInt(worldWidth), random.nextInt(worldHeight), random.nextDouble() * Math.PI * 2);
+		}
+
+		map = simulation.getMap();
+		Atlas atlas = Atlas.load(null);
+		tileLayer = new TileLayer(map, atlas);
+		renderer = new WorldRenderer(map, atlas, width, height, new Metrics());
+		snapshot = new WorldSnapshot(Simulation.MAX_BULLETS);
+		snapshot.capture(0, simulation);
+
+		frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		g = frame.getGraphics();
+	}
+
+	@TearDown
+	public void tearDown() {
+		g.dispose();
+	}
+
+	@Benchmark
+	public BufferedImage fullFrame() {
+		renderer.render(g, null, snapshot, 0.5f);
+		return frame;
+	}
+
+	// What renderGameWorld did before TileLayer
+	@Benchmark
+	public BufferedImage tilesPerTile() {
+		int size = map.getTileSize();
+		for (int row = 0; row < map.getRows(); row++) {
+			for (int col = 0; col < map.getCols(); col++) {
+				drawTile(g, map.get(row, col), col * size, row * size, size);
+			}
+		}
+		return frame;
+	}
+
+	// Tile.draw from before the sprite atlas
+	private static void drawTile(Graphics g, byte type, int x, int y, int size) {
+		g.setColor(type == Tile.WALL ? Color.GRAY : Color.DARK_GRAY);
+		g.fillRect(x, y, size, size);
+		g.setColor(Color.BLACK);
+		g.drawRect(x, y, size, size);
+	}
+
+	@Benchmark
+	public BufferedImage tilesCached() {
+		tileLayer.draw(g, null, 0, 0, width, height);
+		return frame;
+	}
+}
@@ -0,0 +1,117 @@
+package valorant2d;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// A frame's worth of sprites drawn three ways: Java2D primitives with a colour
+// change per sprite (how Player, Tile and bullets were drawn before the atlas),
+// one image per sprite, and atlas pages through SpriteBatch. The sprites are a
+// shuffled mix of player, bullet, floor and wall. loadAtlas is what the loader
+// thread does while the title screen is up.
+// Headless, so this measures Java2D's software loops.
+//
+//   java -jar target/benchmarks.jar SpriteBenchmark -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SpriteBenchmark {
+
+	private static final int WIDTH = 1920, HEIGHT = 1080;
+	private static final String[] NAMES = { "player", "bullet", "floor", "wall" };
+	private static final Color[] COLORS = { Color.WHITE, Color.YELLOW, Color.DARK_GRAY, Color.GRAY };
+
+	@Param({ "1000", "10000" })
+	public int sprites;
+
+	private BufferedImage frame;
+	private Graphics g;
+	private Atlas atlas;
+	private SpriteBatch batch;
+	private BufferedImage[] images;  // One image per kind, cut out of the atlas
+	private int[] atlasSprite;
+
+	private int[] kind, x, y, size;
+
+	@Setup
+	public void setup() throws IOException {
+		atlas = Atlas.load(null);
+		batch = new SpriteBatch(atlas, sprites);
+		atlasSprite = new int[NAMES.length];
+		images = new BufferedImage[NAMES.length];
+		for (int k = 0; k < NAMES.length; k++) {
+			int s = atlas.find(NAMES[k]);
+			atlasSprite[k] = s;
+			images[k] = new BufferedImage(atlas.getWidth(s), atlas.getHeight(s), BufferedImage.TYPE_INT_ARGB_PRE);
+			Graphics ig = images[k].getGraphics();
+			ig.drawImage(atlas.getPageImage(atlas.getPage(s), null), -atlas.getX(s), -atlas.getY(s), null);
+			ig.dispose();
+		}
+
+		Random random = new Random(5);
+		kind = new int[sprites];
+		x = new int[sprites];
+		y = new int[sprites];
+		size = new int[sprites];
+		for (int i = 0; i < sprites; i++) {
+			kind[i] = random.nextInt(NAMES.length);
+			x[i] = random.nextInt(WIDTH);
+			y[i] = random.nextInt(HEIGHT);
+			size[i] = atlas.getWidth(atlasSprite[kind[i]]);
+		}
+
+		frame = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		g = frame.getGraphics();
+	}
+
+	@TearDown
+	public void tearDown() {
+		g.dispose();
+	}
+
+	@Benchmark
+	public BufferedImage primitives() {
+		for (int i = 0; i < sprites; i++) {
+			g.setColor(COLORS[kind[i]]);
+			if (kind[i] == 1) {
+				g.fillOval(x[i], y[i], size[i], size[i]);
+			} else {
+				g.fillRect(x[i], y[i], size[i], size[i]);
+				if (kind[i] > 1) {
+					g.setColor(Color.BLACK);
+					g.drawRect(x[i], y[i], size[i], size[i]);
+				}
+			}
+		}
+		return frame;
+	}
+
+	@Benchmark
+	public BufferedImage separateImages() {
+		for (int i = 0; i < sprites; i++) {
+			g.drawImage(images[kind[i]], x[i], y[i], null);
+		}
+		return frame;
+	}
+
+	@Benchmark
+	public BufferedImage atlasBatched() {
+		for (int i = 0; i < sprites; i++) {
+			batch.add(atlasSprite[kind[i]], x[i], y[i]);
+		}
+		batch.flush(g, null);
+		return frame;
+	}
+
+	@Benchmark
+	public Atlas loadAtlas() throws IOException {
+		return Atlas.load(null);
+	}
+}
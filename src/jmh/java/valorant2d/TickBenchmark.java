@@ -0,0 +1,68 @@
+package valorant2d;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Throughput of a full Simulation.tick (movement, bullets, weapons, recoil)
+// for different map sizes and live bullet counts. Bullets are topped back up
+// before every tick so the count stays fixed.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TickBenchmark {
+
+	private static final long TICK_NS = 1_000_000_000L / 60;
+
+	// cols x rows, the first is a 1080p screen
+	@Param({ "48x27", "250x250", "500x500" })
+	public String mapSize;
+
+	@Param({ "0", "1000", "4000" })
+	public int bullets;
+
+	private Simulation simulation;
+	private GameClock clock;
+	private Random random;
+	private int tick = 0;
+
+	@Setup
+	public void setup() {
+		int cols = Integer.parseInt(mapSize.split("x")[0]);
+		int rows = Integer.parseInt(mapSize.split("x")[1]);
+		simulation = new Simulation(cols * Simulation.TILE_SIZE, rows * Simulation.TILE_SIZE, 1);
+		clock = GameClock.virtual();
+		random = new Random(2);
+
+		PlayerInput input = simulation.getInput();
+		input.fire = true;
+		input.aimX = simulation.getWidth() / 2;
+		input.aimY = simulation.getHeight() / 2;
+	}
+
+	@Benchmark
+	public int tick() {
+		// Walk around in a square so movement and collision are exercised
+		PlayerInput input = simulation.getInput();
+		int dir = (tick++ >> 6) & 3;
+		input.up = dir == 0;
+		input.right = dir == 1;
+		input.down = dir == 2;
+		input.left = dir == 3;
+
+		BulletPool pool = simulation.getBullets();
+		while (pool.size() < bullets) {
+			pool.spawn(random.nextInt(simulation.getWidth()), random.nextInt(simulation.getHeight()),
+					random.nextDouble() * Math.PI * 2);
+		}
+
+		clock.beginTick();
+		simulation.tick(clock);
+		clock.advance(TICK_NS);
+		return pool.size();
+	}
+}
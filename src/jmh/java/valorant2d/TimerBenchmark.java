@@ -0,0 +1,109 @@
+package valorant2d;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// A 60 Hz tick's worth of timers for many players, each with a reload, an equip,
+// a fire cooldown and a spray cooldown that could be running. Every player
+// starts about one a second (100 ms to 3 s long, restarting it if it was still
+// running), so most are idle at any moment. polling checks every one against
+// the clock each tick, the way Weapon and PlayerState used to; wheel advances a
+// TimerWheel and only touches the timers that start or run out.
+//
+//   java -jar target/benchmarks.jar TimerBenchmark -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimerBenchmark {
+
+	private static final long TICK_NS = 1_000_000_000L / 60;
+	private static final int KINDS = 4;
+	private static final int LENGTHS = 4096;  // Power of two
+
+	@Param({ "1000", "10000", "100000" })
+	public int players;
+
+	// The same timers start in the same order for both
+	private final int[] lengths = new int[LENGTHS];
+	private int[] order;
+	private int next;
+	private int startsPerTick;
+
+	private GameClock clock;
+	private boolean[] running;
+	private long[] started;
+	private int[] duration;
+
+	private TimerWheel timers;
+	private int[] handles;
+	private TimerWheel.Listener expired;
+	private int expiredCount;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(7);
+		for (int i = 0; i < LENGTHS; i++) {
+			lengths[i] = 100 + random.nextInt(2900);
+		}
+		int count = players * KINDS;
+		order = new int[count];
+		for (int i = 0; i < count; i++) {
+			order[i] = random.nextInt(count);
+		}
+		startsPerTick = Math.max(1, players / 60);
+
+		clock = GameClock.virtual();
+		running = new boolean[count];
+		started = new long[count];
+		duration = new int[count];
+		timers = new TimerWheel(count, clock.millis() - 1);
+		handles = new int[count];
+		Arrays.fill(handles, TimerWheel.NONE);
+		expired = (owner, kind) -> {
+			handles[owner * KINDS + kind] = TimerWheel.NONE;
+			expiredCount++;
+		};
+	}
+
+	@Benchmark
+	public int polling() {
+		clock.beginTick();
+		long now = clock.millis();
+		int expiredCount = 0;
+		for (int i = 0; i < running.length; i++) {
+			if (running[i] && now - started[i] >= duration[i]) {
+				running[i] = false;
+				expiredCount++;
+			}
+		}
+		for (int s = 0; s < startsPerTick; s++) {
+			int i = order[next % order.length];
+			running[i] = true;
+			started[i] = now;
+			duration[i] = lengths[next++ & (LENGTHS - 1)];
+		}
+		clock.advance(TICK_NS);
+		return expiredCount;
+	}
+
+	@Benchmark
+	public int wheel() {
+		clock.beginTick();
+		long now = clock.millis();
+		expiredCount = 0;
+		timers.advance(now, expired);
+		for (int s = 0; s < startsPerTick; s++) {
+			int i = order[next % order.length];
+			timers.cancel(handles[i]);
+			handles[i] = timers.schedule(now + lengths[next++ & (LENGTHS - 1)], i / KINDS, i % KINDS);
+		}
+		clock.advance(TICK_NS);
+		return expiredCount;
+	}
+}
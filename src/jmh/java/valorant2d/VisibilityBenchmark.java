@@ -0,0 +1,123 @@
+package valorant2d;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Field of view on generated maps (MapFile.generate) with the game's sight radius.
+// raycastEveryTile is the obvious way: a CollisionMap ray to the middle of every
+// tile in range. shadowcast is one SightMap cast from a random open tile, the
+// cost of stepping onto a new tile. walkingPlayers is a 60 Hz tick's worth of
+// FieldOfView.update for 64 players walking at game speed, where most ticks
+// nobody changes tile and the cached view is kept.
+//
+//   java -jar target/benchmarks.jar VisibilityBenchmark -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VisibilityBenchmark {
+
+	private static final int ORIGINS = 256;
+	private static final int PLAYERS = 64;
+	private static final int SPEED = 3;  // Pixels per tick, like Player
+
+	@Param({ "256", "1024" })
+	public int mapSize;
+
+	private int tileSize;
+	private CollisionMap collision;
+	private SightMap sight;
+	private FieldOfView view;
+	private final RayHit hit = new RayHit();
+	private int[] originRow, originCol;
+	private int next = 0;
+
+	// Walkers go back and forth along a row
+	private FieldOfView[] walkers;
+	private double[] walkX, walkY, walkDx;
+
+	@Setup
+	public void setup() {
+		TileMap map = MapFile.generate(mapSize, mapSize, 1);
+		tileSize = map.getTileSize();
+		collision = new CollisionMap(map);
+		sight = new SightMap(map);
+		view = new FieldOfView(Simulation.SIGHT_RADIUS);
+
+		Random random = new Random(3);
+		originRow = new int[ORIGINS];
+		originCol = new int[ORIGINS];
+		for (int i = 0; i < ORIGINS; i++) {
+			do {
+				originRow[i] = random.nextInt(mapSize);
+				originCol[i] = random.nextInt(mapSize);
+			} while (sight.isOpaque(originRow[i], originCol[i]));
+		}
+
+		walkers = new FieldOfView[PLAYERS];
+		walkX = new double[PLAYERS];
+		walkY = new double[PLAYERS];
+		walkDx = new double[PLAYERS];
+		for (int i = 0; i < PLAYERS; i++) {
+			walkers[i] = new FieldOfView(Simulation.SIGHT_RADIUS);
+			walkX[i] = (originCol[i] + 0.5) * tileSize;
+			walkY[i] = (originRow[i] + 0.5) * tileSize;
+			walkDx[i] = i % 2 == 0 ? SPEED : -SPEED;
+		}
+	}
+
+	private int nextOrigin() {
+		int i = next;
+		next = (next + 1) % ORIGINS;
+		return i;
+	}
+
+	@Benchmark
+	public int raycastEveryTile() {
+		int i = nextOrigin();
+		int radius = Simulation.SIGHT_RADIUS;
+		double x0 = (originCol[i] + 0.5) * tileSize, y0 = (originRow[i] + 0.5) * tileSize;
+		int visible = 0;
+		for (int dy = -radius; dy <= radius; dy++) {
+			for (int dx = -radius; dx <= radius; dx++) {
+				int row = originRow[i] + dy, col = originCol[i] + dx;
+				if (dx * dx + dy * dy > radius * radius || row < 0 || col < 0 || row >= mapSize || col >= mapSize) {
+					continue;
+				}
+				if (!collision.raycast(x0, y0, (col + 0.5) * tileSize, (row + 0.5) * tileSize, hit)
+						|| (hit.getRow() == row && hit.getCol() == col)) {
+					visible++;
+				}
+			}
+		}
+		return visible;
+	}
+
+	@Benchmark
+	public int shadowcast() {
+		int i = nextOrigin();
+		sight.cast(view, originRow[i], originCol[i]);
+		return view.countVisible();
+	}
+
+	@Benchmark
+	public int walkingPlayers() {
+		int casts = 0;
+		for (int i = 0; i < PLAYERS; i++) {
+			double x = walkX[i] + walkDx[i];
+			if (sight.isOpaque((int) (walkY[i] / tileSize), (int) Math.floor(x / tileSize))) {
+				walkDx[i] = -walkDx[i];  // Turn around at walls
+			} else {
+				walkX[i] = x;
+			}
+			if (walkers[i].update(sight, walkX[i], walkY[i])) {
+				casts++;
+			}
+		}
+		return casts;
+	}
+}
@@ -0,0 +1,70 @@
+package valorant2d;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// The Weapon state machine under full-auto fire on a virtual clock:
+// fire until the mag is empty, auto reload, repeat. Cooldowns and reloads
+// finish through a TimerWheel, as in Simulation.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeaponBenchmark {
+
+	private static final long TICK_NS = 1_000_000_000L / 60;
+
+	@Param({ "PRIMARY", "SECONDARY" })
+	public WeaponType type;
+
+	private static final int FIRE = 0, RELOAD = 1;
+
+	private Weapon weapon;
+	private GameClock clock;
+	private TimerWheel timers;
+	private TimerWheel.Listener expired;
+
+	@Setup
+	public void setup() {
+		clock = GameClock.virtual();
+		timers = new TimerWheel(16, clock.millis() - 1);
+		expired = (owner, kind) -> {
+			if (kind == FIRE) {
+				weapon.setFireReady();
+			} else {
+				weapon.finishReload();
+			}
+		};
+		newWeapon();
+	}
+
+	// One tick of weapon logic, the same calls Simulation.tick makes
+	@Benchmark
+	public int fireTick() {
+		clock.beginTick();
+		long now = clock.millis();
+		timers.advance(now, expired);
+		if (weapon.canShoot()) {
+			weapon.shoot(now);
+			timers.schedule(weapon.getFireReadyTime(), 0, FIRE);
+		}
+		if (weapon.shouldAutoReload() && weapon.startReload(now)) {
+			timers.schedule(weapon.getReloadDoneTime(), 0, RELOAD);
+		}
+		if (weapon.getReserveAmmo() == 0 && weapon.getBulletsInMag() == 0) {
+			newWeapon();  // Out of ammo, start over with a full one
+		}
+		clock.advance(TICK_NS);
+		return weapon.getBulletsInMag();
+	}
+
+	private void newWeapon() {
+		timers.clear(clock.millis());
+		weapon = type == WeaponType.PRIMARY
+				? new Weapon(WeaponType.PRIMARY, 30, 60, 114, 1000, 2500, 0, 40, PlayerState.KICK_RECOIL)
+				: new Weapon(WeaponType.SECONDARY, 12, 36, 300, 750, 1750, 300, 26, PlayerState.CLASSIC_RECOIL);
+	}
+}
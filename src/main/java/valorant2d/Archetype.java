@@ -0,0 +1,188 @@
+package valorant2d;
+
+import java.util.Arrays;
+
+// Every entity with one particular set of components (EntityWorld), stored as
+// a table: a row per entity and a primitive array per field of each component
+// it has. Arrays for components it doesn't have stay null. A system runs down
+// the rows of each archetype it wants, so it reads memory front to back with no
+// objects in the way. Removing a row moves the last row into the hole, the same
+// as BulletPool.
+class Archetype {
+	private final int mask;
+	private int count = 0;
+	private int capacity;
+	int[] entities;
+
+	// POSITION: top-left corner for bodies, the point itself for everything else
+	double[] x, y;
+	double[] prevX, prevY;  // Where it was before the last move, for smooth drawing
+
+	// VELOCITY: pixels per tick
+	double[] dx, dy;
+
+	// BODY: axis-aligned box from (x, y)
+	int[] width, height;
+
+	// CONTROL: buttons held (NetProtocol bit layout) and where it's aiming
+	byte[] buttons;
+	int[] aimX, aimY;
+
+	// WEAPON: the weapon in hand, see Weapon
+	byte[] weaponType;
+	int[] magSize, bulletsInMag, reserveAmmo;
+	int[] fireRateMs, reloadTimeMs;
+	long[] lastFiredTime, reloadStartTime, sprayCooldownStartTime;
+	boolean[] reloading;
+
+	Archetype(int mask, int capacity) {
+		this.mask = mask;
+		this.capacity = Math.max(1, capacity);
+		allocate(this.capacity);
+	}
+
+	public boolean has(int components) {
+		return (mask & components) == components;
+	}
+
+	// Add an empty row for the entity and return it. Fields start at zero.
+	int add(int entity) {
+		if (count == capacity) {
+			capacity *= 2;
+			allocate(capacity);
+		}
+		clear(count);
+		entities[count] = entity;
+		return count++;
+	}
+
+	// Drop a row by moving the last one into it. Returns the entity that moved, or -1.
+	int remove(int row) {
+		int last = --count;
+		if (row == last) {
+			return -1;
+		}
+		copyRow(this, last, row);
+		return entities[row];
+	}
+
+	// Copy the fields both archetypes have (moving an entity between them, or within one)
+	void copyRow(Archetype from, int fromRow, int toRow) {
+		entities[toRow] = from.entities[fromRow];
+		int shared = mask & from.mask;
+		if ((shared & EntityWorld.POSITION) != 0) {
+			x[toRow] = from.x[fromRow];
+			y[toRow] = from.y[fromRow];
+			prevX[toRow] = from.prevX[fromRow];
+			prevY[toRow] = from.prevY[fromRow];
+		}
+		if ((shared & EntityWorld.VELOCITY) != 0) {
+			dx[toRow] = from.dx[fromRow];
+			dy[toRow] = from.dy[fromRow];
+		}
+		if ((shared & EntityWorld.BODY) != 0) {
+			width[toRow] = from.width[fromRow];
+			height[toRow] = from.height[fromRow];
+		}
+		if ((shared & EntityWorld.CONTROL) != 0) {
+			buttons[toRow] = from.buttons[fromRow];
+			aimX[toRow] = from.aimX[fromRow];
+			aimY[toRow] = from.aimY[fromRow];
+		}
+		if ((shared & EntityWorld.WEAPON) != 0) {
+			weaponType[toRow] = from.weaponType[fromRow];
+			magSize[toRow] = from.magSize[fromRow];
+			bulletsInMag[toRow] = from.bulletsInMag[fromRow];
+			reserveAmmo[toRow] = from.reserveAmmo[fromRow];
+			fireRateMs[toRow] = from.fireRateMs[fromRow];
+			reloadTimeMs[toRow] = from.reloadTimeMs[fromRow];
+			lastFiredTime[toRow] = from.lastFiredTime[fromRow];
+			reloadStartTime[toRow] = from.reloadStartTime[fromRow];
+			sprayCooldownStartTime[toRow] = from.sprayCooldownStartTime[fromRow];
+			reloading[toRow] = from.reloading[fromRow];
+		}
+	}
+
+	private void clear(int row) {
+		if (x != null) {
+			x[row] = y[row] = prevX[row] = prevY[row] = 0;
+		}
+		if (dx != null) {
+			dx[row] = dy[row] = 0;
+		}
+		if (width != null) {
+			width[row] = height[row] = 0;
+		}
+		if (buttons != null) {
+			buttons[row] = 0;
+			aimX[row] = aimY[row] = 0;
+		}
+		if (weaponType != null) {
+			weaponType[row] = 0;
+			magSize[row] = bulletsInMag[row] = reserveAmmo[row] = 0;
+			fireRateMs[row] = reloadTimeMs[row] = 0;
+			lastFiredTime[row] = reloadStartTime[row] = sprayCooldownStartTime[row] = 0;
+			reloading[row] = false;
+		}
+	}
+
+	// Make (or grow) the arrays for the components this archetype has
+	private void allocate(int size) {
+		entities = entities == null ? new int[size] : Arrays.copyOf(entities, size);
+		if ((mask & EntityWorld.POSITION) != 0) {
+			x = grow(x, size);
+			y = grow(y, size);
+			prevX = grow(prevX, size);
+			prevY = grow(prevY, size);
+		}
+		if ((mask & EntityWorld.VELOCITY) != 0) {
+			dx = grow(dx, size);
+			dy = grow(dy, size);
+		}
+		if ((mask & EntityWorld.BODY) != 0) {
+			width = grow(width, size);
+			height = grow(height, size);
+		}
+		if ((mask & EntityWorld.CONTROL) != 0) {
+			buttons = buttons == null ? new byte[size] : Arrays.copyOf(buttons, size);
+			aimX = grow(aimX, size);
+			aimY = grow(aimY, size);
+		}
+		if ((mask & EntityWorld.WEAPON) != 0) {
+			weaponType = weaponType == null ? new byte[size] : Arrays.copyOf(weaponType, size);
+			magSize = grow(magSize, size);
+			bulletsInMag = grow(bulletsInMag, size);
+			reserveAmmo = grow(reserveAmmo, size);
+			fireRateMs = grow(fireRateMs, size);
+			reloadTimeMs = grow(reloadTimeMs, size);
+			lastFiredTime = grow(lastFiredTime, size);
+			reloadStartTime = grow(reloadStartTime, size);
+			sprayCooldownStartTime = grow(sprayCooldownStartTime, size);
+			reloading = reloading == null ? new boolean[size] : Arrays.copyOf(reloading, size);
+		}
+	}
+
+	private static double[] grow(double[] array, int size) {
+		return array == null ? new double[size] : Arrays.copyOf(array, size);
+	}
+
+	private static int[] grow(int[] array, int size) {
+		return array == null ? new int[size] : Arrays.copyOf(array, size);
+	}
+
+	private static long[] grow(long[] array, int size) {
+		return array == null ? new long[size] : Arrays.copyOf(array, size);
+	}
+
+	public int getMask() {
+		return mask;
+	}
+
+	public int size() {
+		return count;
+	}
+
+	public int getEntity(int row) {
+		return entities[row];
+	}
+}
@@ -0,0 +1,241 @@
+package valorant2d;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+// The sprite atlas AtlasPacker made at build time, loaded from the classpath
+// (/atlas). Pages are decoded once into images in the screen's format, and on
+// screen also copied into VolatileImages so drawing a sprite is an accelerated
+// blit. Sprites are looked up by name once and then referred to by index.
+//
+// Decoding takes a while, so the game starts it on a background thread with
+// loadAsync() while the title screen is up.
+public class Atlas {
+	private static final String DIR = "/atlas/";
+
+	// Where each sprite is, by index
+	private final String[] names;
+	private final int[] page, x, y, width, height;
+
+	private final BufferedImage[] pages;
+	private final VolatileImage[] volatilePages;  // Accelerated copies, only when loaded for a screen
+	private final GraphicsConfiguration gc;
+
+	private Atlas(String[] names, int[] page, int[] x, int[] y, int[] width, int[] height, BufferedImage[] pages,
+			GraphicsConfiguration gc) {
+		this.names = names;
+		this.page = page;
+		this.x = x;
+		this.y = y;
+		this.width = width;
+		this.height = height;
+		this.pages = pages;
+		this.gc = gc;
+		this.volatilePages = new VolatileImage[pages.length];
+		if (gc != null) {
+			for (int p = 0; p < pages.length; p++) {
+				volatilePages[p] = createVolatile(p);
+				restore(p);
+			}
+		}
+	}
+
+	// Load the atlas. gc is the screen it will be drawn to, or null when drawing off-screen.
+	public static Atlas load(GraphicsConfiguration gc) throws IOException {
+		String[] lines = readIndex();
+		String[] header = lines[0].split(" ");
+		if (header.length != 2 || !header[0].equals("pages")) {
+			throw new IOException(DIR + AtlasPacker.INDEX + ": bad header");
+		}
+
+		BufferedImage[] pages = new BufferedImage[Integer.parseInt(header[1])];
+		for (int p = 0; p < pages.length; p++) {
+			pages[p] = readPage(p, gc);
+		}
+
+		int count = lines.length - 1;
+		String[] names = new String[count];
+		int[] page = new int[count], x = new int[count], y = new int[count];
+		int[] width = new int[count], height = new int[count];
+		for (int i = 0; i < count; i++) {
+			String[] fields = lines[i + 1].split(" ");
+			if (fields.length != 6) {
+				throw new IOException(DIR + AtlasPacker.INDEX + ": bad line " + (i + 2));
+			}
+			names[i] = fields[0];
+			page[i] = Integer.parseInt(fields[1]);
+			x[i] = Integer.parseInt(fields[2]);
+			y[i] = Integer.parseInt(fields[3]);
+			width[i] = Integer.parseInt(fields[4]);
+			height[i] = Integer.parseInt(fields[5]);
+		}
+		return new Atlas(names, page, x, y, width, height, pages, gc);
+	}
+
+	// Start loading on a background thread and return straight away
+	public static Loader loadAsync(GraphicsConfiguration gc) {
+		Loader loader = new Loader(gc);
+		Thread thread = new Thread(loader, "Atlas loader");
+		thread.setDaemon(true);
+		thread.start();
+		return loader;
+	}
+
+	public static final class Loader implements Runnable {
+		private final GraphicsConfiguration gc;
+		private volatile Atlas atlas;
+		private volatile IOException error;
+		private volatile long loadNanos;
+
+		private Loader(GraphicsConfiguration gc) {
+			this.gc = gc;
+		}
+
+		@Override
+		public void run() {
+			long start = System.nanoTime();
+			try {
+				atlas = load(gc);
+			} catch (IOException | RuntimeException e) {
+				error = e instanceof IOException io ? io : new IOException(e);
+			}
+			loadNanos = System.nanoTime() - start;
+		}
+
+		// The atlas, or null while it is still loading or if it failed
+		public Atlas get() {
+			return atlas;
+		}
+
+		public IOException getError() {
+			return error;
+		}
+
+		public boolean isDone() {
+			return atlas != null || error != null;
+		}
+
+		public long getLoadNanos() {
+			return loadNanos;
+		}
+	}
+
+	private static String[] readIndex() throws IOException {
+		InputStream in = Atlas.class.getResourceAsStream(DIR + AtlasPacker.INDEX);
+		if (in == null) {
+			throw new IOException(DIR + AtlasPacker.INDEX + " not on the classpath (the build packs it)");
+		}
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+			String[] lines = reader.lines().filter(line -> !line.isBlank()).toArray(String[]::new);
+			if (lines.length == 0) {
+				throw new IOException(DIR + AtlasPacker.INDEX + " is empty");
+			}
+			return lines;
+		}
+	}
+
+	// Decode a page and convert it to the format the screen (or an ARGB_PRE image) blits fastest
+	private static BufferedImage readPage(int p, GraphicsConfiguration gc) throws IOException {
+		BufferedImage decoded;
+		try (InputStream in = Atlas.class.getResourceAsStream(DIR + AtlasPacker.pageFile(p))) {
+			if (in == null) {
+				throw new IOException(DIR + AtlasPacker.pageFile(p) + " not on the classpath");
+			}
+			decoded = ImageIO.read(in);
+		}
+		if (decoded == null) {
+			throw new IOException(DIR + AtlasPacker.pageFile(p) + ": not an image");
+		}
+		int w = decoded.getWidth(), h = decoded.getHeight();
+		BufferedImage image = gc != null ? gc.createCompatibleImage(w, h, Transparency.TRANSLUCENT)
+				: new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+		Graphics2D g = image.createGraphics();
+		g.setComposite(AlphaComposite.Src);
+		g.drawImage(decoded, 0, 0, null);
+		g.dispose();
+		return image;
+	}
+
+	private VolatileImage createVolatile(int p) {
+		return gc.createCompatibleVolatileImage(pages[p].getWidth(), pages[p].getHeight(), Transparency.TRANSLUCENT);
+	}
+
+	// Copy a page into its VolatileImage
+	private void restore(int p) {
+		Graphics2D g = volatilePages[p].createGraphics();
+		g.setComposite(AlphaComposite.Src);
+		g.drawImage(pages[p], 0, 0, null);
+		g.dispose();
+	}
+
+	// The image to draw page p from. When drawing to the screen's gc this is the
+	// accelerated copy, put back first if its contents were lost; check
+	// contentsLost(p) after drawing and draw again if it says so.
+	public Image getPageImage(int p, GraphicsConfiguration target) {
+		VolatileImage image = volatilePages[p];
+		if (image == null || target == null) {
+			return pages[p];
+		}
+		int status = image.validate(target);
+		if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+			// Display mode changed, start over with a new image
+			image.flush();
+			volatilePages[p] = createVolatile(p);
+			restore(p);
+		} else if (status == VolatileImage.IMAGE_RESTORED) {
+			restore(p);
+		}
+		return volatilePages[p];
+	}
+
+	public boolean contentsLost(int p) {
+		return volatilePages[p] != null && volatilePages[p].contentsLost();
+	}
+
+	// Index of the named sprite
+	public int find(String name) {
+		for (int i = 0; i < names.length; i++) {
+			if (names[i].equals(name)) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("no sprite named " + name + " in the atlas, have " + Arrays.toString(names));
+	}
+
+	public int getPageCount() {
+		return pages.length;
+	}
+
+	public int getSpriteCount() {
+		return names.length;
+	}
+
+	public int getPage(int sprite) {
+		return page[sprite];
+	}
+
+	public int getX(int sprite) {
+		return x[sprite];
+	}
+
+	public int getY(int sprite) {
+		return y[sprite];
+	}
+
+	public int getWidth(int sprite) {
+		return width[sprite];
+	}
+
+	public int getHeight(int sprite) {
+		return height[sprite];
+	}
+}
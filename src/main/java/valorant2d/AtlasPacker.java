@@ -0,0 +1,129 @@
+package valorant2d;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+// Packs every PNG in a directory into as few atlas pages as it can and writes the
+// pages plus an index saying where each sprite ended up (see Atlas). Sprites go
+// onto shelves, tallest first, with a pixel of space between them so scaled
+// draws don't bleed into a neighbour. The build runs this over src/main/sprites
+// after compiling, so the game only ever decodes a page or two.
+//
+//   java valorant2d.AtlasPacker <spriteDir> <outDir> [pageSize]
+//
+// atlas.txt has a "pages <n>" line, then "<name> <page> <x> <y> <width> <height>"
+// per sprite; the pages are atlas-0.png, atlas-1.png, ...
+public final class AtlasPacker {
+
+	public static final String INDEX = "atlas.txt";
+	private static final int PADDING = 1;
+
+	private AtlasPacker() {
+	}
+
+	private static final class Sprite {
+		final String name;
+		final BufferedImage image;
+		int page, x, y;
+
+		Sprite(String name, BufferedImage image) {
+			this.name = name;
+			this.image = image;
+		}
+	}
+
+	public static String pageFile(int page) {
+		return "atlas-" + page + ".png";
+	}
+
+	// Returns the number of pages written
+	public static int pack(Path spriteDir, Path outDir, int pageSize) throws IOException {
+		List<Sprite> sprites = new ArrayList<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(spriteDir, "*.png")) {
+			for (Path file : files) {
+				BufferedImage image = ImageIO.read(file.toFile());
+				if (image == null) {
+					throw new IOException(file + ": not an image");
+				}
+				if (image.getWidth() > pageSize || image.getHeight() > pageSize) {
+					throw new IOException(file + ": bigger than a " + pageSize + "px page");
+				}
+				String name = file.getFileName().toString();
+				sprites.add(new Sprite(name.substring(0, name.length() - 4), image));
+			}
+		}
+
+		// Tallest first keeps the shelves full; the name makes the output the same on every machine
+		sprites.sort(Comparator.comparingInt((Sprite s) -> -s.image.getHeight()).thenComparing(s -> s.name));
+
+		// Shelf packing: fill a row left to right, start a new row below the tallest
+		// sprite in it, and a new page when a row no longer fits
+		int pages = sprites.isEmpty() ? 0 : 1;
+		int x = 0, y = 0, shelfHeight = 0;
+		int[] pageWidth = new int[sprites.size() + 1], pageHeight = new int[sprites.size() + 1];
+		for (Sprite sprite : sprites) {
+			int w = sprite.image.getWidth(), h = sprite.image.getHeight();
+			if (x + w > pageSize) {
+				x = 0;
+				y += shelfHeight + PADDING;
+				shelfHeight = 0;
+			}
+			if (y + h > pageSize) {
+				pages++;
+				x = 0;
+				y = 0;
+				shelfHeight = 0;
+			}
+			sprite.page = pages - 1;
+			sprite.x = x;
+			sprite.y = y;
+			pageWidth[sprite.page] = Math.max(pageWidth[sprite.page], x + w);
+			pageHeight[sprite.page] = Math.max(pageHeight[sprite.page], y + h);
+			x += w + PADDING;
+			shelfHeight = Math.max(shelfHeight, h);
+		}
+
+		Files.createDirectories(outDir);
+		for (int page = 0; page < pages; page++) {
+			// Pages are only as big as what's on them
+			BufferedImage image = new BufferedImage(pageWidth[page], pageHeight[page], BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g = image.createGraphics();
+			for (Sprite sprite : sprites) {
+				if (sprite.page == page) {
+					g.drawImage(sprite.image, sprite.x, sprite.y, null);
+				}
+			}
+			g.dispose();
+			ImageIO.write(image, "png", outDir.resolve(pageFile(page)).toFile());
+		}
+
+		try (PrintWriter index = new PrintWriter(Files.newBufferedWriter(outDir.resolve(INDEX)))) {
+			index.println("pages " + pages);
+			for (Sprite sprite : sprites) {
+				index.println(sprite.name + " " + sprite.page + " " + sprite.x + " " + sprite.y + " "
+						+ sprite.image.getWidth() + " " + sprite.image.getHeight());
+			}
+		}
+		return pages;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("usage: AtlasPacker <spriteDir> <outDir> [pageSize]");
+			System.exit(1);
+		}
+		int pageSize = args.length > 2 ? Integer.parseInt(args[2]) : 1024;
+		pack(Paths.get(args[0]), Paths.get(args[1]), pageSize);
+	}
+}
@@ -0,0 +1,303 @@
+package valorant2d;
+
+import java.nio.ByteBuffer;
+
+// Fixed-size store for every live bullet. Each field is its own array
+// so updating thousands of bullets is a straight walk through memory,
+// and firing or removing a bullet never allocates. A bullet remembers who
+// fired it and how much damage it does, for when it hits a player (HitGrid).
+public class BulletPool {
+	public static final int NO_OWNER = -1;
+
+	private static final double SPEED = 40;
+	private static final int SIZE = 6;
+
+	private final double[] x, y;
+	private final double[] prevX, prevY;  // Position before the last update, for smooth drawing
+	private final double[] dx, dy;
+	private final int[] owner, damage;
+	private int count = 0;
+
+	// Where bullets hit walls during the last update, for impact effects and damage
+	private final double[] hitX, hitY;
+	private int hitCount = 0;
+	private final RayHit rayHit = new RayHit();
+
+	// Players hit during the last update: HitGrid hit (player and region), shooter and the bullet's damage
+	private final int[] playerHit, playerHitOwner, playerHitDamage;
+	private int playerHitCount = 0;
+
+	// What happened to each bullet in the last advance(), for sweep() to act on
+	private static final byte ALIVE = 0, HIT_WALL = 1, LEFT_WORLD = 2, HIT_PLAYER = 3;
+	private final byte[] fate;
+	private final double[] impactX, impactY;
+	private final int[] impactHit;
+
+	public BulletPool(int capacity) {
+		x = new double[capacity];
+		y = new double[capacity];
+		prevX = new double[capacity];
+		prevY = new double[capacity];
+		dx = new double[capacity];
+		dy = new double[capacity];
+		owner = new int[capacity];
+		damage = new int[capacity];
+		hitX = new double[capacity];
+		hitY = new double[capacity];
+		fate = new byte[capacity];
+		impactX = new double[capacity];
+		impactY = new double[capacity];
+		impactHit = new int[capacity];
+		playerHit = new int[capacity];
+		playerHitOwner = new int[capacity];
+		playerHitDamage = new int[capacity];
+	}
+
+	// Add a bullet flying at an angle, returns false if the pool is full
+	public boolean spawn(double startX, double startY, double angle) {
+		return spawn(startX, startY, Directions.cos(angle), Directions.sin(angle));
+	}
+
+	// Add a bullet flying along a unit vector, returns false if the pool is full
+	public boolean spawn(double startX, double startY, double dirX, double dirY) {
+		return spawn(startX, startY, dirX, dirY, NO_OWNER, 0);
+	}
+
+	// The same, fired by player `owner` (who it can't hit) and doing `damage` to a body
+	public boolean spawn(double startX, double startY, double dirX, double dirY, int owner, int damage) {
+		if (count == x.length) {
+			return false;
+		}
+		x[count] = startX;
+		y[count] = startY;
+		prevX[count] = startX;
+		prevY[count] = startY;
+		dx[count] = dirX * SPEED;
+		dy[count] = dirY * SPEED;
+		this.owner[count] = owner;
+		this.damage[count] = damage;
+		count++;
+		return true;
+	}
+
+	// Move every bullet and drop the ones that hit a wall or left the world.
+	// The whole path is traced through the map so fast bullets can't skip over a wall.
+	public void update(CollisionMap collision, int worldWidth, int worldHeight) {
+		advance(0, count, collision, worldWidth, worldHeight, rayHit);
+		sweep();
+	}
+
+	// The first half of update() for bullets from..to-1: move them and note which
+	// ones died and where. Bullets don't affect each other, so separate ranges can
+	// be advanced on separate threads, each with its own RayHit.
+	public void advance(int from, int to, CollisionMap collision, int worldWidth, int worldHeight, RayHit hit) {
+		advance(from, to, collision, worldWidth, worldHeight, hit, null);
+	}
+
+	// The same, also stopping bullets at the first player in the grid they hit before a wall
+	public void advance(int from, int to, CollisionMap collision, int worldWidth, int worldHeight, RayHit hit,
+			HitGrid players) {
+		for (int i = from; i < to; i++) {
+			double nextX = x[i] + dx[i];
+			double nextY = y[i] + dy[i];
+
+			boolean wall = collision.raycast(x[i], y[i], nextX, nextY, hit);
+			if (players != null) {
+				int struck = players.raycast(x[i], y[i], nextX, nextY, wall ? hit.getT() : 1, owner[i]);
+				if (struck != HitGrid.NONE) {
+					fate[i] = HIT_PLAYER;
+					impactHit[i] = struck;
+					continue;
+				}
+			}
+			if (wall) {
+				fate[i] = HIT_WALL;
+				impactX[i] = hit.getX();
+				impactY[i] = hit.getY();
+				continue;
+			}
+
+			prevX[i] = x[i];
+			prevY[i] = y[i];
+			x[i] = nextX;
+			y[i] = nextY;
+			fate[i] = isOutOfWorld(i, worldWidth, worldHeight) ? LEFT_WORLD : ALIVE;
+		}
+	}
+
+	// The second half: drop the dead bullets and list the wall and player hits.
+	// Removal swaps the last bullet in, so this walks the slots the same way a
+	// one-pass update would and leaves the bullets and hits in the same order
+	// whoever advanced them.
+	public void sweep() {
+		hitCount = 0;
+		playerHitCount = 0;
+		int i = 0;
+		while (i < count) {
+			if (fate[i] == ALIVE) {
+				i++;
+				continue;
+			}
+			if (fate[i] == HIT_WALL) {
+				hitX[hitCount] = impactX[i];
+				hitY[hitCount] = impactY[i];
+				hitCount++;
+			} else if (fate[i] == HIT_PLAYER) {
+				playerHit[playerHitCount] = impactHit[i];
+				playerHitOwner[playerHitCount] = owner[i];
+				playerHitDamage[playerHitCount] = damage[i];
+				playerHitCount++;
+			}
+			remove(i);
+		}
+	}
+
+	// Swap the last bullet into this slot so removal is O(1)
+	public void remove(int i) {
+		int last = --count;
+		x[i] = x[last];
+		y[i] = y[last];
+		prevX[i] = prevX[last];
+		prevY[i] = prevY[last];
+		dx[i] = dx[last];
+		dy[i] = dy[last];
+		owner[i] = owner[last];
+		damage[i] = damage[last];
+		fate[i] = fate[last];
+		impactX[i] = impactX[last];
+		impactY[i] = impactY[last];
+		impactHit[i] = impactHit[last];
+	}
+
+	// Draw each bullet between its last and current position (alpha = 0..1 into the tick).
+	// Only bullets inside the view rectangle (world pixels) and on a tile the field of view
+	// can see (if there is one) are drawn; returns how many were.
+	// They are queued on the batch with the given atlas sprite, centred on the bullet.
+	public int draw(SpriteBatch batch, int sprite, float alpha, FieldOfView fov, int viewX, int viewY, int viewWidth,
+			int viewHeight) {
+		double minX = viewX - SIZE, maxX = viewX + viewWidth + SIZE;
+		double minY = viewY - SIZE, maxY = viewY + viewHeight + SIZE;
+		int drawn = 0;
+		for (int i = 0; i < count; i++) {
+			double bx = prevX[i] + (x[i] - prevX[i]) * alpha;
+			double by = prevY[i] + (y[i] - prevY[i]) * alpha;
+			if (bx < minX || bx > maxX || by < minY || by > maxY) {
+				continue;
+			}
+			if (fov != null && !fov.isVisibleAt(bx, by)) {
+				continue;
+			}
+			batch.add(sprite, (int) bx - SIZE / 2, (int) by - SIZE / 2, SIZE, SIZE);
+			drawn++;
+		}
+		return drawn;
+	}
+
+	// Check if the bullet has left the world (the screen only shows part of it)
+	public boolean isOutOfWorld(int i, int worldWidth, int worldHeight) {
+		return x[i] < 0 || x[i] > worldWidth || y[i] < 0 || y[i] > worldHeight;
+	}
+
+	// Copy the positions of another pool's bullets, enough to draw them (used for render snapshots)
+	public void copyFrom(BulletPool other) {
+		count = other.count;
+		System.arraycopy(other.x, 0, x, 0, count);
+		System.arraycopy(other.y, 0, y, 0, count);
+		System.arraycopy(other.prevX, 0, prevX, 0, count);
+		System.arraycopy(other.prevY, 0, prevY, 0, count);
+	}
+
+	// Save and restore every live bullet (replay keyframes). Hits only last one update, so they're left out.
+	void writeState(ByteBuffer out) {
+		out.putInt(count);
+		for (int i = 0; i < count; i++) {
+			out.putDouble(x[i]).putDouble(y[i]).putDouble(prevX[i]).putDouble(prevY[i]);
+			out.putDouble(dx[i]).putDouble(dy[i]);
+			out.putInt(owner[i]).putInt(damage[i]);
+		}
+	}
+
+	void readState(ByteBuffer in) {
+		int n = in.getInt();
+		if (n < 0 || n > x.length) {
+			throw new IllegalArgumentException("bad bullet count " + n);
+		}
+		count = n;
+		hitCount = 0;
+		playerHitCount = 0;
+		for (int i = 0; i < count; i++) {
+			x[i] = in.getDouble();
+			y[i] = in.getDouble();
+			prevX[i] = in.getDouble();
+			prevY[i] = in.getDouble();
+			dx[i] = in.getDouble();
+			dy[i] = in.getDouble();
+			owner[i] = in.getInt();
+			damage[i] = in.getInt();
+		}
+	}
+
+	// Bytes writeState needs with a full pool
+	int maxStateBytes() {
+		return 4 + x.length * (6 * 8 + 2 * 4);
+	}
+
+	public void clear() {
+		count = 0;
+		hitCount = 0;
+		playerHitCount = 0;
+	}
+
+	public int size() {
+		return count;
+	}
+
+	public int capacity() {
+		return x.length;
+	}
+
+	public double getX(int i) {
+		return x[i];
+	}
+
+	public double getY(int i) {
+		return y[i];
+	}
+
+	public int getHitCount() {
+		return hitCount;
+	}
+
+	public double getHitX(int i) {
+		return hitX[i];
+	}
+
+	public double getHitY(int i) {
+		return hitY[i];
+	}
+
+	public int getOwner(int i) {
+		return owner[i];
+	}
+
+	public int getDamage(int i) {
+		return damage[i];
+	}
+
+	public int getPlayerHitCount() {
+		return playerHitCount;
+	}
+
+	// Player and region hit (HitGrid.playerOf, regionOf)
+	public int getPlayerHit(int i) {
+		return playerHit[i];
+	}
+
+	public int getPlayerHitOwner(int i) {
+		return playerHitOwner[i];
+	}
+
+	public int getPlayerHitDamage(int i) {
+		return playerHitDamage[i];
+	}
+}
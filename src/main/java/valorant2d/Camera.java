@@ -0,0 +1,54 @@
+package valorant2d;
+
+// The part of the world that is on screen. Centres on a point (the player) and
+// stops at the world edges, so we never show what's past the border walls.
+// Everything is in world pixels; screen = world - camera position.
+public class Camera {
+	private final int viewWidth, viewHeight;
+	private final int worldWidth, worldHeight;
+	private int x, y;  // Top-left corner of the view in the world
+
+	public Camera(int viewWidth, int viewHeight, int worldWidth, int worldHeight) {
+		this.viewWidth = viewWidth;
+		this.viewHeight = viewHeight;
+		this.worldWidth = worldWidth;
+		this.worldHeight = worldHeight;
+	}
+
+	public void centerOn(int worldX, int worldY) {
+		x = clamp(worldX - viewWidth / 2, worldWidth - viewWidth);
+		y = clamp(worldY - viewHeight / 2, worldHeight - viewHeight);
+	}
+
+	// A world smaller than the view is centred instead of pinned to the top-left
+	private static int clamp(int value, int max) {
+		if (max < 0) {
+			return max / 2;
+		}
+		return Math.max(0, Math.min(max, value));
+	}
+
+	public int toWorldX(int screenX) {
+		return screenX + x;
+	}
+
+	public int toWorldY(int screenY) {
+		return screenY + y;
+	}
+
+	public int getX() {
+		return x;
+	}
+
+	public int getY() {
+		return y;
+	}
+
+	public int getViewWidth() {
+		return viewWidth;
+	}
+
+	public int getViewHeight() {
+		return viewHeight;
+	}
+}
@@ -0,0 +1,112 @@
+package valorant2d;
+
+public class CollisionMap {
+	private final TileMap map;
+	private final int tileSize;
+	private final int rows, cols;
+
+	public CollisionMap(TileMap map) {
+		this.map = map;
+		this.tileSize = map.getTileSize();
+		this.rows = map.getRows();
+		this.cols = map.getCols();
+	}
+
+	// Anything outside the map counts as solid so entities can't leave it
+	public boolean isWall(int row, int col) {
+		if (row < 0 || row >= rows || col < 0 || col >= cols) {
+			return true;
+		}
+		return map.get(row, col) == Tile.WALL;
+	}
+
+	// Check the tile under a single point (used for projectiles)
+	public boolean isWallAt(double px, double py) {
+		return isWall((int) Math.floor(py / tileSize), (int) Math.floor(px / tileSize));
+	}
+
+	// Check a box against walls, only looking at the tiles it overlaps
+	public boolean overlapsWall(int x, int y, int width, int height) {
+		if (width <= 0 || height <= 0) {
+			return false;
+		}
+
+		// Same edge rules as Rectangle.intersects: touching edges don't count
+		int firstCol = Math.floorDiv(x, tileSize);
+		int lastCol = Math.floorDiv(x + width - 1, tileSize);
+		int firstRow = Math.floorDiv(y, tileSize);
+		int lastRow = Math.floorDiv(y + height - 1, tileSize);
+
+		for (int row = firstRow; row <= lastRow; row++) {
+			for (int col = firstCol; col <= lastCol; col++) {
+				if (isWall(row, col)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	// Walk the segment (x0, y0) -> (x1, y1) tile by tile (grid DDA) and stop at the first wall.
+	// Cost depends on how many tiles the segment crosses, not on the map size.
+	public boolean raycast(double x0, double y0, double x1, double y1, RayHit hit) {
+		int col = (int) Math.floor(x0 / tileSize);
+		int row = (int) Math.floor(y0 / tileSize);
+
+		// Starting inside a wall counts as an immediate hit
+		if (isWall(row, col)) {
+			hit.set(x0, y0, row, col, 0);
+			return true;
+		}
+
+		double dirX = x1 - x0;
+		double dirY = y1 - y0;
+		int stepX = dirX > 0 ? 1 : -1;
+		int stepY = dirY > 0 ? 1 : -1;
+
+		// Ray distance (as a fraction of the segment) to cross one whole tile on each axis
+		double tDeltaX = dirX != 0 ? tileSize / Math.abs(dirX) : Double.POSITIVE_INFINITY;
+		double tDeltaY = dirY != 0 ? tileSize / Math.abs(dirY) : Double.POSITIVE_INFINITY;
+
+		// Ray distance to the first vertical and horizontal tile edges
+		double tMaxX = dirX > 0 ? ((col + 1) * tileSize - x0) / dirX
+				: dirX < 0 ? (col * tileSize - x0) / dirX
+				: Double.POSITIVE_INFINITY;
+		double tMaxY = dirY > 0 ? ((row + 1) * tileSize - y0) / dirY
+				: dirY < 0 ? (row * tileSize - y0) / dirY
+				: Double.POSITIVE_INFINITY;
+
+		while (true) {
+			double t;
+			if (tMaxX < tMaxY) {
+				t = tMaxX;
+				col += stepX;
+				tMaxX += tDeltaX;
+			} else {
+				t = tMaxY;
+				row += stepY;
+				tMaxY += tDeltaY;
+			}
+
+			if (t > 1) {
+				return false;  // Reached the end of the segment without hitting anything
+			}
+			if (isWall(row, col)) {
+				hit.set(x0 + dirX * t, y0 + dirY * t, row, col, t);
+				return true;
+			}
+		}
+	}
+
+	public int getTileSize() {
+		return tileSize;
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public int getCols() {
+		return cols;
+	}
+}
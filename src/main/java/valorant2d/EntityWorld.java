@@ -0,0 +1,165 @@
+package valorant2d;
+
+import java.util.Arrays;
+
+// Entities as plain ints and their components as columns of primitive arrays.
+// Entities with the same set of components share an Archetype (a table with a
+// row each), and the systems (MovementSystem, ProjectileSystem, WeaponSystem)
+// walk down the archetypes that have what they need. Looking up one entity goes
+// through a sparse index of archetype and row by entity number.
+//
+// An entity is its slot number plus a generation in the top bits, so a handle
+// kept after destroy() doesn't quietly point at whatever reuses the slot.
+//
+// A prototype, measured by EcsBenchmark: Simulation, the server, replays and
+// the renderer all run on PlayerState, BulletPool and Weapon, whose state the
+// wire and keyframe formats are built on. The systems copy their movement,
+// bullet and firing rules and go no further (no damage, no weapon switching, no
+// timer wheel), so the two layouts can be compared on the same work.
+// EntityWorldTest checks the systems agree with them tick for tick.
+class EntityWorld {
+	// Components
+	public static final int POSITION = 1;
+	public static final int VELOCITY = 1 << 1;
+	public static final int BODY = 1 << 2;
+	public static final int CONTROL = 1 << 3;
+	public static final int WEAPON = 1 << 4;
+	private static final int COMPONENT_COUNT = 5;
+
+	// Common sets
+	public static final int PLAYER = POSITION | VELOCITY | BODY | CONTROL | WEAPON;
+	public static final int PROJECTILE = POSITION | VELOCITY;
+
+	private static final int INDEX_BITS = 22;
+	private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+	private static final int MAX_GENERATION = (1 << (31 - INDEX_BITS)) - 1;
+
+	private final Archetype[] byMask = new Archetype[1 << COMPONENT_COUNT];
+	private Archetype[] archetypes = new Archetype[8];  // In the order they were first used
+	private int archetypeCount = 0;
+	private final int initialCapacity;
+
+	// By entity slot
+	private int[] generation;
+	private int[] archetypeMask;  // -1 while the slot is free
+	private int[] row;
+	private int slots = 0;
+
+	private int[] free;  // Slots to reuse, most recently freed last
+	private int freeCount = 0;
+	private int alive = 0;
+
+	public EntityWorld(int initialCapacity) {
+		this.initialCapacity = Math.max(16, initialCapacity);
+		generation = new int[this.initialCapacity];
+		archetypeMask = new int[this.initialCapacity];
+		row = new int[this.initialCapacity];
+		free = new int[this.initialCapacity];
+	}
+
+	public int create(int components) {
+		int slot;
+		if (freeCount > 0) {
+			slot = free[--freeCount];
+		} else {
+			if (slots == generation.length) {
+				int size = slots * 2;
+				if (size - 1 > INDEX_MASK) {
+					throw new IllegalStateException("too many entities");
+				}
+				generation = Arrays.copyOf(generation, size);
+				archetypeMask = Arrays.copyOf(archetypeMask, size);
+				row = Arrays.copyOf(row, size);
+				free = Arrays.copyOf(free, size);
+			}
+			slot = slots++;
+		}
+		int entity = (generation[slot] << INDEX_BITS) | slot;
+		archetypeMask[slot] = components;
+		row[slot] = archetype(components).add(entity);
+		alive++;
+		return entity;
+	}
+
+	public void destroy(int entity) {
+		int slot = checkAlive(entity);
+		int moved = byMask[archetypeMask[slot]].remove(row[slot]);
+		if (moved >= 0) {
+			row[moved & INDEX_MASK] = row[slot];
+		}
+		archetypeMask[slot] = -1;
+		generation[slot] = generation[slot] == MAX_GENERATION ? 0 : generation[slot] + 1;
+		free[freeCount++] = slot;
+		alive--;
+	}
+
+	public boolean isAlive(int entity) {
+		int slot = entity & INDEX_MASK;
+		return slot < slots && archetypeMask[slot] >= 0 && generation[slot] == entity >>> INDEX_BITS;
+	}
+
+	// Give an entity more components (or take some away), moving it to the matching
+	// archetype. Fields it keeps carry over, new ones start at zero.
+	public void setComponents(int entity, int components) {
+		int slot = checkAlive(entity);
+		if (archetypeMask[slot] == components) {
+			return;
+		}
+		Archetype from = byMask[archetypeMask[slot]];
+		Archetype to = archetype(components);
+		int fromRow = row[slot];
+		int toRow = to.add(entity);
+		to.copyRow(from, fromRow, toRow);
+		int moved = from.remove(fromRow);
+		if (moved >= 0) {
+			row[moved & INDEX_MASK] = fromRow;
+		}
+		archetypeMask[slot] = components;
+		row[slot] = toRow;
+	}
+
+	private int checkAlive(int entity) {
+		if (!isAlive(entity)) {
+			throw new IllegalArgumentException("entity " + entity + " is not alive");
+		}
+		return entity & INDEX_MASK;
+	}
+
+	private Archetype archetype(int components) {
+		if (components <= 0 || components >= byMask.length) {
+			throw new IllegalArgumentException("bad component set " + components);
+		}
+		Archetype archetype = byMask[components];
+		if (archetype == null) {
+			archetype = new Archetype(components, initialCapacity);
+			byMask[components] = archetype;
+			if (archetypeCount == archetypes.length) {
+				archetypes = Arrays.copyOf(archetypes, archetypeCount * 2);
+			}
+			archetypes[archetypeCount++] = archetype;
+		}
+		return archetype;
+	}
+
+	// The table an entity's components are in, and its row there. The row changes
+	// when other entities are destroyed, so look it up again after that.
+	public Archetype archetypeOf(int entity) {
+		return byMask[archetypeMask[checkAlive(entity)]];
+	}
+
+	public int rowOf(int entity) {
+		return row[checkAlive(entity)];
+	}
+
+	public int getArchetypeCount() {
+		return archetypeCount;
+	}
+
+	public Archetype getArchetype(int i) {
+		return archetypes[i];
+	}
+
+	public int size() {
+		return alive;
+	}
+}
@@ -0,0 +1,110 @@
+package valorant2d;
+
+import java.util.Arrays;
+
+// The tiles one player can see, cast from the tile they stand on (SightMap).
+// Only a square of tiles around the viewer can be seen, at most MAX_RADIUS tiles
+// out, so the mask is one long per row of that square and copying it into a
+// render snapshot is a few hundred bytes.
+//
+// Sight only changes when the viewer steps onto another tile or a wall near them
+// changes, so update() keeps the last cast until one of those happens; walking
+// across a tile costs nothing.
+public class FieldOfView {
+	public static final int MAX_RADIUS = 31;  // The square is 2 * radius + 1 wide, which has to fit in a long
+
+	private final int radius;
+	private final long[] mask;  // Bit (col - originCol + radius) of mask[row - originRow + radius]
+	private int originRow = Integer.MIN_VALUE, originCol = Integer.MIN_VALUE;
+	private int tileSize = 1;
+	private boolean stale = true;
+	private long casts;
+
+	public FieldOfView(int radius) {
+		if (radius < 0 || radius > MAX_RADIUS) {
+			throw new IllegalArgumentException("radius " + radius + " not in 0.." + MAX_RADIUS);
+		}
+		this.radius = radius;
+		this.mask = new long[2 * radius + 1];
+	}
+
+	// Look from world pixel (x, y). Casts again only if that's on another tile or
+	// a wall in range changed; returns true if it did.
+	public boolean update(SightMap sight, double x, double y) {
+		int row = (int) Math.floor(y / sight.getTileSize());
+		int col = (int) Math.floor(x / sight.getTileSize());
+		if (!stale && row == originRow && col == originCol) {
+			return false;
+		}
+		sight.cast(this, row, col);
+		stale = false;
+		casts++;
+		return true;
+	}
+
+	// A tile changed between wall and floor; cast again next update if it could matter
+	public void wallChanged(int row, int col) {
+		if (Math.abs(row - originRow) <= radius + 1 && Math.abs(col - originCol) <= radius + 1) {
+			stale = true;
+		}
+	}
+
+	// Start a new cast from (row, col) with nothing visible (SightMap)
+	void reset(int row, int col, int tileSize) {
+		this.originRow = row;
+		this.originCol = col;
+		this.tileSize = tileSize;
+		Arrays.fill(mask, 0);
+	}
+
+	void set(int row, int col) {
+		mask[row - originRow + radius] |= 1L << (col - originCol + radius);
+	}
+
+	public boolean isVisible(int row, int col) {
+		int r = row - originRow + radius, c = col - originCol + radius;
+		if (r < 0 || r >= mask.length || c < 0 || c >= mask.length) {
+			return false;
+		}
+		return (mask[r] & (1L << c)) != 0;
+	}
+
+	// Whether the tile under world pixel (x, y) can be seen
+	public boolean isVisibleAt(double x, double y) {
+		return isVisible((int) Math.floor(y / tileSize), (int) Math.floor(x / tileSize));
+	}
+
+	// Copy another view of the same radius (render snapshots)
+	public void copyFrom(FieldOfView other) {
+		System.arraycopy(other.mask, 0, mask, 0, mask.length);
+		originRow = other.originRow;
+		originCol = other.originCol;
+		tileSize = other.tileSize;
+		stale = other.stale;
+	}
+
+	public int getRadius() {
+		return radius;
+	}
+
+	public int getOriginRow() {
+		return originRow;
+	}
+
+	public int getOriginCol() {
+		return originCol;
+	}
+
+	// How many times this view has been cast, to see how often the cache helps
+	public long getCasts() {
+		return casts;
+	}
+
+	public int countVisible() {
+		int visible = 0;
+		for (long row : mask) {
+			visible += Long.bitCount(row);
+		}
+		return visible;
+	}
+}
@@ -0,0 +1,28 @@
+package valorant2d;
+
+// Waits until a deadline without pinning a core. Sleeps while the deadline is
+// far away and only spins for the last bit, since sleep can overshoot by a
+// millisecond or two.
+public class FramePacer {
+	private static final long SPIN_THRESHOLD_NS = 2_000_000;
+
+	public static void waitUntil(long deadlineNanos) {
+		while (true) {
+			long remaining = deadlineNanos - System.nanoTime();
+			if (remaining <= 0) {
+				return;
+			}
+
+			if (remaining > SPIN_THRESHOLD_NS) {
+				try {
+					Thread.sleep(Math.max(1, (remaining - SPIN_THRESHOLD_NS) / 1_000_000));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			} else {
+				Thread.onSpinWait();
+			}
+		}
+	}
+}
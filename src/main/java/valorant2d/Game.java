@@ -1,3 +1,5 @@
+package valorant2d;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.GraphicsDevice;
@@ -5,7 +7,7 @@ import java.awt.GraphicsEnvironment;
 
 public class Game {
 
-    private static GameState currentState = GameState.TITLE; // Default state
+    private static volatile GameState currentState = GameState.TITLE; // Default state, read by the game threads
 
     public static GameState getGameState() {
         return currentState;
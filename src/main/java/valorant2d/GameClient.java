@@ -0,0 +1,375 @@
+package valorant2d;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Random;
+
+// Headless network client driven by the same bot as HeadlessRunner. Sends one input
+// per tick (plus the previous couple again, in case a packet was lost) and decodes the
+// server's snapshots, acknowledging the newest one so the server can delta against it.
+//
+// The local player is predicted (PlayerPrediction) so input shows up straight away
+// instead of a round trip later. Other players are drawn a little in the past,
+// interpolated between the two snapshots around that time.
+public class GameClient implements Runnable {
+
+    private static final int HISTORY = NetProtocol.SNAPSHOT_HISTORY;
+    private static final long CONNECT_RETRY_NS = 250_000_000L;
+    private static final int SEND_TIMES = 256;  // Send times kept for latency stats, by seq
+
+    private final DatagramChannel channel;
+    private final Selector selector;
+    private final LossyLink link;
+    private final SocketAddress server;
+    private final Random bot;
+
+    // From the server's WELCOME
+    private int playerIndex = -1;
+    private int playerCount;
+    private long tickNs;
+    private PlayerPrediction prediction;
+
+    // Snapshots by tick % HISTORY, kept as baselines for the next deltas
+    private NetSnapshot[] history;
+    private NetSnapshot empty;
+    private NetSnapshot latest;
+    private int latestTick = -1;
+    private long latestArrival;  // System.nanoTime() the latest snapshot arrived
+    private int appliedSeq = -1;  // Newest of our inputs the server had run for the latest snapshot
+
+    // The last few inputs we sent, resent with every new one
+    private final PlayerInput input = new PlayerInput();
+    private final PlayerInput[] sentInputs = new PlayerInput[NetProtocol.INPUTS_PER_PACKET];
+    private int nextSeq = 0;
+
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocate(2048);
+    private final ByteBuffer sendBuffer = ByteBuffer.allocate(NetProtocol.MAX_PACKET);
+
+    private volatile boolean running = true;
+
+    // Stats, read after the client has stopped
+    private long snapshots, fullSnapshots, bytesReceived, staleSnapshots, missingBaselines, malformedPackets;
+    private final long[] sendTimes = new long[SEND_TIMES];
+    private final Histogram inputLatency = new Histogram("net.inputLatency", "ns");  // Input sent -> server ran it -> we heard back
+    private long remoteSamples, remoteHeld;
+    private final int[] remotePosition = new int[2];
+
+    public GameClient(SocketAddress server, LossyLink link, long botSeed) throws IOException {
+        this.server = server;
+        this.link = link;
+        this.bot = new Random(botSeed);
+        for (int i = 0; i < sentInputs.length; i++) {
+            sentInputs[i] = new PlayerInput();
+        }
+
+        channel = DatagramChannel.open();
+        channel.configureBlocking(false);
+        selector = Selector.open();
+        channel.register(selector, SelectionKey.OP_READ);
+    }
+
+    @Override
+    public void run() {
+        long nextConnect = System.nanoTime();
+        long nextTick = Long.MAX_VALUE;
+        try {
+            while (running) {
+                long now = System.nanoTime();
+                if (playerIndex < 0 && now >= nextConnect) {
+                    sendConnect();
+                    nextConnect = now + CONNECT_RETRY_NS;
+                }
+                if (playerIndex >= 0 && nextTick == Long.MAX_VALUE) {
+                    nextTick = now;  // Just got our WELCOME
+                }
+                if (now >= nextTick) {
+                    sendInput();
+                    nextTick += tickNs;
+                }
+                link.flush();
+
+                long wake = Math.min(playerIndex < 0 ? nextConnect : nextTick, link.nextDue());
+                long waitMs = (wake - System.nanoTime()) / 1_000_000;
+                if (waitMs > 0) {
+                    selector.select(waitMs);
+                } else {
+                    selector.selectNow();
+                }
+                selector.selectedKeys().clear();
+                receiveAll();
+            }
+            if (playerIndex >= 0) {
+                sendByte(NetProtocol.DISCONNECT);
+                link.flush();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            close();
+        }
+    }
+
+    public void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    private void close() {
+        try {
+            selector.close();
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void sendConnect() throws IOException {
+        sendBuffer.clear();
+        sendBuffer.put(NetProtocol.CONNECT);
+        sendBuffer.put(NetProtocol.VERSION);
+        sendBuffer.flip();
+        link.send(channel, sendBuffer, server);
+    }
+
+    private void sendByte(byte type) throws IOException {
+        sendBuffer.clear();
+        sendBuffer.put(type);
+        sendBuffer.flip();
+        link.send(channel, sendBuffer, server);
+    }
+
+    // One input per tick, sent together with the previous ones
+    private void sendInput() throws IOException {
+        long now = System.nanoTime();
+        int seq = nextSeq++;
+        HeadlessRunner.updateBot(bot, input, seq);
+        if (latest != null && !latest.isAlive(playerIndex)) {
+            input.up = input.down = input.left = input.right = false;  // The server won't move us either
+        }
+        sentInputs[seq % sentInputs.length].copyFrom(input);
+        sendTimes[seq % SEND_TIMES] = now;
+        prediction.apply(seq, input);  // Move now, the server catches up later
+
+        // One-shot commands only go out with this input
+        input.reload = false;
+        input.switchTo = null;
+
+        sendBuffer.clear();
+        sendBuffer.put(NetProtocol.INPUT);
+        sendBuffer.putInt(latestTick);
+        int count = Math.min(seq + 1, sentInputs.length);
+        sendBuffer.put((byte) count);
+        for (int i = 0; i < count; i++) {
+            NetProtocol.putInput(sendBuffer, seq - i, sentInputs[(seq - i) % sentInputs.length]);
+        }
+        sendBuffer.flip();
+        link.send(channel, sendBuffer, server);
+
+        // This is where a frame would be drawn; see how remote players would look.
+        // Dead ones aren't drawn.
+        for (int player = 0; player < playerCount; player++) {
+            if (player != playerIndex && latest != null && latest.isAlive(player)) {
+                remoteSamples++;
+                if (!sampleRemote(player, now, remotePosition)) {
+                    remoteHeld++;
+                }
+            }
+        }
+    }
+
+    // Where to draw another player: NetProtocol.INTERPOLATION_TICKS behind the newest snapshot,
+    // blended between the snapshots either side of that time. Returns false if there
+    // isn't a snapshot after that time yet (late or lost packets) and the last known
+    // position is held instead.
+    public boolean sampleRemote(int player, long now, int[] position) {
+        double renderTick = latestTick + (double) (now - latestArrival) / tickNs - NetProtocol.INTERPOLATION_TICKS;
+        NetSnapshot before = null, after = null;
+        for (NetSnapshot snapshot : history) {
+            if (snapshot.tick < 0) {
+                continue;
+            }
+            if (snapshot.tick <= renderTick) {
+                if (before == null || snapshot.tick > before.tick) {
+                    before = snapshot;
+                }
+            } else if (after == null || snapshot.tick < after.tick) {
+                after = snapshot;
+            }
+        }
+
+        if (before == null || after == null) {
+            NetSnapshot held = before != null ? before : after;
+            position[0] = held.x[player];
+            position[1] = held.y[player];
+            return false;
+        }
+        double t = (renderTick - before.tick) / (after.tick - before.tick);
+        position[0] = (int) Math.round(before.x[player] + (after.x[player] - before.x[player]) * t);
+        position[1] = (int) Math.round(before.y[player] + (after.y[player] - before.y[player]) * t);
+        return true;
+    }
+
+    private void receiveAll() throws IOException {
+        while (true) {
+            receiveBuffer.clear();
+            SocketAddress from = channel.receive(receiveBuffer);
+            if (from == null) {
+                return;
+            }
+            if (!from.equals(server)) {
+                continue;
+            }
+            receiveBuffer.flip();
+            bytesReceived += receiveBuffer.remaining();
+            try {
+                handlePacket(receiveBuffer);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                malformedPackets++;
+            }
+        }
+    }
+
+    private void handlePacket(ByteBuffer in) {
+        switch (in.get()) {
+            case NetProtocol.WELCOME -> readWelcome(in);
+            case NetProtocol.SNAPSHOT -> readSnapshot(in);
+            case NetProtocol.REJECT -> running = false;
+            default -> malformedPackets++;
+        }
+    }
+
+    private void readWelcome(ByteBuffer in) {
+        if (playerIndex >= 0) {
+            return;  // Answer to a CONNECT we resent
+        }
+        int index = in.get();
+        int players = in.get();
+        int tickRate = in.get();
+        int mapCols = in.getInt();
+        int mapRows = in.getInt();
+        long mapSeed = in.getLong();
+        if (index < 0 || index >= players || tickRate <= 0 || mapCols <= 0 || mapRows <= 0) {
+            throw new IllegalArgumentException("bad welcome");
+        }
+
+        // Same map as the server, so predicted movement hits the same walls
+        TileMap map = MapFile.generate(mapCols, mapRows, mapSeed);
+        prediction = new PlayerPrediction(new CollisionMap(map));
+        playerCount = players;
+        tickNs = 1_000_000_000L / tickRate;
+        history = new NetSnapshot[HISTORY];
+        for (int i = 0; i < HISTORY; i++) {
+            history[i] = new NetSnapshot(players, Simulation.MAX_BULLETS);
+        }
+        empty = new NetSnapshot(players, 0);
+        playerIndex = index;
+    }
+
+    private void readSnapshot(ByteBuffer in) {
+        if (playerIndex < 0) {
+            return;
+        }
+        int tick = in.getInt();
+        int baselineTick = in.getInt();
+        int seq = in.getInt();
+        if (tick <= latestTick) {
+            staleSnapshots++;  // Arrived out of order, we already have something newer
+            return;
+        }
+
+        NetSnapshot baseline = empty;
+        if (baselineTick >= 0) {
+            baseline = history[baselineTick % HISTORY];
+            if (tick - baselineTick >= HISTORY || baseline.tick != baselineTick) {
+                missingBaselines++;
+                return;
+            }
+        }
+
+        NetSnapshot snapshot = history[tick % HISTORY];
+        snapshot.tick = -1;  // Not valid until it's fully decoded
+        snapshot.decode(in, baseline);
+        snapshot.tick = tick;
+
+        long now = System.nanoTime();
+        for (int acked = Math.max(appliedSeq + 1, seq - SEND_TIMES + 1); acked <= seq; acked++) {
+            inputLatency.record(now - sendTimes[acked % SEND_TIMES]);
+        }
+        prediction.reconcile(seq, snapshot.x[playerIndex], snapshot.y[playerIndex]);
+
+        latest = snapshot;
+        latestTick = tick;
+        latestArrival = now;
+        appliedSeq = Math.max(appliedSeq, seq);
+        snapshots++;
+        if (baselineTick < 0) {
+            fullSnapshots++;
+        }
+    }
+
+    public int getPlayerIndex() {
+        return playerIndex;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    public NetSnapshot getLatest() {
+        return latest;
+    }
+
+    public int getAppliedSeq() {
+        return appliedSeq;
+    }
+
+    public PlayerPrediction getPrediction() {
+        return prediction;
+    }
+
+    public Histogram getInputLatency() {
+        return inputLatency;
+    }
+
+    public long getRemoteSamples() {
+        return remoteSamples;
+    }
+
+    // Remote samples that had to hold a position because the next snapshot hadn't arrived
+    public long getRemoteHeld() {
+        return remoteHeld;
+    }
+
+    public long getInputsSent() {
+        return nextSeq;
+    }
+
+    public long getSnapshots() {
+        return snapshots;
+    }
+
+    public long getFullSnapshots() {
+        return fullSnapshots;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    public long getStaleSnapshots() {
+        return staleSnapshots;
+    }
+
+    public long getMissingBaselines() {
+        return missingBaselines;
+    }
+
+    public long getMalformedPackets() {
+        return malformedPackets;
+    }
+}
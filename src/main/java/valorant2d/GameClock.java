@@ -0,0 +1,59 @@
+package valorant2d;
+
+// Game time, sampled once at the start of every tick so every system sees the
+// same "now" for the whole tick. Real-time clocks follow System.nanoTime, which
+// never jumps backwards the way the wall clock can. Virtual clocks only move when
+// advance() is called, so fire rates and reloads can be fast-forwarded in
+// headless runs without any real waiting.
+public class GameClock {
+	private final boolean isVirtual;
+	private final long origin;  // System.nanoTime() when a real-time clock was created
+	private long virtualNanos = 0;
+	private long tickNanos = 0;  // Time of the current tick since the clock started
+
+	private GameClock(boolean isVirtual) {
+		this.isVirtual = isVirtual;
+		this.origin = isVirtual ? 0 : System.nanoTime();
+	}
+
+	public static GameClock realTime() {
+		return new GameClock(false);
+	}
+
+	public static GameClock virtual() {
+		return new GameClock(true);
+	}
+
+	// Sample the time for the tick that is about to run
+	public void beginTick() {
+		tickNanos = isVirtual ? virtualNanos : System.nanoTime() - origin;
+	}
+
+	// Move a virtual clock forward
+	public void advance(long nanos) {
+		if (!isVirtual) {
+			throw new IllegalStateException("Only a virtual clock can be advanced");
+		}
+		virtualNanos += nanos;
+	}
+
+	// Jump a virtual clock to a time, e.g. back to a recorded tick when replaying
+	public void seek(long nanos) {
+		if (!isVirtual) {
+			throw new IllegalStateException("Only a virtual clock can seek");
+		}
+		virtualNanos = nanos;
+	}
+
+	public long nanos() {
+		return tickNanos;
+	}
+
+	public long millis() {
+		return tickNanos / 1_000_000;
+	}
+
+	public boolean isVirtual() {
+		return isVirtual;
+	}
+}
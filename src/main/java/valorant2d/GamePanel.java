@@ -0,0 +1,522 @@
+package valorant2d;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.image.BufferStrategy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+public class GamePanel extends Canvas implements Runnable, KeyListener, MouseListener, MouseMotionListener {
+
+    private Thread thread;  // Render thread
+    private Thread simulationThread;  // Runs tick() at a fixed rate
+    private volatile boolean isRunning = false;
+
+    // Loop timing
+    private final int TICKS_PER_SECOND = 60;  // Fixed simulation rate
+    private final int MAX_CATCH_UP_TICKS = 5;  // Ticks we can fall behind before we give up catching up
+    private final long TICK_NS = 1_000_000_000L / TICKS_PER_SECOND;
+    private int renderCap;  // Max frames per second, 0 = let the buffer flip (vsync) pace rendering
+    private final int MAX_VSYNC_FPS = 240;  // Safety cap in vsync mode in case the flip doesn't block
+    private JitterStats tickStats = new JitterStats();
+    private JitterStats frameStats = new JitterStats();
+
+    // Timings and counters, shown with F3 and written out on exit with -Dmetrics.out=<dir>
+    private Metrics metrics = new Metrics();
+    private MetricsOverlay metricsOverlay = new MetricsOverlay();
+    private volatile boolean showMetrics = false;
+
+    private Simulation simulation;  // Game logic, only touched by the simulation thread
+    private GameClock clock = GameClock.realTime();  // Game time, sampled once per tick
+    private volatile WorldRenderer worldRenderer;  // Draws the map, entities and HUD while playing, once the atlas is in
+    private Atlas.Loader atlasLoader;  // Sprites, loaded in the background while the title screen is up
+
+    private int WIDTH, HEIGHT;  // Game window dimensions
+
+    // Mouse position in screen pixels and the camera used to turn it into a world aim point (simulation thread)
+    private int mouseX, mouseY;
+    private Camera aimCamera;
+
+    // Threads only talk through these: input goes to the simulation, snapshots go to the renderer
+    private InputQueue inputQueue = new InputQueue(1024);
+    private final InputQueue.Handler inputHandler = this::handleInput;
+    private SnapshotBuffer snapshots = new SnapshotBuffer(Simulation.MAX_BULLETS);
+
+    // -Drecord=<file> records the match, -Dreplay=<file> plays one back instead of taking input
+    private ReplayRecorder recorder;
+    private ReplayPlayer replay;
+    private double replaySpeed;  // Recorded ticks per tick, 0 when paused
+    private double replayTicks;  // Ticks owed to the replay at this speed
+
+    private TitleScreen titleScreen;  // Title screen object
+    private MenuScreen menuScreen; // Menu screen object
+
+    public GamePanel() {
+        // Set the preferred size for the game window
+        Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
+        WIDTH = (int) screenSize.getWidth();
+        HEIGHT = (int) screenSize.getHeight();
+        setPreferredSize(screenSize);
+
+        // Render at the display's refresh rate unless told otherwise (-Dfps=N, 0 for vsync)
+        int refreshRate = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDisplayMode().getRefreshRate();
+        if (refreshRate == DisplayMode.REFRESH_RATE_UNKNOWN) {
+            refreshRate = 60;
+        }
+        renderCap = Integer.getInteger("fps", refreshRate);
+
+        // Add listeners for key and mouse input
+        addKeyListener(this);
+        addMouseListener(this);
+        addMouseMotionListener(this);
+
+        // Start decoding the sprites now; the title screen waits for them
+        atlasLoader = Atlas.loadAsync(GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration());
+
+        // Set up the game world (map, player, weapons), or the replay's
+        String replayFile = System.getProperty("replay");
+        if (replayFile != null) {
+            try {
+                replay = ReplayPlayer.open(Paths.get(replayFile));
+                replaySpeed = Double.parseDouble(System.getProperty("replay.speed", "1"));
+            } catch (IOException e) {
+                e.printStackTrace();  // Just play normally
+            }
+        }
+        if (replay != null) {
+            simulation = replay.getSimulation();
+        } else {
+            long seed = System.nanoTime();
+            simulation = new Simulation(loadMap(), seed);
+            startRecording(seed);
+        }
+        aimCamera = new Camera(WIDTH, HEIGHT, simulation.getWidth(), simulation.getHeight());
+
+        // Initialize Screen objects
+        titleScreen = new TitleScreen(WIDTH, HEIGHT, atlasLoader);
+        menuScreen = new MenuScreen(this);
+
+        // Give the renderer something to draw before the first tick
+        publishSnapshot(System.nanoTime());
+    }
+
+    // -Dmap=<file.v2dm> loads a map file, otherwise an empty bordered map of
+    // -Dmap.cols x -Dmap.rows tiles is used. Either can be much bigger than the window.
+    private TileMap loadMap() {
+        String file = System.getProperty("map");
+        if (file != null) {
+            try {
+                return MapFile.open(Paths.get(file));
+            } catch (IOException e) {
+                e.printStackTrace();  // Fall back to the built-in map
+            }
+        }
+        return TileMap.bordered(Integer.getInteger("map.cols", 150), Integer.getInteger("map.rows", 100),
+                Simulation.TILE_SIZE);
+    }
+
+    private void startRecording(long seed) {
+        String file = System.getProperty("record");
+        if (file == null) {
+            return;
+        }
+        try {
+            recorder = new ReplayRecorder(Paths.get(file), simulation, seed, System.getProperty("map", ""),
+                    TICKS_PER_SECOND, 10 * TICKS_PER_SECOND);
+            Runtime.getRuntime().addShutdownHook(new Thread(this::stopRecording));
+        } catch (IOException e) {
+            e.printStackTrace();  // Play without recording
+        }
+    }
+
+    private void stopRecording() {
+        try {
+            recorder.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Starts the simulation and render threads
+    public synchronized void start() {
+        metrics.startGcMonitor();
+        String metricsDir = System.getProperty("metrics.out");
+        if (metricsDir != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> exportMetrics(metricsDir)));
+        }
+
+        isRunning = true;
+        simulationThread = new Thread(this::runSimulation, "Simulation");
+        thread = new Thread(this, "Render");
+        simulationThread.start();
+        thread.start();
+    }
+
+    // Stop the game loop
+    public synchronized void stop() {
+        isRunning = false;
+        try {
+            simulationThread.join();  // Wait for the threads to finish before stopping
+            thread.join();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Simulation thread: input and game logic at a fixed rate, never waits on rendering
+    private void runSimulation() {
+        long nextTick = System.nanoTime();
+        long nextStats = nextTick + 1_000_000_000L;
+
+        while (isRunning) {
+            long now = System.nanoTime();
+            if (now >= nextTick) {
+                tickStats.mark(now);
+                long allocatedBefore = metrics.threadAllocatedBytes();
+
+                inputQueue.drain(inputHandler);
+                long inputDone = System.nanoTime();
+                metrics.simInput.record(inputDone - now);
+
+                if (Game.getGameState() == GameState.PLAYING && replay != null) {
+                    stepReplay();
+                    metrics.simTick.record(System.nanoTime() - inputDone);
+                    metrics.simBullets.record(simulation.getBullets().size());
+                } else if (Game.getGameState() == GameState.PLAYING) {
+                    clock.beginTick();
+                    updateAim();
+                    simulation.getMap().retainAround(aimCamera.getX(), aimCamera.getY(), WIDTH, HEIGHT);
+                    record();
+                    simulation.tick(clock);  // Update game logic
+                    metrics.simTick.record(System.nanoTime() - inputDone);
+                    metrics.simBullets.record(simulation.getBullets().size());
+                }
+                publishSnapshot(nextTick);
+
+                if (allocatedBefore >= 0) {
+                    metrics.simAlloc.record(metrics.threadAllocatedBytes() - allocatedBefore);
+                }
+
+                nextTick += TICK_NS;
+                if (now - nextTick > MAX_CATCH_UP_TICKS * TICK_NS) {
+                    // Fell too far behind (e.g. a long GC), drop the backlog
+                    nextTick = now + TICK_NS;
+                }
+            }
+
+            if (now >= nextStats) {
+                tickStats.publish();
+                nextStats += 1_000_000_000L;
+            }
+
+            FramePacer.waitUntil(nextTick);
+        }
+    }
+
+    private void record() {
+        if (recorder == null) {
+            return;
+        }
+        try {
+            recorder.record(simulation, clock);
+        } catch (IOException e) {
+            e.printStackTrace();
+            recorder = null;  // Keep playing, just stop recording
+        }
+    }
+
+    // Run as many recorded ticks as the replay speed says are due
+    private void stepReplay() {
+        replayTicks += replaySpeed;
+        while (replayTicks >= 1) {
+            replayTicks--;
+            if (!replay.step()) {
+                replayTicks = 0;  // End of the replay, stay on the last tick
+            }
+        }
+        Player player = simulation.getPlayer();
+        aimCamera.centerOn(player.getX(), player.getY());
+        simulation.getMap().retainAround(aimCamera.getX(), aimCamera.getY(), WIDTH, HEIGHT);
+    }
+
+    // Replay controls: left/right seek 10 s, up/down double or halve the speed, space pauses
+    private void replayKey(int key) {
+        int seekTicks = 10 * replay.getTicksPerSecond();
+        switch (key) {
+            case KeyEvent.VK_LEFT -> replay.seek(replay.getTick() - seekTicks);
+            case KeyEvent.VK_RIGHT -> replay.seek(replay.getTick() + seekTicks);
+            case KeyEvent.VK_UP -> replaySpeed = Math.min(64, replaySpeed == 0 ? 1 : replaySpeed * 2);
+            case KeyEvent.VK_DOWN -> replaySpeed = replaySpeed / 2;
+            case KeyEvent.VK_SPACE -> replaySpeed = replaySpeed == 0 ? 1 : 0;
+        }
+    }
+
+    // Render thread: draws the newest snapshot, never blocks the simulation
+    @Override
+    public void run() {
+        requestFocus();  // Focus on the game panel for input events
+        long now = System.nanoTime();
+        long nextFrame = now;
+        long nextStats = now + 1_000_000_000L;
+
+        while (isRunning) {
+            now = System.nanoTime();
+            long frameNs = 1_000_000_000L / (renderCap > 0 ? renderCap : MAX_VSYNC_FPS);
+
+            if (now >= nextFrame) {
+                long allocatedBefore = metrics.threadAllocatedBytes();
+                WorldSnapshot snapshot = snapshots.getLatest();
+
+                // How far we are past the tick this snapshot came from
+                float alpha = (float) (now - snapshot.getTickTime()) / TICK_NS;
+                frameStats.mark(now);
+                render(snapshot, Math.max(0f, Math.min(1f, alpha)));  // Render game visuals
+                metrics.renderFrame.record(System.nanoTime() - now);
+
+                if (allocatedBefore >= 0) {
+                    metrics.renderAlloc.record(metrics.threadAllocatedBytes() - allocatedBefore);
+                }
+
+                nextFrame = Math.max(nextFrame + frameNs, now);
+            }
+
+            if (now >= nextStats) {
+                frameStats.publish();
+                nextStats += 1_000_000_000L;
+            }
+
+            FramePacer.waitUntil(nextFrame);
+        }
+    }
+
+    // Copy this tick's state into a free snapshot and hand it to the renderer
+    private void publishSnapshot(long tickTime) {
+        WorldSnapshot snapshot = snapshots.getWriteSnapshot();
+        snapshot.capture(tickTime, simulation);
+        snapshots.publish();
+    }
+
+    // Render the game world, player, bullets, and HUD from a snapshot.
+    // alpha is how far we are into the current tick, used to smooth movement between ticks.
+    public void render(WorldSnapshot snapshot, float alpha) {
+        BufferStrategy bs = getBufferStrategy();
+        if (bs == null) {
+            createBufferStrategy(3);  // Create buffer strategy if it doesn't exist
+            return;
+        }
+
+        if (worldRenderer == null && atlasLoader.get() != null) {
+            worldRenderer = new WorldRenderer(simulation.getMap(), atlasLoader.get(), WIDTH, HEIGHT, metrics);
+        }
+
+        Graphics g = bs.getDrawGraphics();
+
+        // Check game state and render accordingly
+        if (Game.getGameState() == GameState.TITLE) {
+            titleScreen.render(g);  // Render the TitleScreen
+        } else if (Game.getGameState() == GameState.MENU) {
+        	menuScreen.render(g); // Render the MenuScreen
+        } else if (Game.getGameState() == GameState.PLAYING && worldRenderer != null) {
+            worldRenderer.render(g, getGraphicsConfiguration(), snapshot, alpha);
+        }
+
+        if (showMetrics) {
+            metricsOverlay.draw(g, WIDTH, metrics, tickStats, frameStats);
+        }
+
+        // Finalize rendering
+        g.dispose();
+        long showStart = System.nanoTime();
+        bs.show();
+        Toolkit.getDefaultToolkit().sync();  // Flush the frame to the display right away
+        metrics.renderShow.record(System.nanoTime() - showStart);
+        
+        
+    }
+
+    // Change a tile at runtime and let the cached map layer know (simulation thread)
+    public void setTile(int row, int col, Tile.Type type) {
+        simulation.setTile(row, col, type);
+        WorldRenderer renderer = worldRenderer;
+        if (renderer != null) {
+            renderer.markDirty(row, col);  // Otherwise the chunk gets drawn fresh when the renderer is made
+        }
+    }
+	
+    // Apply one queued input event (simulation thread)
+    private void handleInput(int type, int a, int b) {
+        if (replay != null) {
+            if (type == InputQueue.KEY_DOWN) {
+                replayKey(a);
+            }
+            return;  // The replay has its own input
+        }
+        switch (type) {
+            case InputQueue.KEY_DOWN -> keyDown(a);
+            case InputQueue.KEY_UP -> keyUp(a);
+            case InputQueue.MOUSE_DOWN -> mouseDown(a);
+            case InputQueue.MOUSE_UP -> {
+                input().fire = false;
+                input().spray = false;
+            }
+            case InputQueue.MOUSE_MOVE -> {
+                mouseX = a;
+                mouseY = b;
+            }
+        }
+    }
+
+    // The mouse is in screen pixels; aim at the world point under it. Done every tick
+    // because the camera moves with the player even when the mouse doesn't.
+    private void updateAim() {
+        Player player = simulation.getPlayer();
+        aimCamera.centerOn(player.getX(), player.getY());
+        input().aimX = aimCamera.toWorldX(mouseX);
+        input().aimY = aimCamera.toWorldY(mouseY);
+    }
+
+    private void keyDown(int key) {
+        switch (key) {
+            case KeyEvent.VK_W -> input().up = true;
+            case KeyEvent.VK_S -> input().down = true;
+            case KeyEvent.VK_A -> input().left = true;
+            case KeyEvent.VK_D -> input().right = true;
+            case KeyEvent.VK_R -> input().reload = true;  // Reload
+
+            // Weapon switching
+            case KeyEvent.VK_1 -> input().switchTo = WeaponType.PRIMARY;
+            case KeyEvent.VK_2 -> input().switchTo = WeaponType.SECONDARY;
+            case KeyEvent.VK_3 -> input().switchTo = WeaponType.KNIFE;
+        }
+    }
+
+    private void keyUp(int key) {
+        switch (key) {
+            case KeyEvent.VK_W -> input().up = false;
+            case KeyEvent.VK_S -> input().down = false;
+            case KeyEvent.VK_A -> input().left = false;
+            case KeyEvent.VK_D -> input().right = false;
+        }
+    }
+
+    private void mouseDown(int button) {
+        if (button == MouseEvent.BUTTON1) {  // Left mouse button (Primary fire)
+            input().fire = true;
+
+        } else if (button == MouseEvent.BUTTON3 || simulation.getCurrentWeaponType() == WeaponType.SECONDARY) {  // Right mouse button (Secondary fire for Classic)
+            input().spray = true;
+        }
+    }
+
+    private PlayerInput input() {
+        return simulation.getInput();
+    }
+
+    // ===== KeyListener =====
+    // Listeners run on the AWT thread, so game input is only queued here
+    @Override
+    public void keyPressed(KeyEvent e) {
+        int key = e.getKeyCode();
+
+        // Handle TITLE state input
+        if (Game.getGameState() == GameState.TITLE) {
+            if (key == KeyEvent.VK_ENTER && titleScreen.isReady()) {
+                Game.setGameState(GameState.MENU);
+                return;
+            }
+            titleScreen.keyPressed(e);
+            return;
+        }
+
+        if (key == KeyEvent.VK_F11) {
+            System.exit(0); // Exit game
+        }
+        if (key == KeyEvent.VK_F3) {
+            showMetrics = !showMetrics;  // Toggle the performance overlay
+            return;
+        }
+
+        // Handle other game states (like PLAYING)
+        inputQueue.offer(InputQueue.KEY_DOWN, key, 0);
+    }
+
+
+    @Override
+    public void keyReleased(KeyEvent e) {
+        inputQueue.offer(InputQueue.KEY_UP, e.getKeyCode(), 0);
+    }
+
+    @Override
+    public void keyTyped(KeyEvent e) {}
+
+    // ===== MouseListener =====
+    @Override
+    public void mousePressed(MouseEvent e) {
+        if (Game.getGameState() == GameState.PLAYING) {
+            inputQueue.offer(InputQueue.MOUSE_DOWN, e.getButton(), 0);
+        }
+    }
+
+    @Override
+    public void mouseReleased(MouseEvent e) {
+        inputQueue.offer(InputQueue.MOUSE_UP, e.getButton(), 0);
+    }
+
+    @Override
+    public void mouseClicked(MouseEvent e) {
+    	
+    }
+
+    @Override
+    public void mouseEntered(MouseEvent e) {
+    	
+    }
+
+    @Override
+    public void mouseExited(MouseEvent e) {
+    	
+    }
+
+    // ===== MouseMotionListener =====
+    @Override
+    public void mouseMoved(MouseEvent e) {
+        inputQueue.offer(InputQueue.MOUSE_MOVE, e.getX(), e.getY());
+    }
+
+    @Override
+    public void mouseDragged(MouseEvent e) {
+        inputQueue.offer(InputQueue.MOUSE_MOVE, e.getX(), e.getY());
+    }
+
+    // Write every metric to metrics-<time>.csv and .json in the given directory
+    private void exportMetrics(String dir) {
+        String name = "metrics-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        try {
+            Path out = Paths.get(dir);
+            Files.createDirectories(out);
+            metrics.writeCsv(out.resolve(name + ".csv"));
+            metrics.writeJson(out.resolve(name + ".json"));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public JitterStats getTickStats() {
+        return tickStats;
+    }
+
+    public JitterStats getFrameStats() {
+        return frameStats;
+    }
+
+}
@@ -0,0 +1,42 @@
+package valorant2d;
+
+import java.util.Random;
+
+// java.util.Random with its state exposed, so a keyframe can save where the
+// sequence is and a replay can carry on from there. It is the same generator
+// (Random's documented 48-bit LCG), so a seed gives exactly the numbers Random
+// would. Not thread safe, unlike Random; the simulation only uses it from one thread.
+public class GameRandom extends Random {
+	private static final long serialVersionUID = 1L;
+
+	private static final long MULTIPLIER = 0x5DEECE66DL;
+	private static final long ADDEND = 0xBL;
+	private static final long MASK = (1L << 48) - 1;
+
+	private long state;  // Set by Random's constructor through setSeed, so no initializer here
+
+	public GameRandom(long seed) {
+		super(seed);
+	}
+
+	@Override
+	public synchronized void setSeed(long seed) {
+		super.setSeed(seed);  // Also clears Random's cached nextGaussian
+		state = (seed ^ MULTIPLIER) & MASK;
+	}
+
+	@Override
+	protected int next(int bits) {
+		state = (state * MULTIPLIER + ADDEND) & MASK;
+		return (int) (state >>> (48 - bits));
+	}
+
+	public long getState() {
+		return state;
+	}
+
+	// Carry on from a state returned by getState
+	public void setState(long state) {
+		this.state = state & MASK;
+	}
+}
@@ -0,0 +1,504 @@
+package valorant2d;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+
+// Dedicated server for a 1v1 match. Owns the only real Simulation and runs it at a
+// fixed tick rate; clients just send input and draw what the server tells them.
+//
+// Input arrives over UDP, one command per client tick, and is queued and applied one
+// per server tick. Every tick each client gets a snapshot delta-compressed against
+// the newest snapshot it has acknowledged. Nothing is ever resent: a client that
+// loses packets keeps acknowledging an older snapshot and gets a bigger delta.
+//
+// Damage comes from hitscan with lag compensation: each input remembers the newest
+// snapshot the client had when it sent it, and every shot is traced against where
+// the other players were on that client's screen (HitboxHistory). The bullets the
+// simulation fires are only for show and do no damage, so a hit is judged once.
+//
+// A client that sends nothing for CLIENT_TIMEOUT_TICKS (it crashed, or its
+// DISCONNECT got lost) is dropped like one that said DISCONNECT. Its player stays
+// in the world, standing still and still shootable, until the next CONNECT takes
+// the slot and gets a fresh player in its place (Simulation.resetPlayer).
+//
+//   java valorant2d.GameServer [port] [mapCols] [mapRows] [mapSeed]
+public class GameServer implements Runnable {
+
+    public static final int TICKS_PER_SECOND = 60;
+    private static final long TICK_NS = 1_000_000_000L / TICKS_PER_SECOND;
+    private static final int MAX_CATCH_UP_TICKS = 5;
+    private static final int PLAYERS = 2;
+    private static final int MAX_QUEUED_INPUTS = 8;  // Inputs buffered per client before the oldest are dropped
+    private static final int HISTORY = NetProtocol.SNAPSHOT_HISTORY;
+    private static final int MAX_REWIND_TICKS = TICKS_PER_SECOND / 2;  // Shots from further back are judged 500 ms ago
+    private static final int CLIENT_TIMEOUT_TICKS = TICKS_PER_SECOND * 5;  // Clients send input every tick, so 5 s of silence means gone
+
+    private final DatagramChannel channel;
+    private final Selector selector;
+    private final LossyLink link;  // Everything goes out through here so tests can add latency and loss
+
+    private final Simulation simulation;
+    private final GameClock clock = GameClock.realTime();
+    private final int mapCols, mapRows;
+    private final long mapSeed;
+    private int tick = 0;
+
+    private final Client[] clients = new Client[PLAYERS];
+    private final NetSnapshot current = new NetSnapshot(PLAYERS, Simulation.MAX_BULLETS);
+    private final NetSnapshot empty = new NetSnapshot(PLAYERS, 0);  // Baseline for full snapshots
+    private final HitboxHistory hitboxes;
+    private final RayHit wallHit = new RayHit();
+    private final double hitscanRange;
+    private final PlayerInput[] received = new PlayerInput[NetProtocol.INPUTS_PER_PACKET];
+    private final int[] receivedSeq = new int[NetProtocol.INPUTS_PER_PACKET];
+
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocate(2048);
+    private final ByteBuffer sendBuffer = ByteBuffer.allocate(NetProtocol.MAX_PACKET);
+
+    private volatile boolean running = true;
+    private boolean deltaEnabled = true;
+
+    // Stats, read after the server has stopped
+    private long ticks, tickNanos, cpuNanos, wallNanos;
+    private long bytesSent, fullSnapshots, deltaSnapshots, malformedPackets;
+    private long shotsJudged, hits, rewoundTicks, shotNanos;
+    private long timedOutClients;
+
+    // One connected player
+    private static final class Client {
+        final SocketAddress address;
+        final int index;  // Player index in the simulation
+
+        final NetSnapshot[] sent = new NetSnapshot[HISTORY];  // What we sent, by tick % HISTORY
+        int ackedTick = -1;  // Newest snapshot the client says it has
+
+        // Inputs waiting to be applied, oldest first
+        final PlayerInput[] queue = new PlayerInput[MAX_QUEUED_INPUTS];
+        final int[] queueSeq = new int[MAX_QUEUED_INPUTS];
+        final int[] queueAck = new int[MAX_QUEUED_INPUTS];  // Newest snapshot the client had when it sent the input
+        int queueHead = 0, queued = 0;
+        int newestSeq = -1;  // Newest input seq we've accepted
+        int appliedSeq = -1;  // Newest input seq the simulation has run
+        int viewTick = -1;  // Tick the client was showing other players at when it sent that input
+        int lastHeardTick;  // Server tick of the last packet from the client
+
+        Client(SocketAddress address, int index, int tick) {
+            this.address = address;
+            this.index = index;
+            this.lastHeardTick = tick;
+            for (int i = 0; i < HISTORY; i++) {
+                sent[i] = new NetSnapshot(PLAYERS, Simulation.MAX_BULLETS);
+            }
+            for (int i = 0; i < MAX_QUEUED_INPUTS; i++) {
+                queue[i] = new PlayerInput();
+            }
+        }
+
+        void enqueue(int seq, PlayerInput input, int ack) {
+            if (queued == MAX_QUEUED_INPUTS) {
+                // Client is running ahead of us, drop the oldest so input lag stays bounded
+                queueHead = (queueHead + 1) % MAX_QUEUED_INPUTS;
+                queued--;
+            }
+            int slot = (queueHead + queued) % MAX_QUEUED_INPUTS;
+            queue[slot].copyFrom(input);
+            queueSeq[slot] = seq;
+            queueAck[slot] = ack;
+            queued++;
+            newestSeq = seq;
+        }
+
+        // Apply the next queued input. Returns false if the client's input is late.
+        boolean applyNext(PlayerInput target) {
+            if (queued == 0) {
+                return false;
+            }
+            target.copyFrom(queue[queueHead]);
+            appliedSeq = queueSeq[queueHead];
+            viewTick = queueAck[queueHead] - NetProtocol.INTERPOLATION_TICKS;
+            queueHead = (queueHead + 1) % MAX_QUEUED_INPUTS;
+            queued--;
+            return true;
+        }
+    }
+
+    public GameServer(SocketAddress bindAddress, int mapCols, int mapRows, long mapSeed, LossyLink link) throws IOException {
+        this.mapCols = mapCols;
+        this.mapRows = mapRows;
+        this.mapSeed = mapSeed;
+        this.link = link;
+        this.simulation = new Simulation(MapFile.generate(mapCols, mapRows, mapSeed), mapSeed, PLAYERS);
+        this.simulation.setBulletDamage(false);  // judgeShots deals it
+        this.hitboxes = new HitboxHistory(PLAYERS, MAX_REWIND_TICKS, simulation.getPlayer().getSize());
+        this.hitscanRange = Math.hypot(simulation.getWidth(), simulation.getHeight());
+        for (int i = 0; i < received.length; i++) {
+            received[i] = new PlayerInput();
+        }
+
+        channel = DatagramChannel.open();
+        channel.bind(bindAddress);
+        channel.configureBlocking(false);
+        selector = Selector.open();
+        channel.register(selector, SelectionKey.OP_READ);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 27015;
+        int cols = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        int rows = args.length > 2 ? Integer.parseInt(args[2]) : 40;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+
+        GameServer server = new GameServer(new InetSocketAddress(port), cols, rows, seed, LossyLink.direct());
+        System.out.println("Listening on " + server.getLocalAddress());
+        server.run();
+    }
+
+    // Runs until stop() is called. Sleeps in the selector between ticks, so an idle server costs almost nothing.
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        long nextTick = start;
+        try {
+            while (running) {
+                long now = System.nanoTime();
+                if (now >= nextTick) {
+                    tick();
+                    nextTick += TICK_NS;
+                    if (now - nextTick > MAX_CATCH_UP_TICKS * TICK_NS) {
+                        nextTick = now + TICK_NS;  // Fell too far behind, drop the backlog
+                    }
+                }
+                link.flush();
+
+                long waitMs = (Math.min(nextTick, link.nextDue()) - System.nanoTime()) / 1_000_000;
+                if (waitMs > 0) {
+                    selector.select(waitMs);
+                } else {
+                    selector.selectNow();
+                }
+                selector.selectedKeys().clear();
+                receiveAll();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            wallNanos = System.nanoTime() - start;
+            cpuNanos = ManagementFactory.getThreadMXBean().getCurrentThreadCpuTime();
+            close();
+        }
+    }
+
+    public void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    // Also for GameServerTest, which never calls run()
+    void close() {
+        try {
+            selector.close();
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // One server tick. Package-private so GameServerTest can step the server itself.
+    void tick() throws IOException {
+        long start = System.nanoTime();
+        for (Client client : clients) {
+            if (client != null && tick - client.lastHeardTick > CLIENT_TIMEOUT_TICKS) {
+                dropClient(client);
+                timedOutClients++;
+            }
+        }
+        for (Client client : clients) {
+            if (client != null) {
+                PlayerInput input = simulation.getPlayerState(client.index).getInput();
+                if (!client.applyNext(input)) {
+                    // No input for this tick: stand still rather than repeat the last move,
+                    // since the client only predicts the moves it sent, once each
+                    input.up = input.down = input.left = input.right = false;
+                }
+            }
+        }
+
+        clock.beginTick();
+        simulation.tick(clock);
+        tick++;
+
+        judgeShots();
+        hitboxes.record(tick, simulation);
+        current.capture(tick, simulation);
+        for (Client client : clients) {
+            if (client != null) {
+                sendSnapshot(client);
+            }
+        }
+
+        ticks++;
+        tickNanos += System.nanoTime() - start;
+    }
+
+    // Trace every shot fired this tick against where the targets were on the shooter's
+    // screen, and damage whoever it hits as a bullet would. Someone who has died since
+    // takes no more.
+    private void judgeShots() {
+        for (Client client : clients) {
+            if (client == null) {
+                continue;
+            }
+            PlayerState shooter = simulation.getPlayerState(client.index);
+            int shots = shooter.getShotCount();
+            if (shots == 0) {
+                continue;
+            }
+
+            long start = System.nanoTime();
+            double x0 = shooter.getPlayer().getX();
+            double y0 = shooter.getPlayer().getY();
+            int damage = shooter.getCurrentWeapon().getDamage();  // The weapon the shots came from, fire() is the tick's last step
+            for (int i = 0; i < shots; i++) {
+                double x1 = x0 + shooter.getShotDirX(i) * hitscanRange;
+                double y1 = y0 + shooter.getShotDirY(i) * hitscanRange;
+                int hit = hitboxes.raycast(client.viewTick, client.index, x0, y0, x1, y1, simulation.getCollision(), wallHit);
+                if (hit != HitGrid.NONE) {
+                    hits++;
+                    PlayerState target = simulation.getPlayerState(HitGrid.playerOf(hit));
+                    if (target.isAlive()) {
+                        target.takeDamage(HitGrid.damage(damage, HitGrid.regionOf(hit)));
+                    }
+                }
+                rewoundTicks += hitboxes.getNewestTick() - hitboxes.rewindTick(client.viewTick);
+            }
+            shotsJudged += shots;
+            shotNanos += System.nanoTime() - start;
+        }
+    }
+
+    private void sendSnapshot(Client client) throws IOException {
+        // Delta against the newest snapshot the client has, if we still remember it
+        NetSnapshot baseline = empty;
+        int ack = client.ackedTick;
+        if (deltaEnabled && ack >= 0 && tick - ack < HISTORY && client.sent[ack % HISTORY].tick == ack) {
+            baseline = client.sent[ack % HISTORY];
+        }
+
+        NetSnapshot snapshot = client.sent[tick % HISTORY];
+        snapshot.copyFrom(current);
+
+        sendBuffer.clear();
+        sendBuffer.put(NetProtocol.SNAPSHOT);
+        sendBuffer.putInt(tick);
+        sendBuffer.putInt(baseline == empty ? -1 : ack);
+        sendBuffer.putInt(client.appliedSeq);
+        snapshot.encode(sendBuffer, baseline, NetProtocol.MAX_PACKET);
+        sendBuffer.flip();
+
+        bytesSent += sendBuffer.remaining();
+        if (baseline == empty) {
+            fullSnapshots++;
+        } else {
+            deltaSnapshots++;
+        }
+        link.send(channel, sendBuffer, client.address);
+    }
+
+    void receiveAll() throws IOException {
+        while (true) {
+            receiveBuffer.clear();
+            SocketAddress from = channel.receive(receiveBuffer);
+            if (from == null) {
+                return;
+            }
+            receiveBuffer.flip();
+            try {
+                handlePacket(from, receiveBuffer);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                malformedPackets++;  // Truncated or garbage, ignore it
+            }
+        }
+    }
+
+    private void handlePacket(SocketAddress from, ByteBuffer in) throws IOException {
+        byte type = in.get();
+        Client client = findClient(from);
+        if (client != null) {
+            client.lastHeardTick = tick;
+        }
+
+        switch (type) {
+            case NetProtocol.CONNECT -> {
+                if (in.get() != NetProtocol.VERSION) {
+                    sendByte(NetProtocol.REJECT, from);
+                    return;
+                }
+                if (client == null) {
+                    client = addClient(from);
+                }
+                if (client == null) {
+                    sendByte(NetProtocol.REJECT, from);  // Full
+                } else {
+                    sendWelcome(client);  // Also answers a resent CONNECT whose WELCOME got lost
+                }
+            }
+            case NetProtocol.INPUT -> {
+                if (client != null) {
+                    readInputs(client, in);
+                }
+            }
+            case NetProtocol.DISCONNECT -> {
+                if (client != null) {
+                    dropClient(client);
+                }
+            }
+            default -> malformedPackets++;
+        }
+    }
+
+    private void readInputs(Client client, ByteBuffer in) {
+        int ack = in.getInt();
+        if (ack > client.ackedTick && ack <= tick) {
+            client.ackedTick = ack;
+        }
+
+        int count = in.get();
+        if (count < 1 || count > received.length) {
+            throw new IllegalArgumentException("bad input count " + count);
+        }
+        for (int i = 0; i < count; i++) {
+            receivedSeq[i] = NetProtocol.getInput(in, received[i]);
+        }
+
+        // Newest first on the wire, queue oldest first and skip what we already have
+        for (int i = count - 1; i >= 0; i--) {
+            if (receivedSeq[i] > client.newestSeq) {
+                client.enqueue(receivedSeq[i], received[i], ack);
+            }
+        }
+    }
+
+    private Client findClient(SocketAddress address) {
+        for (Client client : clients) {
+            if (client != null && client.address.equals(address)) {
+                return client;
+            }
+        }
+        return null;
+    }
+
+    private Client addClient(SocketAddress address) {
+        for (int i = 0; i < clients.length; i++) {
+            if (clients[i] == null) {
+                simulation.resetPlayer(i);  // Whoever had the slot before may be dead, hurt or out of ammo
+                hitboxes.forget(i);
+                clients[i] = new Client(address, i, tick);
+                return clients[i];
+            }
+        }
+        return null;
+    }
+
+    // Free a client's slot. Their player isn't removed: it stands where it is with no
+    // input, and can still be shot, until addClient replaces it for the next client.
+    private void dropClient(Client client) {
+        simulation.getPlayerState(client.index).getInput().clear();
+        clients[client.index] = null;
+    }
+
+    private void sendWelcome(Client client) throws IOException {
+        sendBuffer.clear();
+        sendBuffer.put(NetProtocol.WELCOME);
+        sendBuffer.put((byte) client.index);
+        sendBuffer.put((byte) PLAYERS);
+        sendBuffer.put((byte) TICKS_PER_SECOND);
+        sendBuffer.putInt(mapCols);
+        sendBuffer.putInt(mapRows);
+        sendBuffer.putLong(mapSeed);
+        sendBuffer.flip();
+        link.send(channel, sendBuffer, client.address);
+    }
+
+    private void sendByte(byte type, SocketAddress to) throws IOException {
+        sendBuffer.clear();
+        sendBuffer.put(type);
+        sendBuffer.flip();
+        link.send(channel, sendBuffer, to);
+    }
+
+    // Send every snapshot in full, to compare against delta compression
+    public void setDeltaEnabled(boolean deltaEnabled) {
+        this.deltaEnabled = deltaEnabled;
+    }
+
+    public SocketAddress getLocalAddress() throws IOException {
+        return channel.getLocalAddress();
+    }
+
+    public Simulation getSimulation() {
+        return simulation;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public double getMeanTickMicros() {
+        return ticks == 0 ? 0 : tickNanos / 1e3 / ticks;
+    }
+
+    // Share of one core the server thread used while running
+    public double getCpuShare() {
+        return wallNanos == 0 ? 0 : (double) cpuNanos / wallNanos;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getFullSnapshots() {
+        return fullSnapshots;
+    }
+
+    public long getDeltaSnapshots() {
+        return deltaSnapshots;
+    }
+
+    public long getMalformedPackets() {
+        return malformedPackets;
+    }
+
+    // Clients dropped for going quiet rather than saying DISCONNECT
+    public long getTimedOutClients() {
+        return timedOutClients;
+    }
+
+    public long getShotsJudged() {
+        return shotsJudged;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    // How far back shots were judged on average
+    public double getMeanRewindTicks() {
+        return shotsJudged == 0 ? 0 : (double) rewoundTicks / shotsJudged;
+    }
+
+    // Rewind and trace, per shot
+    public double getMeanShotNanos() {
+        return shotsJudged == 0 ? 0 : (double) shotNanos / shotsJudged;
+    }
+
+    public HitboxHistory getHitboxes() {
+        return hitboxes;
+    }
+}
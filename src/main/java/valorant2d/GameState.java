@@ -1,3 +1,5 @@
+package valorant2d;
+
 public enum GameState {
 	TITLE,
 	MENU,
@@ -0,0 +1,100 @@
+package valorant2d;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+// Plays whole matches with bot input and no window, as fast as the CPU allows.
+// Game time is virtual (every tick adds 1/60 s), so a one-minute match takes
+// however long 3600 ticks take to compute. Used for balance testing and for
+// measuring tick throughput in CI. With more players every one of them gets a
+// bot, and threads spreads each tick over that many cores (TickScheduler); the
+// checksum must not change with the thread count.
+//
+//   java HeadlessRunner [matches] [ticksPerMatch] [seed] [players] [threads]
+public class HeadlessRunner {
+
+    private static final int TICKS_PER_SECOND = 60;
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+
+    public static void main(String[] args) {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int ticksPerMatch = args.length > 1 ? Integer.parseInt(args[1]) : 60 * TICKS_PER_SECOND;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        int players = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+
+        long checksum = 0;
+        long start = System.nanoTime();
+        try (TickScheduler scheduler = new TickScheduler(threads)) {
+            for (int i = 0; i < matches; i++) {
+                checksum = checksum * 31 + runMatch(seed + i, ticksPerMatch, players, scheduler);
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long ticks = (long) matches * ticksPerMatch;
+        System.out.printf("%d matches, %d ticks in %.2f s (%d players, %d threads)%n", matches, ticks, seconds,
+                players, threads);
+        System.out.printf("%.0f matches/min, %.0f ticks/s%n", matches / seconds * 60, ticks / seconds);
+        System.out.printf("checksum %016x (same seed and args give the same checksum)%n", checksum);
+    }
+
+    // Play one match and return a summary of where it ended up
+    public static long runMatch(long seed, int ticks) {
+        return runMatch(seed, ticks, 1, TickScheduler.SERIAL);
+    }
+
+    public static long runMatch(long seed, int ticks, int players, TickScheduler scheduler) {
+        Simulation simulation = new Simulation(TileMap.bordered(WIDTH / Simulation.TILE_SIZE,
+                HEIGHT / Simulation.TILE_SIZE, Simulation.TILE_SIZE), seed, players);
+        simulation.setScheduler(scheduler);
+        GameClock clock = GameClock.virtual();
+        Random bot = new Random(seed ^ 0x5DEECE66DL);
+
+        for (int tick = 0; tick < ticks; tick++) {
+            for (int i = 0; i < players; i++) {
+                updateBot(bot, simulation.getPlayerState(i).getInput(), tick);
+            }
+            clock.beginTick();
+            simulation.tick(clock);
+            clock.advance(1_000_000_000L / TICKS_PER_SECOND);
+        }
+
+        Player player = simulation.getPlayer();
+        Weapon weapon = simulation.getCurrentWeapon();
+        long summary = player.getX();
+        summary = summary * 31 + player.getY();
+        summary = summary * 31 + simulation.getBullets().size();
+        summary = summary * 31 + weapon.getBulletsInMag();
+        summary = summary * 31 + weapon.getReserveAmmo();
+        if (players > 1) {
+            // Everyone else and every bullet too
+            ByteBuffer state = ByteBuffer.allocate(simulation.maxStateBytes());
+            simulation.writeState(state);
+            summary = summary * 31 + Arrays.hashCode(Arrays.copyOf(state.array(), state.position()));
+        }
+        return summary;
+    }
+
+    // A very simple bot: wander, aim somewhere random, hold fire in bursts
+    static void updateBot(Random bot, PlayerInput input, int tick) {
+        if (tick % 30 == 0) {
+            input.up = bot.nextBoolean();
+            input.down = !input.up && bot.nextBoolean();
+            input.left = bot.nextBoolean();
+            input.right = !input.left && bot.nextBoolean();
+            input.aimX = bot.nextInt(WIDTH);
+            input.aimY = bot.nextInt(HEIGHT);
+            input.fire = bot.nextInt(3) != 0;
+            input.spray = bot.nextInt(4) == 0;
+        }
+        if (tick % 300 == 0) {
+            input.switchTo = WeaponType.values()[bot.nextInt(WeaponType.values().length)];
+        }
+        if (bot.nextInt(500) == 0) {
+            input.reload = true;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package valorant2d;
+
+// Fixed-size log-linear histogram (like HdrHistogram): every power of two is split
+// into 32 buckets, so any value is stored within ~3% and recording never allocates.
+// Only one thread should record into a histogram; other threads may read it and
+// see slightly stale numbers, which is fine for an overlay or a dump.
+public class Histogram {
+	private static final int SUB_BITS = 5;
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+
+	private final String name;
+	private final String unit;
+	private final long[] counts = new long[(64 - SUB_BITS) * SUB_COUNT];
+	private long count = 0;
+	private long sum = 0;
+	private long min = Long.MAX_VALUE;
+	private long max = 0;
+
+	public Histogram(String name, String unit) {
+		this.name = name;
+		this.unit = unit;
+	}
+
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+		counts[indexOf(value)]++;
+		count++;
+		sum += value;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	// Value at or below which p percent of the recorded values fall
+	public long percentile(double p) {
+		if (count == 0) {
+			return 0;
+		}
+		long target = Math.max(1, (long) Math.ceil(p / 100.0 * count));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= target) {
+				return Math.min(highestValueAt(i), max);
+			}
+		}
+		return max;
+	}
+
+	private static int indexOf(long value) {
+		if (value < SUB_COUNT) {
+			return (int) value;  // Small values get a bucket each
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+		return ((shift + 1) << SUB_BITS) + (int) (value >>> shift) - SUB_COUNT;
+	}
+
+	private static long highestValueAt(int index) {
+		if (index < SUB_COUNT) {
+			return index;
+		}
+		int shift = (index >> SUB_BITS) - 1;
+		long sub = (index & (SUB_COUNT - 1)) + SUB_COUNT;
+		return ((sub + 1) << shift) - 1;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getUnit() {
+		return unit;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getSum() {
+		return sum;
+	}
+
+	public long getMin() {
+		return count == 0 ? 0 : min;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	public double getMean() {
+		return count == 0 ? 0 : (double) sum / count;
+	}
+}
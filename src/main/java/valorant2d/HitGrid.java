@@ -0,0 +1,224 @@
+package valorant2d;
+
+import java.util.Arrays;
+
+// Which player a bullet hits on its way through a tick, and where. Rebuilt
+// every tick from where everyone stands: each player's box goes into the
+// cells of a spatial hash it overlaps (at most four, the cells are bigger
+// than a player), so a bullet only looks at the players in the few cells its
+// step crosses instead of at everyone. Most bullets find their cells empty.
+//
+// A player's box is split into regions, head at the top, then body, then
+// legs (REGION_BOXES), and a hit scales the bullet's damage by the region
+// (damage()). Building isn't thread safe, but raycast only reads, so bullets
+// can be traced on several threads at once.
+public class HitGrid {
+	public static final int HEAD = 0, BODY = 1, LEGS = 2;
+	public static final int REGION_COUNT = 3;
+	public static final int NONE = -1;
+
+	// Regions as fractions of the player's box: left, top, right, bottom
+	private static final double[] REGION_BOXES = {
+			0.3, 0, 0.7, 0.3,  // Head
+			0, 0.3, 1, 0.7,  // Body
+			0.15, 0.7, 0.85, 1,  // Legs
+	};
+	private static final double[] DAMAGE_SCALE = { 4, 1, 0.85 };  // Vandal: 160 head, 40 body, 34 legs
+
+	private static final int CELL_SHIFT = 6;  // 64 pixel cells
+	private static final int CELLS_PER_BOX = 4;
+
+	private final int boxSize;
+	private final int[] regionLeft = new int[REGION_COUNT], regionTop = new int[REGION_COUNT];
+	private final int[] regionRight = new int[REGION_COUNT], regionBottom = new int[REGION_COUNT];
+
+	// Boxes added this tick, by player, and who was added
+	private final int[] boxLeft, boxTop;
+	private final int[] added;
+	private int addedCount = 0;
+
+	// Hash of cell to the players in it: a list per bucket, linked by index
+	private final int[] bucketHead;
+	private final int bucketMask;
+	private final int[] entryCellX, entryCellY, entryPlayer, entryNext;
+	private int entries = 0;
+
+	public HitGrid(int maxPlayers, int boxSize) {
+		this.boxSize = boxSize;
+		for (int r = 0; r < REGION_COUNT; r++) {
+			regionLeft[r] = (int) Math.round(REGION_BOXES[r * 4] * boxSize);
+			regionTop[r] = (int) Math.round(REGION_BOXES[r * 4 + 1] * boxSize);
+			regionRight[r] = (int) Math.round(REGION_BOXES[r * 4 + 2] * boxSize);
+			regionBottom[r] = (int) Math.round(REGION_BOXES[r * 4 + 3] * boxSize);
+		}
+		boxLeft = new int[maxPlayers];
+		boxTop = new int[maxPlayers];
+		added = new int[maxPlayers];
+		int maxEntries = maxPlayers * CELLS_PER_BOX;
+		bucketHead = new int[Integer.highestOneBit(Math.max(16, maxEntries * 2) - 1) << 1];
+		bucketMask = bucketHead.length - 1;
+		entryCellX = new int[maxEntries];
+		entryCellY = new int[maxEntries];
+		entryPlayer = new int[maxEntries];
+		entryNext = new int[maxEntries];
+		Arrays.fill(bucketHead, NONE);
+	}
+
+	// Empty the grid for a new tick
+	public void clear() {
+		for (int e = 0; e < entries; e++) {
+			bucketHead[bucket(entryCellX[e], entryCellY[e])] = NONE;
+		}
+		entries = 0;
+		addedCount = 0;
+	}
+
+	// Put a player's box, top-left corner at (left, top), in the cells it overlaps
+	public void add(int player, int left, int top) {
+		boxLeft[player] = left;
+		boxTop[player] = top;
+		added[addedCount++] = player;
+		int right = left + boxSize, bottom = top + boxSize;  // The far edges count as hits too
+		for (int cy = top >> CELL_SHIFT; cy <= bottom >> CELL_SHIFT; cy++) {
+			for (int cx = left >> CELL_SHIFT; cx <= right >> CELL_SHIFT; cx++) {
+				int b = bucket(cx, cy);
+				entryCellX[entries] = cx;
+				entryCellY[entries] = cy;
+				entryPlayer[entries] = player;
+				entryNext[entries] = bucketHead[b];
+				bucketHead[b] = entries++;
+			}
+		}
+	}
+
+	// The first hitbox the step from (x0, y0) to (x1, y1) enters before tMax (0..1,
+	// where a wall stops it), skipping the shooter's own. Returns the player times
+	// REGION_COUNT plus the region, or NONE. Meant for a bullet's step through one
+	// tick; a long ray crosses too many cells, raycastAll is for those.
+	public int raycast(double x0, double y0, double x1, double y1, double tMax, int shooter) {
+		if (entries == 0) {
+			return NONE;
+		}
+		int cx0 = (int) Math.floor(Math.min(x0, x1)) >> CELL_SHIFT;
+		int cx1 = (int) Math.floor(Math.max(x0, x1)) >> CELL_SHIFT;
+		int cy0 = (int) Math.floor(Math.min(y0, y1)) >> CELL_SHIFT;
+		int cy1 = (int) Math.floor(Math.max(y0, y1)) >> CELL_SHIFT;
+		double dirX = x1 - x0, dirY = y1 - y0;
+		int hit = NONE;
+		double nearest = tMax;
+		for (int cy = cy0; cy <= cy1; cy++) {
+			for (int cx = cx0; cx <= cx1; cx++) {
+				for (int e = bucketHead[bucket(cx, cy)]; e != NONE; e = entryNext[e]) {
+					int player = entryPlayer[e];
+					if (player == shooter || entryCellX[e] != cx || entryCellY[e] != cy) {
+						continue;
+					}
+					// A player in two of these cells is just checked twice
+					int region = firstRegion(player, x0, y0, dirX, dirY, nearest);
+					if (region != NONE) {
+						double t = regionEntry(player, region, x0, y0, dirX, dirY);
+						int code = player * REGION_COUNT + region;
+						if (t < nearest || (t == nearest && hit != NONE && code < hit)) {
+							nearest = t;
+							hit = code;
+						}
+					}
+				}
+			}
+		}
+		return hit;
+	}
+
+	// raycast without the grid, testing every player added this tick in turn.
+	// Gives the same answers; it's what the grid saves (HitBenchmark), and it's
+	// what a long ray wants (HitboxHistory).
+	public int raycastAll(double x0, double y0, double x1, double y1, double tMax, int shooter) {
+		double dirX = x1 - x0, dirY = y1 - y0;
+		int hit = NONE;
+		double nearest = tMax;
+		for (int a = 0; a < addedCount; a++) {
+			int player = added[a];
+			if (player == shooter) {
+				continue;
+			}
+			int region = firstRegion(player, x0, y0, dirX, dirY, nearest);
+			if (region != NONE) {
+				double t = regionEntry(player, region, x0, y0, dirX, dirY);
+				int code = player * REGION_COUNT + region;
+				if (t < nearest || (t == nearest && hit != NONE && code < hit)) {
+					nearest = t;
+					hit = code;
+				}
+			}
+		}
+		return hit;
+	}
+
+	// The region of a player's box the step enters first, if that's no later than
+	// `nearest`, or NONE. The whole box goes first since most steps miss it.
+	private int firstRegion(int player, double x0, double y0, double dirX, double dirY, double nearest) {
+		int left = boxLeft[player], top = boxTop[player];
+		if (entry(x0, y0, dirX, dirY, left, top, left + boxSize, top + boxSize) > nearest) {
+			return NONE;
+		}
+		int first = NONE;
+		for (int r = 0; r < REGION_COUNT; r++) {
+			double t = regionEntry(player, r, x0, y0, dirX, dirY);
+			if (t < nearest || (first == NONE && t == nearest)) {
+				nearest = t;
+				first = r;
+			}
+		}
+		return first;
+	}
+
+	private double regionEntry(int player, int region, double x0, double y0, double dirX, double dirY) {
+		int left = boxLeft[player], top = boxTop[player];
+		return entry(x0, y0, dirX, dirY, left + regionLeft[region], top + regionTop[region], left + regionRight[region],
+				top + regionBottom[region]);
+	}
+
+	// Where along the step (0..1) it enters the box, or infinity if it misses (slab test)
+	private static double entry(double x0, double y0, double dirX, double dirY, int left, int top, int right,
+			int bottom) {
+		double tEnter = 0, tExit = 1;
+		if (dirX != 0) {
+			double t0 = (left - x0) / dirX;
+			double t1 = (right - x0) / dirX;
+			tEnter = Math.max(tEnter, Math.min(t0, t1));
+			tExit = Math.min(tExit, Math.max(t0, t1));
+		} else if (x0 < left || x0 >= right) {
+			return Double.POSITIVE_INFINITY;
+		}
+		if (dirY != 0) {
+			double t0 = (top - y0) / dirY;
+			double t1 = (bottom - y0) / dirY;
+			tEnter = Math.max(tEnter, Math.min(t0, t1));
+			tExit = Math.min(tExit, Math.max(t0, t1));
+		} else if (y0 < top || y0 >= bottom) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return tEnter <= tExit ? tEnter : Double.POSITIVE_INFINITY;
+	}
+
+	private int bucket(int cx, int cy) {
+		return (cx * 0x9E3779B1 ^ cy * 0x85EBCA77) & bucketMask;
+	}
+
+	public static int playerOf(int hit) {
+		return hit / REGION_COUNT;
+	}
+
+	public static int regionOf(int hit) {
+		return hit % REGION_COUNT;
+	}
+
+	// What a bullet of the given damage does to a region
+	public static int damage(int bulletDamage, int region) {
+		return (int) Math.round(bulletDamage * DAMAGE_SCALE[region]);
+	}
+
+	public int size() {
+		return entries;
+	}
+}
@@ -0,0 +1,119 @@
+package valorant2d;
+
+import java.util.Arrays;
+
+// Where every player's hitbox was for the last few ticks, so the server can judge a
+// shot against what the shooter was looking at instead of where targets are now
+// (lag compensation). Boxes are kept in a ring of flat int arrays indexed by
+// tick % capacity, so recording and rewinding never allocate and memory is fixed
+// up front: capacity * (4 + players * 9) bytes, under a kilobyte for a 1v1.
+//
+// A rewound shot goes through the same HitGrid regions as a bullet, with only the
+// players who were alive at that tick in it, so it hits a head, body or legs and
+// does the same damage a bullet would. The grid is rebuilt for every shot, so
+// raycast isn't thread safe.
+//
+// Shots further back than maxRewindTicks are judged at the oldest tick we keep,
+// which also caps how far a high-ping player can shoot into the past.
+public class HitboxHistory {
+	private static final int EMPTY = Integer.MIN_VALUE;  // Not -1: a shot early in a match has viewTick -1
+
+	private final int players;
+	private final int maxRewindTicks;
+	private final int capacity;  // Power of two, more than maxRewindTicks
+	private final int mask;
+	private final int boxSize;
+
+	private final int[] ticks;  // Tick held in each slot, EMPTY for none
+	private final int[] boxX, boxY;  // Top-left corners, slot * players + player
+	private final boolean[] alive;  // Likewise
+	private int newestTick = -1;
+
+	private final HitGrid grid;  // The rewound tick's boxes, for the shot being traced
+
+	public HitboxHistory(int players, int maxRewindTicks, int boxSize) {
+		if (maxRewindTicks < 0) {
+			throw new IllegalArgumentException("maxRewindTicks " + maxRewindTicks);
+		}
+		this.players = players;
+		this.maxRewindTicks = maxRewindTicks;
+		this.capacity = Integer.highestOneBit(maxRewindTicks + 1) << 1;
+		this.mask = capacity - 1;
+		this.boxSize = boxSize;
+
+		ticks = new int[capacity];
+		boxX = new int[capacity * players];
+		boxY = new int[capacity * players];
+		alive = new boolean[capacity * players];
+		grid = new HitGrid(players, boxSize);
+		Arrays.fill(ticks, EMPTY);
+	}
+
+	// Remember where everyone is at the end of this tick
+	public void record(int tick, Simulation simulation) {
+		int slot = tick & mask;
+		int base = slot * players;
+		int half = boxSize / 2;
+		for (int i = 0; i < players; i++) {
+			PlayerState state = simulation.getPlayerState(i);
+			Player player = state.getPlayer();
+			boxX[base + i] = player.getX() - half;
+			boxY[base + i] = player.getY() - half;
+			alive[base + i] = state.isAlive();
+		}
+		ticks[slot] = tick;
+		newestTick = tick;
+	}
+
+	// A new player took this slot: where the old one was is no longer anyone to hit
+	public void forget(int player) {
+		for (int slot = 0; slot < capacity; slot++) {
+			alive[slot * players + player] = false;
+		}
+	}
+
+	// The tick a shot seen at viewTick is actually judged at: clamped to what we still have
+	public int rewindTick(int viewTick) {
+		int tick = Math.max(Math.min(viewTick, newestTick), newestTick - maxRewindTicks);
+		return ticks[tick & mask] == tick ? tick : newestTick;
+	}
+
+	// Fire a hitscan ray from (x0, y0) to (x1, y1) with everyone put back where they were
+	// at viewTick. Walls stop the ray. Returns the first hit as HitGrid codes it (the
+	// player times REGION_COUNT plus the region), or HitGrid.NONE.
+	public int raycast(int viewTick, int shooter, double x0, double y0, double x1, double y1,
+			CollisionMap collision, RayHit wallHit) {
+		double tMax = 1;
+		if (collision.raycast(x0, y0, x1, y1, wallHit)) {
+			tMax = wallHit.getT();
+		}
+		if (newestTick < 0) {
+			return HitGrid.NONE;
+		}
+
+		int base = (rewindTick(viewTick) & mask) * players;
+		grid.clear();
+		for (int i = 0; i < players; i++) {
+			if (alive[base + i]) {
+				grid.add(i, boxX[base + i], boxY[base + i]);
+			}
+		}
+		return grid.raycastAll(x0, y0, x1, y1, tMax, shooter);
+	}
+
+	public int getNewestTick() {
+		return newestTick;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public int getMaxRewindTicks() {
+		return maxRewindTicks;
+	}
+
+	public long getMemoryBytes() {
+		return (long) capacity * (4 + players * 9);
+	}
+}
@@ -0,0 +1,57 @@
+package valorant2d;
+
+import java.awt.*;
+
+// Health, weapon, ammo, reload and switch text drawn over the world while playing.
+// Each line is a cached Label, and its text is only rebuilt when the value behind it
+// changes, so a frame where nothing changed draws the HUD without allocating.
+public class Hud {
+
+    // Same look as before: Java2D's default font in yellow
+    private static final Font FONT = new Font(Font.DIALOG, Font.PLAIN, 12);
+    private static final Color COLOR = Color.YELLOW;
+
+    private final Label weapon = new Label(FONT, COLOR);
+    private final Label ammo = new Label(FONT, COLOR);
+    private final Label reloading = new Label(FONT, COLOR, "Reloading...");
+    private final Label switching = new Label(FONT, COLOR, "Switching weapon...");
+    private final Label health = new Label(FONT, COLOR);
+
+    // What the labels are showing now
+    private WeaponType shownWeapon;
+    private int shownMag = -1, shownReserve = -1;
+    private int shownHealth = -1;
+
+    public void draw(Graphics g, WorldSnapshot snapshot) {
+        WeaponType weaponType = snapshot.getWeaponType();
+        if (weaponType != shownWeapon) {
+            weapon.setText("Weapon: " + weaponType.name());
+            shownWeapon = weaponType;
+        }
+        weapon.draw(g, 10, 20);
+
+        if (weaponType != WeaponType.KNIFE) {
+            int mag = snapshot.getBulletsInMag();
+            int reserve = snapshot.getReserveAmmo();
+            if (mag != shownMag || reserve != shownReserve) {
+                ammo.setText("Ammo: " + mag + " / " + reserve);
+                shownMag = mag;
+                shownReserve = reserve;
+            }
+            ammo.draw(g, 10, 40);
+            if (snapshot.isReloading()) {
+                reloading.draw(g, 10, 1000);
+            }
+        }
+
+        if (snapshot.getHealth() != shownHealth) {
+            shownHealth = snapshot.getHealth();
+            health.setText("Health: " + shownHealth);
+        }
+        health.draw(g, 10, 60);
+
+        if (snapshot.isSwitchingWeapon()) {
+            switching.draw(g, 10, 80);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package valorant2d;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Hands input events from the AWT event thread to the simulation thread.
+// Single producer, single consumer ring buffer: no locks and no allocation.
+public class InputQueue {
+	public static final int KEY_DOWN = 1;
+	public static final int KEY_UP = 2;
+	public static final int MOUSE_DOWN = 3;
+	public static final int MOUSE_UP = 4;
+	public static final int MOUSE_MOVE = 5;
+
+	// Receives events when the queue is drained
+	public interface Handler {
+		void handle(int type, int a, int b);
+	}
+
+	private final int[] types, as, bs;
+	private final int mask;
+
+	// Producer writes the event first, then publishes tail (and the same for head)
+	private final AtomicLong head = new AtomicLong();
+	private final AtomicLong tail = new AtomicLong();
+
+	// capacity must be a power of two
+	public InputQueue(int capacity) {
+		types = new int[capacity];
+		as = new int[capacity];
+		bs = new int[capacity];
+		mask = capacity - 1;
+	}
+
+	// Called from the AWT thread. Returns false (event dropped) if the queue is full.
+	public boolean offer(int type, int a, int b) {
+		long t = tail.get();
+		if (t - head.get() == types.length) {
+			return false;
+		}
+		int slot = (int) t & mask;
+		types[slot] = type;
+		as[slot] = a;
+		bs[slot] = b;
+		tail.lazySet(t + 1);
+		return true;
+	}
+
+	// Called from the simulation thread, hands every pending event to handler in order
+	public void drain(Handler handler) {
+		long h = head.get();
+		long t = tail.get();
+		while (h < t) {
+			int slot = (int) h & mask;
+			handler.handle(types[slot], as[slot], bs[slot]);
+			h++;
+		}
+		head.lazySet(h);
+	}
+}
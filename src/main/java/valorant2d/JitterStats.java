@@ -0,0 +1,65 @@
+package valorant2d;
+
+// Tracks how evenly something repeats (ticks, frames). Intervals are collected
+// over a window, then published so readers always see the last full window.
+public class JitterStats {
+	private long lastTime = -1;
+
+	// Window being collected (Welford's running mean/variance)
+	private int count = 0;
+	private double mean = 0, m2 = 0;
+	private long maxInterval = 0;
+
+	// Last published window
+	private int rate = 0;
+	private double meanMs = 0, jitterMs = 0, maxMs = 0;
+
+	// Call once each time the event happens
+	public void mark(long nowNanos) {
+		if (lastTime >= 0) {
+			long interval = nowNanos - lastTime;
+			count++;
+			double delta = interval - mean;
+			mean += delta / count;
+			m2 += delta * (interval - mean);
+			maxInterval = Math.max(maxInterval, interval);
+		}
+		lastTime = nowNanos;
+	}
+
+	// Make the current window visible and start a new one
+	public void publish() {
+		rate = count;
+		meanMs = mean / 1e6;
+		jitterMs = count > 1 ? Math.sqrt(m2 / (count - 1)) / 1e6 : 0;
+		maxMs = maxInterval / 1e6;
+
+		count = 0;
+		mean = 0;
+		m2 = 0;
+		maxInterval = 0;
+	}
+
+	// Events per window (per second in the game loop)
+	public int getRate() {
+		return rate;
+	}
+
+	public double getMeanMs() {
+		return meanMs;
+	}
+
+	// Standard deviation of the interval
+	public double getJitterMs() {
+		return jitterMs;
+	}
+
+	public double getMaxMs() {
+		return maxMs;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d/s, mean %.2f ms, jitter %.2f ms, max %.2f ms", rate, meanMs, jitterMs, maxMs);
+	}
+}
@@ -0,0 +1,78 @@
+package valorant2d;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+// One line of text, rasterized into an image when it changes and copied to the
+// screen from then on. drawString lays the text out and builds glyph lists on
+// every call, which allocates every frame; drawing the cached image doesn't.
+// The image is reused when the new text fits, so changing the text only
+// allocates the String itself.
+public class Label {
+	// Only used to measure text, never drawn to
+	private static final Graphics2D MEASURE = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+
+	private final Font font;
+	private final Color color;
+	private final FontMetrics metrics;
+	private String text = "";
+	private BufferedImage image;
+	private int width;
+
+	public Label(Font font, Color color) {
+		this.font = font;
+		this.color = color;
+		synchronized (MEASURE) {
+			this.metrics = MEASURE.getFontMetrics(font);
+		}
+	}
+
+	public Label(Font font, Color color, String text) {
+		this(font, color);
+		setText(text);
+	}
+
+	// Returns true if the text changed and the image was redrawn
+	public boolean setText(String text) {
+		if (text.equals(this.text)) {
+			return false;
+		}
+		this.text = text;
+		width = metrics.stringWidth(text);
+		int height = metrics.getHeight();
+		if (width == 0) {
+			return true;
+		}
+		if (image == null || image.getWidth() < width || image.getHeight() < height) {
+			// A little wider than needed so a counter gaining a digit doesn't need a new image
+			image = new BufferedImage(width + width / 4 + 8, height, BufferedImage.TYPE_INT_ARGB);
+		}
+
+		Graphics2D ig = image.createGraphics();
+		ig.setComposite(AlphaComposite.Clear);
+		ig.fillRect(0, 0, image.getWidth(), image.getHeight());
+		ig.setComposite(AlphaComposite.SrcOver);
+		ig.setFont(font);
+		ig.setColor(color);
+		ig.drawString(text, 0, metrics.getAscent());
+		ig.dispose();
+		return true;
+	}
+
+	// Draw with the baseline at y, like drawString
+	public void draw(Graphics g, int x, int y) {
+		if (width > 0) {
+			// Only the part the text covers, the rest of the image is spare room
+			int top = y - metrics.getAscent();
+			g.drawImage(image, x, top, x + width, top + image.getHeight(), 0, 0, width, image.getHeight(), null);
+		}
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+}
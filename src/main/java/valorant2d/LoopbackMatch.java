@@ -0,0 +1,73 @@
+package valorant2d;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+// Runs a GameServer and two bot GameClients on localhost for a while, with simulated
+// latency and packet loss in both directions, then prints bandwidth and server cost.
+// The match is played twice, once with full snapshots and once with delta compression,
+// so the two can be compared.
+//
+//   java valorant2d.LoopbackMatch [seconds] [latencyMs one way] [jitterMs] [loss %]
+public class LoopbackMatch {
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int latencyMs = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        int jitterMs = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        double loss = args.length > 3 ? Double.parseDouble(args[3]) / 100 : 0.02;
+
+        System.out.printf("%d s per run, %d ms latency each way, %d ms jitter, %.1f%% loss%n%n", seconds, latencyMs,
+                jitterMs, loss * 100);
+        run("full snapshots", false, seconds, latencyMs, jitterMs, loss);
+        run("delta snapshots", true, seconds, latencyMs, jitterMs, loss);
+    }
+
+    private static void run(String name, boolean delta, int seconds, int latencyMs, int jitterMs, double loss)
+            throws IOException, InterruptedException {
+        GameServer server = new GameServer(new InetSocketAddress("127.0.0.1", 0), 60, 40, 1,
+                new LossyLink(latencyMs, jitterMs, loss, 1));
+        server.setDeltaEnabled(delta);
+        GameClient[] clients = {
+            new GameClient(server.getLocalAddress(), new LossyLink(latencyMs, jitterMs, loss, 2), 11),
+            new GameClient(server.getLocalAddress(), new LossyLink(latencyMs, jitterMs, loss, 3), 12),
+        };
+
+        Thread serverThread = new Thread(server, "Server");
+        Thread[] clientThreads = new Thread[clients.length];
+        serverThread.start();
+        for (int i = 0; i < clients.length; i++) {
+            clientThreads[i] = new Thread(clients[i], "Client " + i);
+            clientThreads[i].start();
+        }
+
+        Thread.sleep(seconds * 1000L);
+
+        for (int i = 0; i < clients.length; i++) {
+            clients[i].stop();
+            clientThreads[i].join();
+        }
+        server.stop();
+        serverThread.join();
+
+        long snapshots = server.getFullSnapshots() + server.getDeltaSnapshots();
+        System.out.println(name);
+        System.out.printf("  server: %d ticks, %.1f us/tick, %.1f%% of a core, %d full + %d delta snapshots, %.0f bytes/snapshot, %d clients timed out%n",
+                server.getTicks(), server.getMeanTickMicros(), server.getCpuShare() * 100, server.getFullSnapshots(),
+                server.getDeltaSnapshots(), snapshots == 0 ? 0.0 : (double) server.getBytesSent() / snapshots,
+                server.getTimedOutClients());
+        System.out.printf("  shots: %d judged, %d hits, rewound %.1f ticks on average, %.0f ns/shot, %d bytes of hitbox history%n",
+                server.getShotsJudged(), server.getHits(), server.getMeanRewindTicks(), server.getMeanShotNanos(),
+                server.getHitboxes().getMemoryBytes());
+        for (int i = 0; i < clients.length; i++) {
+            GameClient client = clients[i];
+            int index = client.getPlayerIndex();
+            System.out.printf("  client %d: %d snapshots (%d full), %.1f KB/s down, %d stale, %d missing baseline, %d inputs sent, health %d (server %d)%n",
+                    index, client.getSnapshots(), client.getFullSnapshots(),
+                    client.getBytesReceived() / 1024.0 / seconds, client.getStaleSnapshots(), client.getMissingBaselines(),
+                    client.getInputsSent(), client.getLatest() == null ? -1 : client.getLatest().getHealth(index),
+                    index < 0 ? -1 : server.getSimulation().getPlayerState(index).getHealth());
+        }
+        System.out.println();
+    }
+}
@@ -0,0 +1,97 @@
+package valorant2d;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+// Sends datagrams, optionally making the network look worse than it is: each packet
+// is dropped with some probability, or held back for a fixed latency plus random
+// jitter (so packets can also arrive out of order). With no latency and no loss,
+// packets go straight out. Used to test the server and clients over loopback.
+public class LossyLink {
+	private final long latencyNanos, jitterNanos;
+	private final double loss;
+	private final Random random;
+
+	private final PriorityQueue<Pending> pending = new PriorityQueue<>();
+	private long sequence = 0;  // Keeps packets due at the same time in send order
+
+	private long sent, dropped;
+
+	private static final class Pending implements Comparable<Pending> {
+		final long due, sequence;
+		final DatagramChannel channel;
+		final ByteBuffer data;
+		final SocketAddress to;
+
+		Pending(long due, long sequence, DatagramChannel channel, ByteBuffer data, SocketAddress to) {
+			this.due = due;
+			this.sequence = sequence;
+			this.channel = channel;
+			this.data = data;
+			this.to = to;
+		}
+
+		@Override
+		public int compareTo(Pending other) {
+			return due != other.due ? Long.compare(due, other.due) : Long.compare(sequence, other.sequence);
+		}
+	}
+
+	// A perfect link
+	public static LossyLink direct() {
+		return new LossyLink(0, 0, 0, 0);
+	}
+
+	// latencyMs is one way, so a client and server both using this see twice it as round trip
+	public LossyLink(int latencyMs, int jitterMs, double loss, long seed) {
+		this.latencyNanos = latencyMs * 1_000_000L;
+		this.jitterNanos = jitterMs * 1_000_000L;
+		this.loss = loss;
+		this.random = new Random(seed);
+	}
+
+	// Send the packet between position and limit
+	public void send(DatagramChannel channel, ByteBuffer packet, SocketAddress to) throws IOException {
+		sent++;
+		if (loss > 0 && random.nextDouble() < loss) {
+			dropped++;
+			return;
+		}
+		if (latencyNanos == 0 && jitterNanos == 0) {
+			channel.send(packet, to);
+			return;
+		}
+
+		// Copy it, the caller reuses its buffer
+		ByteBuffer copy = ByteBuffer.allocate(packet.remaining());
+		copy.put(packet).flip();
+		long delay = latencyNanos + (jitterNanos > 0 ? (long) (random.nextDouble() * jitterNanos) : 0);
+		pending.add(new Pending(System.nanoTime() + delay, sequence++, channel, copy, to));
+	}
+
+	// Send every held back packet that is due
+	public void flush() throws IOException {
+		long now = System.nanoTime();
+		while (!pending.isEmpty() && pending.peek().due <= now) {
+			Pending p = pending.poll();
+			p.channel.send(p.data, p.to);
+		}
+	}
+
+	// When the next held back packet is due, or Long.MAX_VALUE if none are waiting
+	public long nextDue() {
+		return pending.isEmpty() ? Long.MAX_VALUE : pending.peek().due;
+	}
+
+	public long getSent() {
+		return sent;
+	}
+
+	public long getDropped() {
+		return dropped;
+	}
+}
@@ -0,0 +1,133 @@
+package valorant2d;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+// Reads and writes .v2dm map files: a small header followed by one byte per tile.
+// Tiles are stored chunk by chunk (16x16, edge chunks padded) so a chunk is one
+// contiguous read. Opening a map only maps the file; tiles are read as chunks
+// are needed, so opening a huge map costs the same as a small one.
+//
+//   int   magic 'V2DM'
+//   short version
+//   short tile size in pixels
+//   int   columns
+//   int   rows
+//   short chunk size in tiles
+//   short unused
+//   byte  tiles[chunk rows * chunk cols][chunk size * chunk size]
+//
+// Writing a generated map (walls around the edge plus scattered wall blocks):
+//
+//   java valorant2d.MapFile <file> <cols> <rows> [seed]
+public final class MapFile {
+
+	private static final int MAGIC = 0x5632444D;  // "V2DM"
+	private static final short VERSION = 1;
+	private static final int HEADER_BYTES = 20;
+
+	private MapFile() {
+	}
+
+	public static TileMap open(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			// The mapping stays valid after the channel is closed
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+				throw new IOException(path + " is not a map file");
+			}
+			if (buffer.getShort(4) != VERSION) {
+				throw new IOException(path + ": unsupported map version " + buffer.getShort(4));
+			}
+
+			int tileSize = buffer.getShort(6);
+			int cols = buffer.getInt(8);
+			int rows = buffer.getInt(12);
+			int chunkTiles = buffer.getShort(16);
+			if (chunkTiles != TileMap.CHUNK_TILES) {
+				throw new IOException(path + ": unsupported chunk size " + chunkTiles);
+			}
+			if (tileSize <= 0 || cols <= 0 || rows <= 0) {
+				throw new IOException(path + ": bad map size " + cols + "x" + rows + " tiles of " + tileSize);
+			}
+
+			long chunks = (long) ((cols + chunkTiles - 1) / chunkTiles) * ((rows + chunkTiles - 1) / chunkTiles);
+			if (buffer.capacity() != HEADER_BYTES + chunks * TileMap.CHUNK_AREA) {
+				throw new IOException(path + " is truncated or has trailing data");
+			}
+			return new TileMap(cols, rows, tileSize, buffer, HEADER_BYTES);
+		}
+	}
+
+	public static void write(Path path, TileMap map) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+		header.putInt(MAGIC);
+		header.putShort(VERSION);
+		header.putShort((short) map.getTileSize());
+		header.putInt(map.getCols());
+		header.putInt(map.getRows());
+		header.putShort((short) TileMap.CHUNK_TILES);
+		header.putShort((short) 0);
+		header.flip();
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			writeFully(channel, header);
+			ByteBuffer tiles = ByteBuffer.allocate(64 * TileMap.CHUNK_AREA);
+			for (int chunk = 0; chunk < map.getChunkCount(); chunk++) {
+				if (!tiles.hasRemaining()) {
+					tiles.flip();
+					writeFully(channel, tiles);
+					tiles.clear();
+				}
+				tiles.put(map.chunk(chunk));
+			}
+			tiles.flip();
+			writeFully(channel, tiles);
+		}
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	// Bordered map with square wall blocks scattered inside, for trying out big maps
+	public static TileMap generate(int cols, int rows, long seed) {
+		TileMap map = TileMap.bordered(cols, rows, Simulation.TILE_SIZE);
+		Random random = new Random(seed);
+		int blocks = cols * rows / 200;
+		for (int i = 0; i < blocks; i++) {
+			int size = 1 + random.nextInt(4);
+			int row = 4 + random.nextInt(Math.max(1, rows - 8 - size));
+			int col = 4 + random.nextInt(Math.max(1, cols - 8 - size));
+			for (int r = row; r < Math.min(rows - 1, row + size); r++) {
+				for (int c = col; c < Math.min(cols - 1, col + size); c++) {
+					map.set(r, c, Tile.WALL);
+				}
+			}
+		}
+		return map;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 3) {
+			System.err.println("usage: MapFile <file> <cols> <rows> [seed]");
+			System.exit(1);
+		}
+		int cols = Integer.parseInt(args[1]);
+		int rows = Integer.parseInt(args[2]);
+		long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+
+		Path path = Paths.get(args[0]);
+		write(path, generate(cols, rows, seed));
+		System.out.printf("wrote %s: %dx%d tiles, %d chunks%n", path, cols, rows, open(path).getChunkCount());
+	}
+}
@@ -1,3 +1,5 @@
+package valorant2d;
+
 import java.awt.*;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
@@ -5,10 +7,15 @@ import java.util.ArrayList;
 
 public class MenuScreen implements MouseListener {
 
+    // Made once rather than every frame; all text is drawn from cached images (Label)
+    private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 40);
+    private static final Font BUTTON_FONT = new Font("Arial", Font.PLAIN, 24);
+
+    private final Label title = new Label(TITLE_FONT, Color.WHITE, "Main Menu");
     private final ArrayList<MenuButton> buttons = new ArrayList<>();
-    private final GamePanel gamePanel;
+    private final Component gamePanel;  // Only needs its size and mouse clicks
 
-    public MenuScreen(GamePanel gamePanel) {
+    public MenuScreen(Component gamePanel) {
         this.gamePanel = gamePanel;
 
         buttons.add(new MenuButton("Play", () -> Game.setGameState(GameState.PLAYING)));
@@ -25,9 +32,7 @@ public class MenuScreen implements MouseListener {
         g.setColor(Color.BLACK);
         g.fillRect(0, 0, width, height);
 
-        g.setColor(Color.WHITE);
-        g.setFont(new Font("Arial", Font.BOLD, 40));
-        g.drawString("Main Menu", width / 2 - 110, 100);
+        title.draw(g, width / 2 - 110, 100);
 
         int btnWidth = 200;
         int btnHeight = 40;
@@ -61,12 +66,12 @@ public class MenuScreen implements MouseListener {
 
     // ========== Inner Class ==========
     private static class MenuButton {
-        private final String label;
+        private final Label label;
         private final Runnable onClick;
         private int x, y, width, height;
 
         public MenuButton(String label, Runnable onClick) {
-            this.label = label;
+            this.label = new Label(BUTTON_FONT, Color.WHITE, label);
             this.onClick = onClick;
         }
 
@@ -84,8 +89,7 @@ public class MenuScreen implements MouseListener {
             g.setColor(Color.WHITE);
             g.drawRect(x, y, width, height);
 
-            g.setFont(new Font("Arial", Font.PLAIN, 24));
-            g.drawString(label, x + 20, y + 28);
+            label.draw(g, x + 20, y + 28);
         }
 
         public boolean isHovered(int mouseX, int mouseY) {
@@ -0,0 +1,114 @@
+package valorant2d;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+// Every histogram the game records into, plus GC and allocation tracking.
+// Histograms are created up front and the owner keeps the reference, so
+// recording is just an array increment. Can be dumped to CSV or JSON.
+public class Metrics {
+
+	// Declared first so it exists before the histograms below register themselves
+	private final List<Histogram> histograms = new ArrayList<>();
+
+	// Simulation thread
+	public final Histogram simInput = add("sim.input", "ns");
+	public final Histogram simTick = add("sim.tick", "ns");
+	public final Histogram simAlloc = add("sim.alloc", "bytes");
+	public final Histogram simBullets = add("sim.bullets", "count");
+
+	// Render thread
+	public final Histogram renderFrame = add("render.frame", "ns");
+	public final Histogram renderWorld = add("render.world", "ns");
+	public final Histogram renderEntities = add("render.entities", "ns");
+	public final Histogram renderHud = add("render.hud", "ns");
+	public final Histogram renderShow = add("render.show", "ns");
+	public final Histogram renderAlloc = add("render.alloc", "bytes");
+	public final Histogram renderTiles = add("render.tiles", "count");
+	public final Histogram renderChunks = add("render.chunks", "count");
+	public final Histogram renderBullets = add("render.bullets", "count");
+	public final Histogram renderFog = add("render.fog", "count");
+
+	// GC notification thread
+	public final Histogram gcPause = add("gc.pause", "ns");
+
+	private com.sun.management.ThreadMXBean allocationBean;
+
+	public Metrics() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean bean && bean.isThreadAllocatedMemorySupported()) {
+			bean.setThreadAllocatedMemoryEnabled(true);
+			allocationBean = bean;
+		}
+	}
+
+	private Histogram add(String name, String unit) {
+		Histogram histogram = new Histogram(name, unit);
+		histograms.add(histogram);
+		return histogram;
+	}
+
+	// Bytes allocated by the calling thread so far, or -1 if the JVM can't tell us
+	public long threadAllocatedBytes() {
+		return allocationBean != null ? allocationBean.getCurrentThreadAllocatedBytes() : -1;
+	}
+
+	// Record every GC pause the JVM reports
+	public void startGcMonitor() {
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			if (gc instanceof NotificationEmitter emitter) {
+				emitter.addNotificationListener((notification, handback) -> {
+					if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+						GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo
+								.from((CompositeData) notification.getUserData());
+						gcPause.record(info.getGcInfo().getDuration() * 1_000_000);
+					}
+				}, null, null);
+			}
+		}
+	}
+
+	public List<Histogram> getHistograms() {
+		return histograms;
+	}
+
+	public void writeCsv(Path file) throws IOException {
+		try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+			out.println("name,unit,count,min,mean,p50,p90,p99,p99.9,max");
+			for (Histogram h : histograms) {
+				out.printf(Locale.ROOT, "%s,%s,%d,%d,%.1f,%d,%d,%d,%d,%d%n", h.getName(), h.getUnit(), h.getCount(),
+						h.getMin(), h.getMean(), h.percentile(50), h.percentile(90), h.percentile(99),
+						h.percentile(99.9), h.getMax());
+			}
+		}
+	}
+
+	public void writeJson(Path file) throws IOException {
+		try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+			out.println("[");
+			for (int i = 0; i < histograms.size(); i++) {
+				Histogram h = histograms.get(i);
+				out.printf(Locale.ROOT,
+						"  {\"name\": \"%s\", \"unit\": \"%s\", \"count\": %d, \"min\": %d, \"mean\": %.1f, "
+								+ "\"p50\": %d, \"p90\": %d, \"p99\": %d, \"p99.9\": %d, \"max\": %d}%s%n",
+						h.getName(), h.getUnit(), h.getCount(), h.getMin(), h.getMean(), h.percentile(50),
+						h.percentile(90), h.percentile(99), h.percentile(99.9), h.getMax(),
+						i < histograms.size() - 1 ? "," : "");
+			}
+			out.println("]");
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package valorant2d;
+
+import java.awt.*;
+
+// Debug overlay (toggled with F3): loop rates and jitter, per-phase timings,
+// allocation rate, GC pauses and entity counts. Only drawn when turned on.
+// The text is rebuilt twice a second into cached Labels, so leaving the overlay
+// on doesn't add its own garbage to the allocation rate it is showing.
+public class MetricsOverlay {
+
+    private static final int WIDTH = 520;
+    private static final int LINE_HEIGHT = 16;
+    private static final long REFRESH_NS = 500_000_000L;
+
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 13);
+    private static final Color BACKGROUND = new Color(0, 0, 0, 180);
+
+    private Histogram[] phases;
+    private Label[] lines;  // Blank ones leave a gap
+    private long lastRefresh = 0;
+
+    // Allocation rate, worked out once a second from the histogram totals
+    private long lastRateTime = 0;
+    private long lastAllocatedBytes = 0;
+    private double allocatedMbPerSecond = 0;
+
+    public void draw(Graphics g, int screenWidth, Metrics metrics, JitterStats tickStats, JitterStats frameStats) {
+        if (phases == null) {
+            phases = new Histogram[] { metrics.simInput, metrics.simTick, metrics.renderFrame, metrics.renderWorld,
+                    metrics.renderEntities, metrics.renderHud, metrics.renderShow };
+            lines = new Label[8 + phases.length];
+            for (int i = 0; i < lines.length; i++) {
+                lines[i] = new Label(FONT, Color.GREEN);
+            }
+        }
+
+        long now = System.nanoTime();
+        if (now - lastRefresh >= REFRESH_NS) {
+            updateAllocationRate(metrics);
+            refresh(metrics, tickStats, frameStats);
+            lastRefresh = now;
+        }
+
+        int x = screenWidth - WIDTH - 10;
+        int y = 10;
+        g.setColor(BACKGROUND);
+        g.fillRect(x, y, WIDTH, (lines.length - 1) * LINE_HEIGHT + 10);
+
+        x += 8;
+        for (Label line : lines) {
+            y += LINE_HEIGHT;
+            line.draw(g, x, y);
+        }
+    }
+
+    private void refresh(Metrics metrics, JitterStats tickStats, JitterStats frameStats) {
+        int line = 0;
+        lines[line++].setText(String.format("FPS %4d  mean %6.2f ms  jitter %5.2f ms  max %6.2f ms", frameStats.getRate(),
+                frameStats.getMeanMs(), frameStats.getJitterMs(), frameStats.getMaxMs()));
+        lines[line++].setText(String.format("TPS %4d  mean %6.2f ms  jitter %5.2f ms  max %6.2f ms", tickStats.getRate(),
+                tickStats.getMeanMs(), tickStats.getJitterMs(), tickStats.getMaxMs()));
+        line++;
+
+        lines[line++].setText(String.format("%-16s %9s %9s %9s", "phase (ms)", "p50", "p99", "max"));
+        for (Histogram phase : phases) {
+            lines[line++].setText(String.format("%-16s %9.3f %9.3f %9.3f", phase.getName(), phase.percentile(50) / 1e6,
+                    phase.percentile(99) / 1e6, phase.getMax() / 1e6));
+        }
+        line++;
+
+        Histogram gc = metrics.gcPause;
+        lines[line++].setText(String.format("Alloc %7.2f MB/s   GC %d pauses, p99 %.1f ms, max %.1f ms",
+                allocatedMbPerSecond, gc.getCount(), gc.percentile(99) / 1e6, gc.getMax() / 1e6));
+        lines[line++].setText(String.format("Bullets p50 %d max %d   Tiles drawn p50 %d max %d",
+                metrics.simBullets.percentile(50), metrics.simBullets.getMax(), metrics.renderTiles.percentile(50),
+                metrics.renderTiles.getMax()));
+        lines[line].setText(String.format("Visible chunks p50 %d   Visible bullets p50 %d max %d   Fogged tiles p50 %d",
+                metrics.renderChunks.percentile(50), metrics.renderBullets.percentile(50),
+                metrics.renderBullets.getMax(), metrics.renderFog.percentile(50)));
+    }
+
+    private void updateAllocationRate(Metrics metrics) {
+        long now = System.nanoTime();
+        if (now - lastRateTime < 1_000_000_000L) {
+            return;
+        }
+        long allocated = metrics.simAlloc.getSum() + metrics.renderAlloc.getSum();
+        if (lastRateTime != 0) {
+            allocatedMbPerSecond = (allocated - lastAllocatedBytes) / 1e6 / ((now - lastRateTime) / 1e9);
+        }
+        lastAllocatedBytes = allocated;
+        lastRateTime = now;
+    }
+}
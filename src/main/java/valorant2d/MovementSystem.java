@@ -0,0 +1,76 @@
+package valorant2d;
+
+// Moves everything with a body (POSITION, VELOCITY and BODY), the way Player.move
+// does: one axis at a time, each step dropped if the box would end up in a wall,
+// so you slide along walls instead of sticking to them. Bodies with CONTROL get
+// their velocity from the movement keys held first. Part of the EntityWorld
+// prototype; players in the game move through Player.
+class MovementSystem {
+	public static final int SPEED = 3;  // Pixels per tick for controlled bodies
+	private static final int REQUIRED = EntityWorld.POSITION | EntityWorld.VELOCITY | EntityWorld.BODY;
+
+	private final CollisionMap collision;
+
+	public MovementSystem(CollisionMap collision) {
+		this.collision = collision;
+	}
+
+	public void update(EntityWorld world) {
+		for (int a = 0; a < world.getArchetypeCount(); a++) {
+			Archetype archetype = world.getArchetype(a);
+			if (!archetype.has(REQUIRED)) {
+				continue;
+			}
+			if (archetype.has(EntityWorld.CONTROL)) {
+				steer(archetype);
+			}
+			move(archetype);
+		}
+	}
+
+	private static void steer(Archetype archetype) {
+		byte[] buttons = archetype.buttons;
+		double[] dx = archetype.dx, dy = archetype.dy;
+		for (int i = 0, n = archetype.size(); i < n; i++) {
+			int held = buttons[i];
+			int vx = 0, vy = 0;
+			if ((held & NetProtocol.UP) != 0) {
+				vy -= SPEED;
+			}
+			if ((held & NetProtocol.DOWN) != 0) {
+				vy += SPEED;
+			}
+			if ((held & NetProtocol.LEFT) != 0) {
+				vx -= SPEED;
+			}
+			if ((held & NetProtocol.RIGHT) != 0) {
+				vx += SPEED;
+			}
+			dx[i] = vx;
+			dy[i] = vy;
+		}
+	}
+
+	private void move(Archetype archetype) {
+		double[] x = archetype.x, y = archetype.y, prevX = archetype.prevX, prevY = archetype.prevY;
+		double[] dx = archetype.dx, dy = archetype.dy;
+		int[] width = archetype.width, height = archetype.height;
+		for (int i = 0, n = archetype.size(); i < n; i++) {
+			prevX[i] = x[i];
+			prevY[i] = y[i];
+
+			// Check horizontal movement, then vertical from wherever that left us.
+			// Standing still on an axis can't change anything, so it isn't checked.
+			double nextX = x[i] + dx[i];
+			if (dx[i] != 0
+					&& !collision.overlapsWall((int) Math.floor(nextX), (int) Math.floor(y[i]), width[i], height[i])) {
+				x[i] = nextX;
+			}
+			double nextY = y[i] + dy[i];
+			if (dy[i] != 0
+					&& !collision.overlapsWall((int) Math.floor(x[i]), (int) Math.floor(nextY), width[i], height[i])) {
+				y[i] = nextY;
+			}
+		}
+	}
+}
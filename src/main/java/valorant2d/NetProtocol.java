@@ -0,0 +1,123 @@
+package valorant2d;
+
+import java.nio.ByteBuffer;
+
+// Wire format shared by GameServer and GameClient. Every UDP packet starts with a
+// type byte. Values that are usually small (deltas, counts) are written as varints,
+// signed ones zigzag encoded first so small negative numbers stay small too.
+//
+// Client -> server
+//   CONNECT     version
+//   INPUT       newest snapshot tick received (int), count (byte),
+//               then count inputs newest first: seq (int), buttons, switchTo, aimX (int), aimY (int)
+//   DISCONNECT
+// Server -> client
+//   WELCOME     player index, player count, ticks per second, map cols (int), map rows (int), map seed (long)
+//   SNAPSHOT    tick (int), baseline tick (int, -1 for none), newest input seq applied (int), NetSnapshot delta
+//   REJECT      server is full or speaks another version
+final class NetProtocol {
+
+	static final byte VERSION = 2;  // 2: health in snapshots
+	static final int MAX_PACKET = 1200;  // Stay well under a typical MTU
+
+	static final byte CONNECT = 1;
+	static final byte INPUT = 2;
+	static final byte DISCONNECT = 3;
+	static final byte WELCOME = 10;
+	static final byte SNAPSHOT = 11;
+	static final byte REJECT = 12;
+
+	// Each input is sent in this many packets in a row, so losing one packet loses no input
+	static final int INPUTS_PER_PACKET = 3;
+
+	// Snapshots both sides keep for delta baselines, about a second at 60 ticks per second.
+	// A client that hasn't acknowledged anything this recent gets a full snapshot.
+	static final int SNAPSHOT_HISTORY = 64;
+
+	// Clients draw other players this many ticks behind the newest snapshot (100 ms), and
+	// the server rewinds shots by the same amount when it judges them
+	static final int INTERPOLATION_TICKS = 6;
+
+	// Input buttons (also the CONTROL component's bits, see Archetype)
+	static final int UP = 1, DOWN = 2, LEFT = 4, RIGHT = 8, FIRE = 16, SPRAY = 32, RELOAD = 64;
+	private static final WeaponType[] WEAPONS = WeaponType.values();
+
+	private NetProtocol() {
+	}
+
+	static void putVarInt(ByteBuffer out, int value) {
+		while ((value & ~0x7F) != 0) {
+			out.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.put((byte) value);
+	}
+
+	static int getVarInt(ByteBuffer in) {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			byte b = in.get();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("varint too long");
+	}
+
+	static void putSignedVarInt(ByteBuffer out, int value) {
+		putVarInt(out, (value << 1) ^ (value >> 31));
+	}
+
+	static int getSignedVarInt(ByteBuffer in) {
+		int value = getVarInt(in);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	static void putInput(ByteBuffer out, int seq, PlayerInput input) {
+		out.putInt(seq);
+		out.put((byte) buttons(input));
+		out.put(weaponCode(input.switchTo));
+		out.putInt(input.aimX);
+		out.putInt(input.aimY);
+	}
+
+	// Read one input into the given PlayerInput and return its sequence number
+	static int getInput(ByteBuffer in, PlayerInput input) {
+		int seq = in.getInt();
+		setButtons(input, in.get());
+		input.switchTo = weapon(in.get());
+		input.aimX = in.getInt();
+		input.aimY = in.getInt();
+		return seq;
+	}
+
+	// Held keys and one-shot reload as a bit set (also used by replay files)
+	static int buttons(PlayerInput input) {
+		return (input.up ? UP : 0) | (input.down ? DOWN : 0) | (input.left ? LEFT : 0)
+				| (input.right ? RIGHT : 0) | (input.fire ? FIRE : 0) | (input.spray ? SPRAY : 0)
+				| (input.reload ? RELOAD : 0);
+	}
+
+	static void setButtons(PlayerInput input, int buttons) {
+		input.up = (buttons & UP) != 0;
+		input.down = (buttons & DOWN) != 0;
+		input.left = (buttons & LEFT) != 0;
+		input.right = (buttons & RIGHT) != 0;
+		input.fire = (buttons & FIRE) != 0;
+		input.spray = (buttons & SPRAY) != 0;
+		input.reload = (buttons & RELOAD) != 0;
+	}
+
+	// 0 for none, otherwise ordinal + 1
+	static byte weaponCode(WeaponType type) {
+		return (byte) (type == null ? 0 : type.ordinal() + 1);
+	}
+
+	static WeaponType weapon(int code) {
+		if (code < 0 || code > WEAPONS.length) {
+			throw new IllegalArgumentException("bad weapon " + code);
+		}
+		return code == 0 ? null : WEAPONS[code - 1];
+	}
+}
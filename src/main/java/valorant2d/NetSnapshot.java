@@ -0,0 +1,228 @@
+package valorant2d;
+
+import java.nio.ByteBuffer;
+
+// The part of the world the server sends to clients, quantized to whole pixels.
+// It goes out as a delta against a baseline snapshot the client already has:
+// each player gets a bit mask of the fields that changed followed by the changes,
+// and each bullet is written as its offset from the bullet in the same slot of the
+// baseline (or from the previous bullet for new slots, since bullets fired together
+// sit next to each other). A full snapshot is just a delta against an empty baseline.
+public class NetSnapshot {
+	static final int RELOADING = 1, SWITCHING = 2;
+
+	// Player field bits in the change mask
+	private static final int X = 1, Y = 2, WEAPON = 4, MAG = 8, RESERVE = 16, FLAGS = 32, HEALTH = 64;
+
+	private static final int MAX_BULLET_BYTES = 10;  // Two varints
+	private static final WeaponType[] WEAPONS = WeaponType.values();
+
+	int tick = -1;
+	final int playerCount;
+
+	// Per player, x/y are the centre of the player's box
+	final int[] x, y;
+	final int[] weapon;  // WeaponType ordinal
+	final int[] mag, reserve;
+	final int[] flags;
+	final int[] health;  // 0 once dead
+
+	int bulletCount;
+	final int[] bulletX, bulletY;
+
+	public NetSnapshot(int playerCount, int bulletCapacity) {
+		this.playerCount = playerCount;
+		x = new int[playerCount];
+		y = new int[playerCount];
+		weapon = new int[playerCount];
+		mag = new int[playerCount];
+		reserve = new int[playerCount];
+		flags = new int[playerCount];
+		health = new int[playerCount];
+		bulletX = new int[bulletCapacity];
+		bulletY = new int[bulletCapacity];
+	}
+
+	public void capture(int tick, Simulation simulation) {
+		this.tick = tick;
+		for (int i = 0; i < playerCount; i++) {
+			PlayerState state = simulation.getPlayerState(i);
+			Weapon current = state.getCurrentWeapon();
+			x[i] = state.getPlayer().getX();
+			y[i] = state.getPlayer().getY();
+			weapon[i] = state.getCurrentWeaponType().ordinal();
+			mag[i] = current.getBulletsInMag();
+			reserve[i] = current.getReserveAmmo();
+			flags[i] = (current.isReloading() ? RELOADING : 0) | (state.isSwitchingWeapon() ? SWITCHING : 0);
+			health[i] = state.getHealth();
+		}
+
+		BulletPool bullets = simulation.getBullets();
+		bulletCount = Math.min(bullets.size(), bulletX.length);
+		for (int i = 0; i < bulletCount; i++) {
+			bulletX[i] = (int) Math.round(bullets.getX(i));
+			bulletY[i] = (int) Math.round(bullets.getY(i));
+		}
+	}
+
+	public void copyFrom(NetSnapshot other) {
+		tick = other.tick;
+		System.arraycopy(other.x, 0, x, 0, playerCount);
+		System.arraycopy(other.y, 0, y, 0, playerCount);
+		System.arraycopy(other.weapon, 0, weapon, 0, playerCount);
+		System.arraycopy(other.mag, 0, mag, 0, playerCount);
+		System.arraycopy(other.reserve, 0, reserve, 0, playerCount);
+		System.arraycopy(other.flags, 0, flags, 0, playerCount);
+		System.arraycopy(other.health, 0, health, 0, playerCount);
+		bulletCount = other.bulletCount;
+		System.arraycopy(other.bulletX, 0, bulletX, 0, bulletCount);
+		System.arraycopy(other.bulletY, 0, bulletY, 0, bulletCount);
+	}
+
+	// Back to the empty baseline that full snapshots are encoded against
+	public void clear() {
+		tick = -1;
+		for (int i = 0; i < playerCount; i++) {
+			x[i] = y[i] = weapon[i] = mag[i] = reserve[i] = flags[i] = health[i] = 0;
+		}
+		bulletCount = 0;
+	}
+
+	// Write this snapshot as a delta against baseline. Bullets stop once the packet
+	// would go past limit; bulletCount is cut down to match, so this snapshot is
+	// exactly what the client will end up with and can be used as a baseline later.
+	public void encode(ByteBuffer out, NetSnapshot baseline, int limit) {
+		for (int i = 0; i < playerCount; i++) {
+			int mask = (x[i] != baseline.x[i] ? X : 0) | (y[i] != baseline.y[i] ? Y : 0)
+					| (weapon[i] != baseline.weapon[i] ? WEAPON : 0) | (mag[i] != baseline.mag[i] ? MAG : 0)
+					| (reserve[i] != baseline.reserve[i] ? RESERVE : 0) | (flags[i] != baseline.flags[i] ? FLAGS : 0)
+					| (health[i] != baseline.health[i] ? HEALTH : 0);
+			out.put((byte) mask);
+			if ((mask & X) != 0) {
+				NetProtocol.putSignedVarInt(out, x[i] - baseline.x[i]);
+			}
+			if ((mask & Y) != 0) {
+				NetProtocol.putSignedVarInt(out, y[i] - baseline.y[i]);
+			}
+			if ((mask & WEAPON) != 0) {
+				NetProtocol.putVarInt(out, weapon[i]);
+			}
+			if ((mask & MAG) != 0) {
+				NetProtocol.putSignedVarInt(out, mag[i] - baseline.mag[i]);
+			}
+			if ((mask & RESERVE) != 0) {
+				NetProtocol.putSignedVarInt(out, reserve[i] - baseline.reserve[i]);
+			}
+			if ((mask & FLAGS) != 0) {
+				NetProtocol.putVarInt(out, flags[i]);
+			}
+			if ((mask & HEALTH) != 0) {
+				NetProtocol.putSignedVarInt(out, health[i] - baseline.health[i]);
+			}
+		}
+
+		// Count goes first but we only know it at the end
+		int countAt = out.position();
+		out.putShort((short) 0);
+		int written = 0;
+		while (written < bulletCount && out.position() + MAX_BULLET_BYTES <= limit) {
+			NetProtocol.putSignedVarInt(out, bulletX[written] - referenceX(baseline, written));
+			NetProtocol.putSignedVarInt(out, bulletY[written] - referenceY(baseline, written));
+			written++;
+		}
+		bulletCount = written;
+		out.putShort(countAt, (short) written);
+	}
+
+	// Read a delta written by encode against the same baseline
+	public void decode(ByteBuffer in, NetSnapshot baseline) {
+		for (int i = 0; i < playerCount; i++) {
+			int mask = in.get();
+			x[i] = (mask & X) != 0 ? baseline.x[i] + NetProtocol.getSignedVarInt(in) : baseline.x[i];
+			y[i] = (mask & Y) != 0 ? baseline.y[i] + NetProtocol.getSignedVarInt(in) : baseline.y[i];
+			weapon[i] = (mask & WEAPON) != 0 ? NetProtocol.getVarInt(in) : baseline.weapon[i];
+			mag[i] = (mask & MAG) != 0 ? baseline.mag[i] + NetProtocol.getSignedVarInt(in) : baseline.mag[i];
+			reserve[i] = (mask & RESERVE) != 0 ? baseline.reserve[i] + NetProtocol.getSignedVarInt(in) : baseline.reserve[i];
+			flags[i] = (mask & FLAGS) != 0 ? NetProtocol.getVarInt(in) : baseline.flags[i];
+			health[i] = (mask & HEALTH) != 0 ? baseline.health[i] + NetProtocol.getSignedVarInt(in) : baseline.health[i];
+			if (weapon[i] < 0 || weapon[i] >= WEAPONS.length) {
+				throw new IllegalArgumentException("bad weapon " + weapon[i]);
+			}
+		}
+
+		int count = in.getShort() & 0xFFFF;
+		if (count > bulletX.length) {
+			throw new IllegalArgumentException("too many bullets " + count);
+		}
+		for (int i = 0; i < count; i++) {
+			bulletX[i] = referenceX(baseline, i) + NetProtocol.getSignedVarInt(in);
+			bulletY[i] = referenceY(baseline, i) + NetProtocol.getSignedVarInt(in);
+		}
+		bulletCount = count;
+	}
+
+	// What bullet i is encoded against: the same slot in the baseline, else the bullet before it
+	private int referenceX(NetSnapshot baseline, int i) {
+		return i < baseline.bulletCount ? baseline.bulletX[i] : i > 0 ? bulletX[i - 1] : 0;
+	}
+
+	private int referenceY(NetSnapshot baseline, int i) {
+		return i < baseline.bulletCount ? baseline.bulletY[i] : i > 0 ? bulletY[i - 1] : 0;
+	}
+
+	public int getTick() {
+		return tick;
+	}
+
+	public int getPlayerCount() {
+		return playerCount;
+	}
+
+	public int getX(int player) {
+		return x[player];
+	}
+
+	public int getY(int player) {
+		return y[player];
+	}
+
+	public WeaponType getWeapon(int player) {
+		return WEAPONS[weapon[player]];
+	}
+
+	public int getBulletsInMag(int player) {
+		return mag[player];
+	}
+
+	public int getReserveAmmo(int player) {
+		return reserve[player];
+	}
+
+	public boolean isReloading(int player) {
+		return (flags[player] & RELOADING) != 0;
+	}
+
+	public boolean isSwitchingWeapon(int player) {
+		return (flags[player] & SWITCHING) != 0;
+	}
+
+	public int getHealth(int player) {
+		return health[player];
+	}
+
+	public boolean isAlive(int player) {
+		return health[player] > 0;
+	}
+
+	public int getBulletCount() {
+		return bulletCount;
+	}
+
+	public int getBulletX(int i) {
+		return bulletX[i];
+	}
+
+	public int getBulletY(int i) {
+		return bulletY[i];
+	}
+}
@@ -0,0 +1,70 @@
+package valorant2d;
+
+import java.util.Arrays;
+
+// A path through the tile grid as a list of waypoints (row, col), start first.
+// Consecutive waypoints are on one straight or 45 degree diagonal line with
+// nothing in the way, so following a path means walking from one to the next.
+// Reused between queries: the arrays only grow.
+public class Path {
+	private int[] rows = new int[16];
+	private int[] cols = new int[16];
+	private int length = 0;
+
+	public void clear() {
+		length = 0;
+	}
+
+	public void add(int row, int col) {
+		if (length == rows.length) {
+			rows = Arrays.copyOf(rows, length * 2);
+			cols = Arrays.copyOf(cols, length * 2);
+		}
+		rows[length] = row;
+		cols[length] = col;
+		length++;
+	}
+
+	public void reverse() {
+		for (int i = 0, j = length - 1; i < j; i++, j--) {
+			int row = rows[i];
+			rows[i] = rows[j];
+			rows[j] = row;
+			int col = cols[i];
+			cols[i] = cols[j];
+			cols[j] = col;
+		}
+	}
+
+	public void copyFrom(Path other) {
+		if (rows.length < other.length) {
+			rows = new int[other.rows.length];
+			cols = new int[other.cols.length];
+		}
+		System.arraycopy(other.rows, 0, rows, 0, other.length);
+		System.arraycopy(other.cols, 0, cols, 0, other.length);
+		length = other.length;
+	}
+
+	public int size() {
+		return length;
+	}
+
+	public int getRow(int i) {
+		return rows[i];
+	}
+
+	public int getCol(int i) {
+		return cols[i];
+	}
+
+	// Length in tiles, diagonal steps counting as sqrt(2)
+	public double getTiles() {
+		double tiles = 0;
+		for (int i = 1; i < length; i++) {
+			int dr = Math.abs(rows[i] - rows[i - 1]), dc = Math.abs(cols[i] - cols[i - 1]);
+			tiles += Math.max(dr, dc) + (Math.sqrt(2) - 1) * Math.min(dr, dc);
+		}
+		return tiles;
+	}
+}
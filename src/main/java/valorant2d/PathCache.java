@@ -0,0 +1,166 @@
+package valorant2d;
+
+import java.util.Arrays;
+
+// The most recently used paths, keyed by start and goal tile. A full cache drops
+// the path used longest ago. Lookups are an open-addressed hash table of long
+// keys and the use order is a linked list in int arrays; the Path objects are
+// made up front and reused, so a lookup or an insert doesn't allocate once the
+// paths have grown to size.
+public class PathCache {
+	private static final int NONE = -1;
+
+	private final long[] tableKeys;
+	private final int[] tableEntries;  // Entry for each table slot, NONE if empty
+	private final int mask;
+
+	private final long[] keys;  // By entry
+	private final Path[] paths;
+	private final int[] newer, older;
+	private int newest = NONE, oldest = NONE;
+	private int count = 0;
+
+	private long hits, misses;
+
+	public PathCache(int capacity) {
+		int tableSize = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) << 1;
+		tableKeys = new long[tableSize];
+		tableEntries = new int[tableSize];
+		Arrays.fill(tableEntries, NONE);
+		mask = tableSize - 1;
+
+		keys = new long[capacity];
+		paths = new Path[capacity];
+		for (int i = 0; i < capacity; i++) {
+			paths[i] = new Path();
+		}
+		newer = new int[capacity];
+		older = new int[capacity];
+	}
+
+	public static long key(int startTile, int goalTile) {
+		return ((long) startTile << 32) | (goalTile & 0xFFFFFFFFL);
+	}
+
+	// Copy the cached path into out and mark it as just used. Returns false on a miss.
+	public boolean get(long key, Path out) {
+		int slot = find(key);
+		if (tableEntries[slot] == NONE) {
+			misses++;
+			return false;
+		}
+		int entry = tableEntries[slot];
+		unlink(entry);
+		linkNewest(entry);
+		out.copyFrom(paths[entry]);
+		hits++;
+		return true;
+	}
+
+	public void put(long key, Path path) {
+		if (paths.length == 0) {
+			return;
+		}
+		int slot = find(key);
+		int entry = tableEntries[slot];
+		if (entry != NONE) {
+			unlink(entry);
+		} else {
+			if (count == paths.length) {
+				// Full, reuse the least recently used entry
+				entry = oldest;
+				unlink(entry);
+				remove(keys[entry]);
+				slot = find(key);
+			} else {
+				entry = count++;
+			}
+			keys[entry] = key;
+			tableKeys[slot] = key;
+			tableEntries[slot] = entry;
+		}
+		paths[entry].copyFrom(path);
+		linkNewest(entry);
+	}
+
+	// Forget everything, e.g. after the map changed
+	public void clear() {
+		Arrays.fill(tableEntries, NONE);
+		newest = oldest = NONE;
+		count = 0;
+	}
+
+	// Slot holding the key, or the empty slot where it would go
+	private int find(long key) {
+		int slot = hash(key) & mask;
+		while (tableEntries[slot] != NONE && tableKeys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	// Take a key out of the table, shifting later entries of its run back so lookups still find them
+	private void remove(long key) {
+		int slot = find(key);
+		if (tableEntries[slot] == NONE) {
+			return;
+		}
+		int hole = slot;
+		int next = (hole + 1) & mask;
+		while (tableEntries[next] != NONE) {
+			int home = hash(tableKeys[next]) & mask;
+			// Move it into the hole unless its home is between the hole and where it is now
+			boolean between = hole <= next ? (home > hole && home <= next) : (home > hole || home <= next);
+			if (!between) {
+				tableKeys[hole] = tableKeys[next];
+				tableEntries[hole] = tableEntries[next];
+				hole = next;
+			}
+			next = (next + 1) & mask;
+		}
+		tableEntries[hole] = NONE;
+	}
+
+	private void unlink(int entry) {
+		if (newer[entry] != NONE) {
+			older[newer[entry]] = older[entry];
+		} else if (newest == entry) {
+			newest = older[entry];
+		}
+		if (older[entry] != NONE) {
+			newer[older[entry]] = newer[entry];
+		} else if (oldest == entry) {
+			oldest = newer[entry];
+		}
+		newer[entry] = older[entry] = NONE;
+	}
+
+	private void linkNewest(int entry) {
+		newer[entry] = NONE;
+		older[entry] = newest;
+		if (newest != NONE) {
+			newer[newest] = entry;
+		}
+		newest = entry;
+		if (oldest == NONE) {
+			oldest = entry;
+		}
+	}
+
+	public int size() {
+		return count;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+}
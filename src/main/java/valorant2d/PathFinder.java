@@ -0,0 +1,459 @@
+package valorant2d;
+
+import java.util.Arrays;
+
+// A* over the tile grid with jump point search. Moves are the 8 neighbours, and a
+// diagonal step is only allowed when both tiles beside it are open, since the
+// player's box can't squeeze past a wall corner. Instead of adding every
+// neighbour to the open set, JPS runs along straight and diagonal lines until
+// something interesting happens (the goal, or a wall ending next to the line),
+// so open areas cost a few heap operations instead of one per tile. Straight
+// lines are checked a 64-tile word at a time (block-based JPS).
+//
+// All search state lives in int arrays indexed by tile, reset between searches by
+// bumping a search number, and the open set is a binary heap of tile indices,
+// so a search allocates nothing. Walls are copied out of the map with a border
+// of wall round the edge; call setWall when a tile changes. Not thread safe, use
+// one per thread.
+public class PathFinder {
+	public static final int SEARCHING = 0, FOUND = 1, NO_PATH = 2;
+
+	private static final int STRAIGHT = 100, DIAGONAL = 141;  // Step costs
+	private static final int CHECK_EVERY = 4;  // Nodes expanded between looks at the clock
+
+	private final int rows, cols;
+	private final int stride;  // Padded row length
+	private final boolean[] open;  // Walkable tiles, padded by one tile of wall
+
+	// The same as bits, a lane per padded row and per padded column, for scanning lines
+	private final long[] rowBits, colBits;
+	private final int rowWords, colWords;
+
+	// Search state by padded tile index; only valid where seen == search
+	private final int[] seen;
+	private final int[] closed;
+	private final int[] g;
+	private final int[] f;
+	private final int[] parent;
+	private final int[] heapIndex;
+	private int search = 0;
+
+	private final int[] heap;
+	private int heapSize;
+
+	private int goal, goalRow, goalCol;
+
+	// Neighbours to try from the node being expanded
+	private final int[] neighbourDx = new int[8], neighbourDy = new int[8];
+	private int neighbourCount;
+
+	private long expanded;  // Nodes taken off the open set, over all searches
+
+	public PathFinder(TileMap map) {
+		this.rows = map.getRows();
+		this.cols = map.getCols();
+		this.stride = cols + 2;
+		int size = stride * (rows + 2);
+		this.open = new boolean[size];
+		this.rowWords = (stride + 63) >>> 6;
+		this.colWords = (rows + 2 + 63) >>> 6;
+		this.rowBits = new long[(rows + 2) * rowWords];
+		this.colBits = new long[stride * colWords];
+		for (int row = 0; row < rows; row++) {
+			for (int col = 0; col < cols; col++) {
+				setWall(row, col, map.get(row, col) == Tile.WALL);
+			}
+		}
+		this.seen = new int[size];
+		this.closed = new int[size];
+		this.g = new int[size];
+		this.f = new int[size];
+		this.parent = new int[size];
+		this.heapIndex = new int[size];
+		this.heap = new int[size];
+	}
+
+	public void setWall(int row, int col, boolean wall) {
+		open[index(row, col)] = !wall;
+		int x = col + 1, y = row + 1;
+		if (wall) {
+			rowBits[y * rowWords + (x >>> 6)] &= ~(1L << x);
+			colBits[x * colWords + (y >>> 6)] &= ~(1L << y);
+		} else {
+			rowBits[y * rowWords + (x >>> 6)] |= 1L << x;
+			colBits[x * colWords + (y >>> 6)] |= 1L << y;
+		}
+	}
+
+	public boolean isWalkable(int row, int col) {
+		return row >= 0 && row < rows && col >= 0 && col < cols && open[index(row, col)];
+	}
+
+	private int index(int row, int col) {
+		return (row + 1) * stride + col + 1;
+	}
+
+	private boolean walkable(int x, int y) {
+		return open[(y + 1) * stride + x + 1];
+	}
+
+	// Find a path between two tiles and put its waypoints in out. Returns false
+	// (and leaves out empty) if either end is a wall or there is no way through.
+	public boolean find(int startRow, int startCol, int goalRow, int goalCol, Path out) {
+		start(startRow, startCol, goalRow, goalCol);
+		int status;
+		do {
+			status = resume(System.nanoTime() + 1_000_000_000L, out);
+		} while (status == SEARCHING);
+		return status == FOUND;
+	}
+
+	// Set up a search to be run by resume(), possibly over several calls
+	public void start(int startRow, int startCol, int goalRow, int goalCol) {
+		nextSearch();
+		if (!isWalkable(startRow, startCol) || !isWalkable(goalRow, goalCol)) {
+			return;  // Nothing on the open set, so resume says NO_PATH
+		}
+		this.goalRow = goalRow;
+		this.goalCol = goalCol;
+		this.goal = index(goalRow, goalCol);
+
+		int start = index(startRow, startCol);
+		seen[start] = search;
+		g[start] = 0;
+		parent[start] = -1;
+		push(start, heuristic(startCol, startRow));
+	}
+
+	// Carry on with the search started last until it's done or System.nanoTime()
+	// passes the deadline. Returns SEARCHING if it ran out of time (call again to
+	// continue), otherwise FOUND with the path in out or NO_PATH with out empty.
+	public int resume(long deadlineNanos, Path out) {
+		out.clear();
+		int sinceCheck = 0;
+		while (heapSize > 0) {
+			if (++sinceCheck == CHECK_EVERY) {
+				sinceCheck = 0;
+				if (System.nanoTime() - deadlineNanos >= 0) {
+					return SEARCHING;
+				}
+			}
+			int node = pop();
+			closed[node] = search;
+			expanded++;
+			if (node == goal) {
+				// Walk the parents back to the start
+				for (int n = node; n != -1; n = parent[n]) {
+					out.add(n / stride - 1, n % stride - 1);
+				}
+				out.reverse();
+				heapSize = 0;
+				return FOUND;
+			}
+			expand(node);
+		}
+		return NO_PATH;
+	}
+
+	private void nextSearch() {
+		heapSize = 0;
+		if (++search == Integer.MAX_VALUE) {
+			// Stale marks could look current after wrapping, start them over
+			Arrays.fill(seen, 0);
+			Arrays.fill(closed, 0);
+			search = 1;
+		}
+	}
+
+	// Octile distance to the goal
+	private int heuristic(int x, int y) {
+		return distance(Math.abs(x - goalCol), Math.abs(y - goalRow));
+	}
+
+	private static int distance(int dx, int dy) {
+		return dx > dy ? STRAIGHT * dx + (DIAGONAL - STRAIGHT) * dy : STRAIGHT * dy + (DIAGONAL - STRAIGHT) * dx;
+	}
+
+	private void expand(int node) {
+		int x = node % stride - 1, y = node / stride - 1;
+		findNeighbours(node, x, y);
+		for (int i = 0; i < neighbourCount; i++) {
+			int jumpPoint = jump(x + neighbourDx[i], y + neighbourDy[i], neighbourDx[i], neighbourDy[i]);
+			if (jumpPoint < 0 || closed[jumpPoint] == search) {
+				continue;
+			}
+			int jx = jumpPoint % stride - 1, jy = jumpPoint / stride - 1;
+			int cost = g[node] + distance(Math.abs(jx - x), Math.abs(jy - y));
+			if (seen[jumpPoint] != search) {
+				seen[jumpPoint] = search;
+				g[jumpPoint] = cost;
+				parent[jumpPoint] = node;
+				push(jumpPoint, cost + heuristic(jx, jy));
+			} else if (cost < g[jumpPoint]) {
+				g[jumpPoint] = cost;
+				parent[jumpPoint] = node;
+				decrease(jumpPoint, cost + heuristic(jx, jy));
+			}
+		}
+	}
+
+	// The directions worth searching from a node, given the direction we came in from
+	private void findNeighbours(int node, int x, int y) {
+		neighbourCount = 0;
+		int from = parent[node];
+		if (from == -1) {
+			// The start: everything we can step to
+			for (int dy = -1; dy <= 1; dy++) {
+				for (int dx = -1; dx <= 1; dx++) {
+					if ((dx != 0 || dy != 0) && canStep(x, y, dx, dy)) {
+						addNeighbour(dx, dy);
+					}
+				}
+			}
+			return;
+		}
+
+		int dx = Integer.signum(x - (from % stride - 1));
+		int dy = Integer.signum(y - (from / stride - 1));
+		if (dx != 0 && dy != 0) {
+			boolean vertical = walkable(x, y + dy), horizontal = walkable(x + dx, y);
+			if (vertical) {
+				addNeighbour(0, dy);
+			}
+			if (horizontal) {
+				addNeighbour(dx, 0);
+			}
+			if (vertical && horizontal) {
+				addNeighbour(dx, dy);
+			}
+		} else if (dx != 0) {
+			boolean ahead = walkable(x + dx, y), below = walkable(x, y + 1), above = walkable(x, y - 1);
+			if (ahead) {
+				addNeighbour(dx, 0);
+				if (below) {
+					addNeighbour(dx, 1);
+				}
+				if (above) {
+					addNeighbour(dx, -1);
+				}
+			}
+			if (below) {
+				addNeighbour(0, 1);
+			}
+			if (above) {
+				addNeighbour(0, -1);
+			}
+		} else {
+			boolean ahead = walkable(x, y + dy), right = walkable(x + 1, y), left = walkable(x - 1, y);
+			if (ahead) {
+				addNeighbour(0, dy);
+				if (right) {
+					addNeighbour(1, dy);
+				}
+				if (left) {
+					addNeighbour(-1, dy);
+				}
+			}
+			if (right) {
+				addNeighbour(1, 0);
+			}
+			if (left) {
+				addNeighbour(-1, 0);
+			}
+		}
+	}
+
+	private boolean canStep(int x, int y, int dx, int dy) {
+		if (!walkable(x + dx, y + dy)) {
+			return false;
+		}
+		return dx == 0 || dy == 0 || (walkable(x + dx, y) && walkable(x, y + dy));
+	}
+
+	private void addNeighbour(int dx, int dy) {
+		neighbourDx[neighbourCount] = dx;
+		neighbourDy[neighbourCount] = dy;
+		neighbourCount++;
+	}
+
+	// Run from (x, y) in direction (dx, dy) and return the first jump point, or -1
+	// if the line runs into a wall first
+	private int jump(int x, int y, int dx, int dy) {
+		if (dy == 0) {
+			return jumpHorizontal(x, y, dx);
+		}
+		if (dx == 0) {
+			return jumpVertical(x, y, dy);
+		}
+		while (true) {
+			if (!walkable(x, y)) {
+				return -1;
+			}
+			int node = (y + 1) * stride + x + 1;
+			if (node == goal) {
+				return node;
+			}
+			// A diagonal stops where one of its straight lines finds something
+			if (jumpHorizontal(x + dx, y, dx) >= 0 || jumpVertical(x, y + dy, dy) >= 0) {
+				return node;
+			}
+			if (!walkable(x + dx, y) || !walkable(x, y + dy)) {
+				return -1;  // Can't cut the corner ahead
+			}
+			x += dx;
+			y += dy;
+		}
+	}
+
+	// A straight line stops at the goal, at a wall (no jump point), or where a wall
+	// beside it ends, since that opens a new way round the wall. The lines are
+	// scanned 64 tiles at a time in the row (or column) bitsets.
+	private int jumpHorizontal(int x, int y, int dx) {
+		int stop = dx > 0 ? firstEventAfter(rowBits, rowWords, y + 1, x + 1)
+				: firstEventBefore(rowBits, rowWords, y + 1, x + 1);
+		int stopCol = stop - 1;
+		if (y == goalRow && (dx > 0 ? goalCol >= x && goalCol <= stopCol : goalCol <= x && goalCol >= stopCol)) {
+			return goal;
+		}
+		int node = (y + 1) * stride + stop;
+		return open[node] ? node : -1;
+	}
+
+	private int jumpVertical(int x, int y, int dy) {
+		int stop = dy > 0 ? firstEventAfter(colBits, colWords, x + 1, y + 1)
+				: firstEventBefore(colBits, colWords, x + 1, y + 1);
+		int stopRow = stop - 1;
+		if (x == goalCol && (dy > 0 ? goalRow >= y && goalRow <= stopRow : goalRow <= y && goalRow >= stopRow)) {
+			return goal;
+		}
+		int node = stop * stride + x + 1;
+		return open[node] ? node : -1;
+	}
+
+	// First position at or after from along a lane (padded row or column) that is a
+	// wall, or open with the tile before it walled off in a neighbouring lane. The
+	// padding wall guarantees there is one.
+	private static int firstEventAfter(long[] bits, int words, int lane, int from) {
+		int mid = lane * words, before = mid - words, after = mid + words;
+		int k = from >>> 6;
+		long carryBefore = k > 0 ? bits[before + k - 1] >>> 63 : 0;
+		long carryAfter = k > 0 ? bits[after + k - 1] >>> 63 : 0;
+		long mask = -1L << from;
+		while (true) {
+			long a = bits[before + k], b = bits[after + k];
+			long events = ~bits[mid + k] | (a & ~((a << 1) | carryBefore)) | (b & ~((b << 1) | carryAfter));
+			events &= mask;
+			if (events != 0) {
+				return (k << 6) + Long.numberOfTrailingZeros(events);
+			}
+			carryBefore = a >>> 63;
+			carryAfter = b >>> 63;
+			mask = -1L;
+			k++;
+		}
+	}
+
+	// The same going the other way: the tile before is the one after in lane order
+	private static int firstEventBefore(long[] bits, int words, int lane, int from) {
+		int mid = lane * words, before = mid - words, after = mid + words;
+		int k = from >>> 6;
+		long carryBefore = k + 1 < words ? bits[before + k + 1] << 63 : 0;
+		long carryAfter = k + 1 < words ? bits[after + k + 1] << 63 : 0;
+		long mask = -1L >>> (63 - (from & 63));
+		while (true) {
+			long a = bits[before + k], b = bits[after + k];
+			long events = ~bits[mid + k] | (a & ~((a >>> 1) | carryBefore)) | (b & ~((b >>> 1) | carryAfter));
+			events &= mask;
+			if (events != 0) {
+				return (k << 6) + 63 - Long.numberOfLeadingZeros(events);
+			}
+			carryBefore = a << 63;
+			carryAfter = b << 63;
+			mask = -1L;
+			k--;
+		}
+	}
+
+	// Binary min-heap on f, with each node's heap slot kept for decrease()
+
+	private void push(int node, int score) {
+		f[node] = score;
+		int i = heapSize++;
+		heap[i] = node;
+		heapIndex[node] = i;
+		siftUp(i);
+	}
+
+	private void decrease(int node, int score) {
+		f[node] = score;
+		siftUp(heapIndex[node]);
+	}
+
+	private int pop() {
+		int top = heap[0];
+		int last = heap[--heapSize];
+		if (heapSize > 0) {
+			heap[0] = last;
+			heapIndex[last] = 0;
+			siftDown(0);
+		}
+		return top;
+	}
+
+	private void siftUp(int i) {
+		int node = heap[i];
+		int score = f[node];
+		while (i > 0) {
+			int up = (i - 1) >> 1;
+			int other = heap[up];
+			if (f[other] <= score) {
+				break;
+			}
+			heap[i] = other;
+			heapIndex[other] = i;
+			i = up;
+		}
+		heap[i] = node;
+		heapIndex[node] = i;
+	}
+
+	private void siftDown(int i) {
+		int node = heap[i];
+		int score = f[node];
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= heapSize) {
+				break;
+			}
+			if (child + 1 < heapSize && f[heap[child + 1]] < f[heap[child]]) {
+				child++;
+			}
+			int other = heap[child];
+			if (f[other] >= score) {
+				break;
+			}
+			heap[i] = other;
+			heapIndex[other] = i;
+			i = child;
+		}
+		heap[i] = node;
+		heapIndex[node] = i;
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public int getCols() {
+		return cols;
+	}
+
+	public long getExpanded() {
+		return expanded;
+	}
+
+	// Bytes of search state and walls, for sizing big maps
+	public long getMemoryBytes() {
+		return (long) open.length * (1 + 7 * Integer.BYTES) + (long) (rowBits.length + colBits.length) * Long.BYTES;
+	}
+}
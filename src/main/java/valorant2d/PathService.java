@@ -0,0 +1,296 @@
+package valorant2d;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Paths for bots. A bot asks for a path with request() and picks it up with
+// getPath() once getStatus() says it's there. Requests that hit the cache of
+// recent paths (PathCache) are answered on the spot; the rest wait in a queue
+// that process() works through once per tick for at most a time budget, so a
+// tick where every bot wants a new path is spread over the next few ticks
+// instead of turning into a frame drop. A search that doesn't fit in what's left
+// of the budget is paused and carries on next tick. A bot asking again while
+// it's still waiting just updates its request.
+//
+// Runs on the simulation thread. Call setWall alongside Simulation.setTile so
+// the walls and cached paths stay right.
+//
+// Load test: bots walking between sites on a generated map, with per-tick times.
+//
+//   java valorant2d.PathService [cols] [rows] [bots] [seconds] [budgetMs]
+public class PathService {
+	public static final int NONE = 0, PENDING = 1, FOUND = 2, NO_PATH = 3;
+
+	private final PathFinder finder;
+	private final PathCache cache;
+	private final int cols;
+
+	// By bot
+	private final Path[] paths;
+	private final byte[] status;
+	private final int[] startTile, goalTile;
+	private final boolean[] queued;  // In the queue or being searched for
+
+	// FIFO of bots waiting for a search
+	private final int[] queue;
+	private int queueHead = 0, queueSize = 0;
+
+	// The search in progress, if one ran out of budget
+	private int searchingBot = -1;
+	private long searchingKey;
+	private final Path found = new Path();
+
+	private long searches;
+	private long searchNanos;
+
+	public PathService(TileMap map, int bots, int cacheSize) {
+		this.finder = new PathFinder(map);
+		this.cache = new PathCache(cacheSize);
+		this.cols = map.getCols();
+		this.paths = new Path[bots];
+		for (int i = 0; i < bots; i++) {
+			paths[i] = new Path();
+		}
+		this.status = new byte[bots];
+		this.startTile = new int[bots];
+		this.goalTile = new int[bots];
+		this.queued = new boolean[bots];
+		this.queue = new int[bots];
+	}
+
+	// Ask for a path for this bot. Returns its status: FOUND or NO_PATH if the
+	// answer was cached, PENDING if it has to wait for process().
+	public int request(int bot, int startRow, int startCol, int goalRow, int goalCol) {
+		int start = startRow * cols + startCol, goal = goalRow * cols + goalCol;
+		startTile[bot] = start;
+		goalTile[bot] = goal;
+		if (cache.get(PathCache.key(start, goal), paths[bot])) {
+			return finish(bot);
+		}
+		status[bot] = PENDING;
+		if (!queued[bot]) {
+			enqueue(bot);
+		}
+		return PENDING;
+	}
+
+	private void enqueue(int bot) {
+		queued[bot] = true;
+		queue[(queueHead + queueSize) % queue.length] = bot;
+		queueSize++;
+	}
+
+	// Search for queued paths until the budget is used up. Returns how many searches finished.
+	public int process(long budgetNanos) {
+		long start = System.nanoTime();
+		long deadline = start + budgetNanos;
+		int done = 0;
+		while (searchingBot >= 0 || queueSize > 0) {
+			if (searchingBot < 0 && !startNext()) {
+				continue;
+			}
+			if (finder.resume(deadline, found) == PathFinder.SEARCHING) {
+				break;  // Out of time, pick it up next tick
+			}
+			cache.put(searchingKey, found);
+			searches++;
+			done++;
+
+			int bot = searchingBot;
+			searchingBot = -1;
+			queued[bot] = false;
+			if (status[bot] == PENDING) {
+				if (key(bot) == searchingKey) {
+					paths[bot].copyFrom(found);
+					finish(bot);
+				} else {
+					enqueue(bot);  // Asked for another path while we were searching
+				}
+			}
+			if (System.nanoTime() - deadline >= 0) {
+				break;
+			}
+		}
+		searchNanos += System.nanoTime() - start;
+		return done;
+	}
+
+	// Take the next bot off the queue and start its search. Returns false if it
+	// needed no search after all.
+	private boolean startNext() {
+		int bot = queue[queueHead];
+		queueHead = (queueHead + 1) % queue.length;
+		queueSize--;
+		if (status[bot] != PENDING) {
+			queued[bot] = false;  // Answered from the cache since it was queued
+			return false;
+		}
+		long key = key(bot);
+		// Another bot may have had the same path found since this one was queued
+		if (cache.get(key, paths[bot])) {
+			queued[bot] = false;
+			finish(bot);
+			return false;
+		}
+		searchingBot = bot;
+		searchingKey = key;
+		int start = startTile[bot], goal = goalTile[bot];
+		finder.start(start / cols, start % cols, goal / cols, goal % cols);
+		return true;
+	}
+
+	private long key(int bot) {
+		return PathCache.key(startTile[bot], goalTile[bot]);
+	}
+
+	// An empty path means there is no way through (and is cached like any other)
+	private int finish(int bot) {
+		status[bot] = (byte) (paths[bot].size() > 0 ? FOUND : NO_PATH);
+		return status[bot];
+	}
+
+	public void setWall(int row, int col, boolean wall) {
+		finder.setWall(row, col, wall);
+		cache.clear();
+		if (searchingBot >= 0) {
+			// Its search was on the old walls, start it over
+			int start = startTile[searchingBot], goal = goalTile[searchingBot];
+			searchingKey = key(searchingBot);
+			finder.start(start / cols, start % cols, goal / cols, goal % cols);
+		}
+	}
+
+	public int getStatus(int bot) {
+		return status[bot];
+	}
+
+	public Path getPath(int bot) {
+		return paths[bot];
+	}
+
+	public int getQueued() {
+		return queueSize;
+	}
+
+	public long getSearches() {
+		return searches;
+	}
+
+	public long getSearchNanos() {
+		return searchNanos;
+	}
+
+	public PathFinder getFinder() {
+		return finder;
+	}
+
+	public PathCache getCache() {
+		return cache;
+	}
+
+	public static void main(String[] args) {
+		int cols = args.length > 0 ? Integer.parseInt(args[0]) : 1024;
+		int rows = args.length > 1 ? Integer.parseInt(args[1]) : 1024;
+		int bots = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+		int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 60;
+		long budget = (long) ((args.length > 4 ? Double.parseDouble(args[4]) : 2) * 1_000_000);
+		int ticksPerSecond = GameServer.TICKS_PER_SECOND;
+		int ticksPerTile = 8;  // A player crosses a 40px tile in about 8 ticks
+		int replanTicks = 2 * ticksPerSecond;  // Bots re-plan this often on the way, like chasing a moving target
+
+		TileMap map = MapFile.generate(cols, rows, 1);
+		long setupStart = System.nanoTime();
+		PathService service = new PathService(map, bots, 4096);
+		double setupMs = (System.nanoTime() - setupStart) / 1e6;
+		PathFinder finder = service.getFinder();
+		Random random = new Random(7);
+
+		// Bots start at a few spawn tiles and walk between a handful of sites
+		int[] sites = new int[12];
+		for (int i = 0; i < sites.length; i++) {
+			sites[i] = randomOpenTile(finder, random);
+		}
+		int[] tile = new int[bots], site = new int[bots], waypoint = new int[bots];
+		int[] nextMove = new int[bots], nextPlan = new int[bots];
+		for (int bot = 0; bot < bots; bot++) {
+			tile[bot] = sites[bot % 4];
+			site[bot] = 4 + random.nextInt(sites.length - 4);
+			nextPlan[bot] = bot % replanTicks;  // Spread the re-plans over the ticks
+		}
+
+		Histogram tickTimes = new Histogram("path.tick", "ns");
+		int[] waitTicks = new int[bots];  // Tick each bot's pending request was made, -1 if none
+		Arrays.fill(waitTicks, -1);
+		Histogram wait = new Histogram("path.wait", "ticks");
+		int ticks = seconds * ticksPerSecond;
+		int arrivals = 0;
+		long start = System.nanoTime();
+		for (int tick = 0; tick < ticks; tick++) {
+			long tickStart = System.nanoTime();
+			for (int bot = 0; bot < bots; bot++) {
+				int here = tile[bot];
+				if (here == sites[site[bot]]) {
+					// Arrived, off to another site
+					arrivals++;
+					site[bot] = random.nextInt(sites.length);
+					nextPlan[bot] = tick;
+				}
+				if (tick >= nextPlan[bot] && service.getStatus(bot) != PENDING) {
+					int goal = sites[site[bot]];
+					if (service.request(bot, here / cols, here % cols, goal / cols, goal % cols) == PENDING) {
+						waitTicks[bot] = tick;
+					} else {
+						wait.record(0);
+					}
+					waypoint[bot] = 1;
+					nextPlan[bot] = tick + replanTicks;
+				}
+			}
+			service.process(budget);
+			for (int bot = 0; bot < bots; bot++) {
+				if (waitTicks[bot] >= 0 && service.getStatus(bot) != PENDING) {
+					wait.record(tick - waitTicks[bot]);
+					waitTicks[bot] = -1;
+				}
+				// Step a tile towards the next waypoint now and then
+				Path path = service.getPath(bot);
+				if (service.getStatus(bot) != FOUND || tick < nextMove[bot] || waypoint[bot] >= path.size()) {
+					continue;
+				}
+				int row = tile[bot] / cols, col = tile[bot] % cols;
+				row += Integer.signum(path.getRow(waypoint[bot]) - row);
+				col += Integer.signum(path.getCol(waypoint[bot]) - col);
+				tile[bot] = row * cols + col;
+				if (row == path.getRow(waypoint[bot]) && col == path.getCol(waypoint[bot])) {
+					waypoint[bot]++;
+				}
+				nextMove[bot] = tick + ticksPerTile;
+			}
+			tickTimes.record(System.nanoTime() - tickStart);
+		}
+		double elapsed = (System.nanoTime() - start) / 1e9;
+
+		PathCache cache = service.getCache();
+		long lookups = cache.getHits() + cache.getMisses();
+		System.out.printf("%dx%d map (finder set up in %.1f ms, %.1f MB), %d bots, %d s at %d ticks/s, %.1f ms budget%n",
+				cols, rows, setupMs, finder.getMemoryBytes() / 1e6, bots, seconds, ticksPerSecond, budget / 1e6);
+		System.out.printf("ran in %.2f s: %d searches (%.1f per tick, %.1f us each, %.0f nodes expanded each), %d arrivals%n",
+				elapsed, service.getSearches(), (double) service.getSearches() / ticks,
+				service.getSearchNanos() / 1e3 / Math.max(1, service.getSearches()),
+				(double) finder.getExpanded() / Math.max(1, service.getSearches()), arrivals);
+		System.out.printf("cache: %.1f%% of %d lookups hit%n", 100.0 * cache.getHits() / Math.max(1, lookups), lookups);
+		System.out.printf("tick (all bots + searches): p50 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+				tickTimes.percentile(50) / 1e6, tickTimes.percentile(99) / 1e6, tickTimes.getMax() / 1e6);
+		System.out.printf("wait for a path: p50 %d ticks, p99 %d ticks, max %d ticks%n", wait.percentile(50),
+				wait.percentile(99), wait.getMax());
+	}
+
+	private static int randomOpenTile(PathFinder finder, Random random) {
+		while (true) {
+			int row = random.nextInt(finder.getRows()), col = random.nextInt(finder.getCols());
+			if (finder.isWalkable(row, col)) {
+				return row * finder.getCols() + col;
+			}
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package valorant2d;
+
+import java.awt.*;
+import java.nio.ByteBuffer;
+
+public class Player {
+	int x;
+	private int y;
+	private final int SIZE = 40;
+	private final int SPEED = 3;
+	private Rectangle bounds;
+	private CollisionMap collision; // <-- wall lookups go through here
+	private int lastX, lastY;
+
+
+	public Player(int x, int y, CollisionMap collision) {
+		this.x = x;
+		this.y = y;
+		this.collision = collision;
+		this.lastX = x;
+		this.lastY = y;
+		bounds = new Rectangle(x, y, SIZE, SIZE);
+	}
+
+	public void move(boolean up, boolean down, boolean left, boolean right) {
+	    int dx = 0, dy = 0;
+	    if (up)
+	        dy -= SPEED;
+	    if (down)
+	        dy += SPEED;
+	    if (left)
+	        dx -= SPEED;
+	    if (right)
+	        dx += SPEED;
+
+	    // Store the previous position
+	    lastX = x;
+	    lastY = y;
+
+	    // Check horizontal movement
+	    if (!collidesWithWall(x + dx, y)) {
+	        x += dx;
+	    }
+
+	    // Check vertical movement
+	    if (!collidesWithWall(x, y + dy)) {
+	        y += dy;
+	    }
+
+	    bounds.setLocation(x, y);
+	}
+
+	
+	// Copy position from another player (used for render snapshots)
+	public void copyFrom(Player other) {
+		x = other.x;
+		y = other.y;
+		lastX = other.lastX;
+		lastY = other.lastY;
+	}
+
+	// Put the player somewhere without moving through the world (e.g. where the server says it is)
+	public void setPosition(int x, int y) {
+		this.x = x;
+		this.y = y;
+		lastX = x;
+		lastY = y;
+		bounds.setLocation(x, y);
+	}
+
+	// Save and restore everything move() depends on (replay keyframes)
+	void writeState(ByteBuffer out) {
+		out.putInt(x).putInt(y).putInt(lastX).putInt(lastY);
+	}
+
+	void readState(ByteBuffer in) {
+		x = in.getInt();
+		y = in.getInt();
+		lastX = in.getInt();
+		lastY = in.getInt();
+		bounds.setLocation(x, y);
+	}
+
+	public boolean isMoving() {
+	    return x != lastX || y != lastY;
+	}
+
+
+	private boolean collidesWithWall(int nextX, int nextY) {
+		// Only the tiles under the player's box are checked
+		return collision.overlapsWall(nextX, nextY, SIZE, SIZE);
+	}
+
+	// Top-left corner where the player is drawn this frame, between the last and
+	// current tick position so movement looks smooth at any frame rate
+	public int getDrawX(float alpha) {
+		return Math.round(lastX + (x - lastX) * alpha);
+	}
+
+	public int getDrawY(float alpha) {
+		return Math.round(lastY + (y - lastY) * alpha);
+	}
+
+	public int getSize() {
+		return SIZE;
+	}
+
+	public int getX() {
+		return x + SIZE / 2;
+	}
+
+	public int getY() {
+		return y + SIZE / 2;
+	}
+
+	// Empty tick method to prevent errors
+	public void tick(boolean up, boolean down, boolean left, boolean right) {
+		move(up, down, left, right);
+	}
+}
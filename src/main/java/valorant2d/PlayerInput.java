@@ -0,0 +1,50 @@
+package valorant2d;
+
+import java.nio.ByteBuffer;
+
+// What one player is asking for this tick. Filled from the keyboard and mouse
+// in the game, or by a bot when running headless.
+public class PlayerInput {
+	boolean up, down, left, right;  // Movement keys held
+	int aimX, aimY;  // Where the player is aiming, in world pixels
+	boolean fire;  // Primary fire held (mouse 1)
+	boolean spray;  // Spray held (mouse 3, Classic)
+
+	// One-shot commands, cleared once the simulation has handled them
+	boolean reload;
+	WeaponType switchTo;  // null when not switching
+
+	public void copyFrom(PlayerInput other) {
+		up = other.up;
+		down = other.down;
+		left = other.left;
+		right = other.right;
+		aimX = other.aimX;
+		aimY = other.aimY;
+		fire = other.fire;
+		spray = other.spray;
+		reload = other.reload;
+		switchTo = other.switchTo;
+	}
+
+	// Same layout as an input on the wire, without the sequence number
+	void writeState(ByteBuffer out) {
+		out.put((byte) NetProtocol.buttons(this));
+		out.put(NetProtocol.weaponCode(switchTo));
+		out.putInt(aimX).putInt(aimY);
+	}
+
+	void readState(ByteBuffer in) {
+		NetProtocol.setButtons(this, in.get());
+		switchTo = NetProtocol.weapon(in.get());
+		aimX = in.getInt();
+		aimY = in.getInt();
+	}
+
+	public void clear() {
+		up = down = left = right = false;
+		fire = spray = false;
+		reload = false;
+		switchTo = null;
+	}
+}
@@ -0,0 +1,104 @@
+package valorant2d;
+
+// Client-side prediction for the local player. Each input moves a local copy of the
+// player straight away and is kept in a ring buffer until the server says it has run it.
+// When a snapshot arrives we compare where we predicted the player would be after that
+// input with where the server put it; if they differ, the player goes where the server
+// says and the inputs the server hasn't run yet are replayed on top.
+// Player.move only depends on the position, the input and the map, so replays come out
+// exactly like the server's and corrections only happen when something really diverged
+// (an input the server dropped, or a tick it ran without our input).
+public class PlayerPrediction {
+	private static final int CAPACITY = 256;  // Inputs in flight, about 4 s at 60 ticks per second
+
+	private final Player player;
+
+	// Movement input and predicted position (centre) after it, by seq % CAPACITY
+	private final boolean[] up = new boolean[CAPACITY], down = new boolean[CAPACITY];
+	private final boolean[] left = new boolean[CAPACITY], right = new boolean[CAPACITY];
+	private final int[] predictedX = new int[CAPACITY], predictedY = new int[CAPACITY];
+	private int newestSeq = -1;
+	private int confirmedSeq = -1;  // Newest input the server has run
+	private boolean started = false;  // Set once we know where the server put us
+
+	private long corrections;
+	private double correctionDistance, maxCorrection;
+
+	public PlayerPrediction(CollisionMap collision) {
+		player = new Player(0, 0, collision);
+	}
+
+	// Record an input and apply it right away
+	public void apply(int seq, PlayerInput input) {
+		int slot = seq & (CAPACITY - 1);
+		up[slot] = input.up;
+		down[slot] = input.down;
+		left[slot] = input.left;
+		right[slot] = input.right;
+		newestSeq = seq;
+		if (started) {
+			step(seq);
+		}
+	}
+
+	// The server has run our inputs up to appliedSeq and the player's centre is at (serverX, serverY)
+	public void reconcile(int appliedSeq, int serverX, int serverY) {
+		if (appliedSeq < confirmedSeq) {
+			return;  // Older news than we already have
+		}
+		confirmedSeq = appliedSeq;
+
+		if (started && appliedSeq >= 0 && newestSeq - appliedSeq < CAPACITY) {
+			int slot = appliedSeq & (CAPACITY - 1);
+			int dx = serverX - predictedX[slot];
+			int dy = serverY - predictedY[slot];
+			if (dx == 0 && dy == 0) {
+				return;  // Prediction was right
+			}
+			double distance = Math.sqrt(dx * dx + dy * dy);
+			corrections++;
+			correctionDistance += distance;
+			maxCorrection = Math.max(maxCorrection, distance);
+		}
+
+		// Start over from the server's position and replay what it hasn't seen yet
+		int half = player.getSize() / 2;
+		player.setPosition(serverX - half, serverY - half);
+		started = true;
+		for (int seq = Math.max(appliedSeq + 1, newestSeq - CAPACITY + 1); seq <= newestSeq; seq++) {
+			step(seq);
+		}
+	}
+
+	private void step(int seq) {
+		int slot = seq & (CAPACITY - 1);
+		player.move(up[slot], down[slot], left[slot], right[slot]);
+		predictedX[slot] = player.getX();
+		predictedY[slot] = player.getY();
+	}
+
+	public boolean isStarted() {
+		return started;
+	}
+
+	public Player getPlayer() {
+		return player;
+	}
+
+	// Inputs applied locally that the server hasn't confirmed yet
+	public int getPendingInputs() {
+		return newestSeq - confirmedSeq;
+	}
+
+	public long getCorrections() {
+		return corrections;
+	}
+
+	public double getMeanCorrection() {
+		return corrections == 0 ? 0 : correctionDistance / corrections;
+	}
+
+	public double getMaxCorrection() {
+		return maxCorrection;
+	}
+}
@@ -0,0 +1,472 @@
+package valorant2d;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+// One player in a match: their body, health, input, weapons, weapon switching and recoil.
+// Simulation owns one of these per player and steps them all each tick.
+//
+// Anything that finishes later (equipping, reloading, fire and spray cooldowns,
+// recoil settling after a stop) is a timer in the simulation's TimerWheel rather
+// than a timestamp checked every tick. Changes that need a timer started or
+// cancelled are noted while the tick runs and applied by scheduleTimers, on the
+// simulation's thread, and onTimer is called when one fires.
+public class PlayerState {
+
+    private static final int WEAPON_COUNT = WeaponType.values().length;
+
+    // Timer kinds. The per-weapon ones add the weapon's ordinal.
+    static final int TIMER_EQUIP = 0;
+    static final int TIMER_SETTLE = 1;
+    static final int TIMER_RELOAD = 2;
+    static final int TIMER_FIRE = TIMER_RELOAD + WEAPON_COUNT;
+    static final int TIMER_SPRAY = TIMER_FIRE + WEAPON_COUNT;
+
+    // Timers to look at in scheduleTimers, a bit per timer kind
+    private static final int PENDING_EQUIP = 1 << TIMER_EQUIP;
+    private static final int PENDING_SETTLE = 1 << TIMER_SETTLE;
+    private static final int PENDING_RELOAD = 1 << TIMER_RELOAD;
+    private static final int PENDING_FIRE = 1 << TIMER_FIRE;
+    private static final int PENDING_SPRAY = 1 << TIMER_SPRAY;
+    private static final int PENDING_ALL = (1 << (TIMER_SPRAY + WEAPON_COUNT)) - 1;
+
+    // Where each weapon's shots go (RecoilPattern, degrees): kick while moving, spray fan, jitter, wide jitter.
+    // Only the Classic sprays; the primary and the knife share a pattern that just kicks.
+    private static final double[] CLASSIC_FAN = { -10, -5, 0, 5, 10 };
+    static final RecoilPattern KICK_RECOIL = new RecoilPattern(1, 3, new double[0], 0, 1);
+    static final RecoilPattern CLASSIC_RECOIL = new RecoilPattern(1, 3, CLASSIC_FAN, 10, 3);
+
+    public static final int MAX_HEALTH = 100;
+
+    private static final float RECOIL_DECAY_PER_MS = 0.006f;  // 0.1 a tick at 60 ticks a second
+
+    private Player player;  // The player object
+    private PlayerInput input = new PlayerInput();  // Input for the next tick
+    private int health = MAX_HEALTH;  // Out of the fight at 0: no moving or shooting
+
+    private Weapon[] weapons = new Weapon[WEAPON_COUNT];  // Weapon collection, by type
+
+    private WeaponType currentWeapon = WeaponType.PRIMARY;  // Current weapon being used by the player
+
+    // Switching settings
+    private boolean isSwitchingWeapon = false;
+    private long switchStartTime = 0;
+    private long switchDuration = 0;
+
+    // Movement and Recoil Settings
+    private boolean isPlayerMoving = false;
+    private boolean isPlayerSpraying = false;
+    private long lastMoveTime = 0;
+    private final long movementCooldown = 1000;  // Time in milliseconds before recoil factor lowers
+    private long recoilDecayStart = 0;  // When the player last became steady (not moving or spraying)
+    private long lastUpdateTime = 0;
+    private final float defaultRecoilFactor = 1f;  // The minimum recoil factor when stationary
+
+    // Handles of the running timers, TimerWheel.NONE when not running
+    private int equipTimer = TimerWheel.NONE;
+    private int settleTimer = TimerWheel.NONE;
+    private final int[] reloadTimers = new int[weapons.length];
+    private final int[] fireTimers = new int[weapons.length];
+    private final int[] sprayTimers = new int[weapons.length];
+    private int pendingTimers = 0;
+
+    // Directions of the shots fired this tick, so a server can also judge them as hitscan
+    private final double[] shotDirX = new double[8], shotDirY = new double[8];
+
+    // Unit vector from the player to where they're aiming, worked out when firing
+    private double aimDirX, aimDirY;
+    private int shotCount = 0;
+
+    // Shots updateWeapons decided on, spawned by fire() once every player has decided
+    private boolean pendingShot, pendingSpray;
+
+    public PlayerState(Player player) {
+        this.player = player;
+
+        // Initialize weapons with their respective properties
+        weapons[WeaponType.PRIMARY.ordinal()] = new Weapon(WeaponType.PRIMARY, 30, 60, 114, 1000, 2500, 0, 40, KICK_RECOIL);
+        weapons[WeaponType.SECONDARY.ordinal()] = new Weapon(WeaponType.SECONDARY, 12, 36, 300, 750, 1750, 300, 26, CLASSIC_RECOIL);
+        weapons[WeaponType.KNIFE.ordinal()] = new Weapon(WeaponType.KNIFE, 1, 0, 1000, 750, 0, 0, 50, KICK_RECOIL);  // Placeholder weapon (knife)
+        Arrays.fill(reloadTimers, TimerWheel.NONE);
+        Arrays.fill(fireTimers, TimerWheel.NONE);
+        Arrays.fill(sprayTimers, TimerWheel.NONE);
+    }
+
+    // Commands that used to run straight from the key handlers
+    void handleCommands(GameClock clock) {
+        if (health <= 0) {
+            return;
+        }
+        if (input.reload) {
+            startReload(clock.millis());
+            input.reload = false;
+        }
+        if (input.switchTo != null) {
+            // Prevent redundant switching
+            if (input.switchTo != currentWeapon) {
+                switchWeapon(input.switchTo, clock);
+            }
+            input.switchTo = null;
+        }
+    }
+
+    void move() {
+        if (health <= 0) {
+            player.tick(false, false, false, false);  // Stays put, but stops counting as moving
+            return;
+        }
+        player.tick(input.up, input.down, input.left, input.right);
+    }
+
+    // Firing, reloading and recoil for this tick: whether to shoot, and which
+    // timers that starts or stops. This only touches this player, so players can
+    // be updated on different threads; the bullets come out of fire(), which draws
+    // from the shared random numbers and must be called for each player in turn.
+    void updateWeapons(GameClock clock) {
+        long now = clock.millis();
+        shotCount = 0;
+        pendingShot = false;
+        pendingSpray = false;
+
+        // Still switching, no firing until the equip timer is done
+        if (isSwitchingWeapon || health <= 0) {
+            return;
+        }
+        lastUpdateTime = now;
+        boolean wasSteady = !isPlayerMoving && !isPlayerSpraying;
+
+        Weapon weapon = getCurrentWeapon();
+        if (input.fire && weapon.canShoot()) {
+            pendingShot = true;
+            weapon.shoot(now);
+            pendingTimers |= PENDING_FIRE << currentWeapon.ordinal();
+        }
+
+        if (input.spray && weapon.canSpray()) {
+            if (currentWeapon == WeaponType.SECONDARY) {
+                pendingSpray = true;
+                weapon.spray(now);
+                pendingTimers |= (PENDING_FIRE | PENDING_SPRAY) << currentWeapon.ordinal();
+            }
+        }
+
+        if (weapon.shouldAutoReload()) {
+            startReload(now);
+        }
+
+        // Update player movement state. Stopping starts the settle timer, moving again stops it.
+        if (player.isMoving()) {
+            isPlayerMoving = true;
+            lastMoveTime = now;  // Reset the timer when moving
+            if (settleTimer != TimerWheel.NONE) {
+                pendingTimers |= PENDING_SETTLE;
+            }
+        } else if (isPlayerMoving && now - lastMoveTime >= movementCooldown) {
+            isPlayerMoving = false;  // Stopped while switching weapons, long enough ago already
+        } else if (isPlayerMoving && settleTimer == TimerWheel.NONE) {
+            pendingTimers |= PENDING_SETTLE;
+        }
+
+        // Check if the player is spraying
+        isPlayerSpraying = input.spray && weapon.canShoot();
+
+        // Recoil starts lowering from the moment the player is steady, see getRecoilFactor
+        if (!wasSteady && !isPlayerMoving && !isPlayerSpraying) {
+            recoilDecayStart = now;
+        }
+    }
+
+    private void startReload(long now) {
+        if (getCurrentWeapon().startReload(now)) {
+            pendingTimers |= PENDING_RELOAD << currentWeapon.ordinal();
+        }
+    }
+
+    // Start and cancel the timers this tick asked for. Call on the simulation's thread.
+    void scheduleTimers(TimerWheel timers, int owner) {
+        int pending = pendingTimers;
+        if (pending == 0) {
+            return;
+        }
+        pendingTimers = 0;
+
+        if ((pending & PENDING_EQUIP) != 0) {
+            timers.cancel(equipTimer);
+            equipTimer = isSwitchingWeapon
+                    ? timers.schedule(switchStartTime + switchDuration, owner, TIMER_EQUIP)
+                    : TimerWheel.NONE;
+        }
+        if ((pending & PENDING_SETTLE) != 0) {
+            timers.cancel(settleTimer);
+            settleTimer = isPlayerMoving && !player.isMoving()
+                    ? timers.schedule(lastMoveTime + movementCooldown, owner, TIMER_SETTLE)
+                    : TimerWheel.NONE;
+        }
+        for (int w = 0; w < weapons.length; w++) {
+            Weapon weapon = weapons[w];
+            if ((pending & (PENDING_RELOAD << w)) != 0) {
+                timers.cancel(reloadTimers[w]);
+                reloadTimers[w] = weapon.isReloading()
+                        ? timers.schedule(weapon.getReloadDoneTime(), owner, TIMER_RELOAD + w)
+                        : TimerWheel.NONE;
+            }
+            if ((pending & (PENDING_FIRE << w)) != 0) {
+                timers.cancel(fireTimers[w]);
+                fireTimers[w] = !weapon.isFireReady()
+                        ? timers.schedule(weapon.getFireReadyTime(), owner, TIMER_FIRE + w)
+                        : TimerWheel.NONE;
+            }
+            if ((pending & (PENDING_SPRAY << w)) != 0) {
+                timers.cancel(sprayTimers[w]);
+                sprayTimers[w] = !weapon.isSprayReady()
+                        ? timers.schedule(weapon.getSprayReadyTime(), owner, TIMER_SPRAY + w)
+                        : TimerWheel.NONE;
+            }
+        }
+    }
+
+    // One of this player's timers is up. Something may have changed since it was
+    // scheduled (a switch this tick, before scheduleTimers cancelled it), so check.
+    void onTimer(int kind, long now) {
+        if (kind == TIMER_EQUIP) {
+            equipTimer = TimerWheel.NONE;
+            isSwitchingWeapon = false;
+        } else if (kind == TIMER_SETTLE) {
+            settleTimer = TimerWheel.NONE;
+            if (isPlayerMoving && !player.isMoving()) {
+                isPlayerMoving = false;
+                if (!isPlayerSpraying) {
+                    recoilDecayStart = now;
+                }
+            }
+        } else if (kind < TIMER_FIRE) {
+            int w = kind - TIMER_RELOAD;
+            reloadTimers[w] = TimerWheel.NONE;
+            if (weapons[w].isReloading() && now >= weapons[w].getReloadDoneTime()) {
+                weapons[w].finishReload();
+            }
+        } else if (kind < TIMER_SPRAY) {
+            int w = kind - TIMER_FIRE;
+            fireTimers[w] = TimerWheel.NONE;
+            weapons[w].setFireReady();
+        } else {
+            int w = kind - TIMER_SPRAY;
+            sprayTimers[w] = TimerWheel.NONE;
+            weapons[w].setSprayReady();
+        }
+    }
+
+    // After readState or when joining a fresh wheel: work out which cooldowns were
+    // already over at `now` and start timers for the rest
+    void restoreTimers(TimerWheel timers, int owner, long now) {
+        equipTimer = settleTimer = TimerWheel.NONE;
+        Arrays.fill(reloadTimers, TimerWheel.NONE);
+        Arrays.fill(fireTimers, TimerWheel.NONE);
+        Arrays.fill(sprayTimers, TimerWheel.NONE);
+        for (Weapon weapon : weapons) {
+            weapon.restoreReady(now);
+        }
+        pendingTimers = PENDING_ALL;
+        scheduleTimers(timers, owner);
+    }
+
+    // Stop every timer this player has running, before it's replaced (Simulation.resetPlayer)
+    void cancelTimers(TimerWheel timers) {
+        timers.cancel(equipTimer);
+        timers.cancel(settleTimer);
+        for (int w = 0; w < weapons.length; w++) {
+            timers.cancel(reloadTimers[w]);
+            timers.cancel(fireTimers[w]);
+            timers.cancel(sprayTimers[w]);
+        }
+        equipTimer = settleTimer = TimerWheel.NONE;
+        Arrays.fill(reloadTimers, TimerWheel.NONE);
+        Arrays.fill(fireTimers, TimerWheel.NONE);
+        Arrays.fill(sprayTimers, TimerWheel.NONE);
+        pendingTimers = 0;
+    }
+
+    // Spawn the bullets updateWeapons decided on, as player `owner`'s
+    void fire(BulletPool bullets, Random random, int owner) {
+        if (pendingShot) {
+            shootBullet(bullets, random, owner);
+        }
+        if (pendingSpray) {
+            sprayBullet(bullets, random, owner);
+        }
+        pendingShot = false;
+        pendingSpray = false;
+    }
+
+    // Shoot a bullet. Package-private for FiringBenchmark.
+    void shootBullet(BulletPool bullets, Random random, int owner) {
+        aim();
+        Weapon weapon = getCurrentWeapon();
+        RecoilPattern recoil = weapon.getRecoilPattern();
+        int step = RecoilPattern.step(random.nextDouble());  // Drawn either way, to keep the sequence
+        double dirX = aimDirX, dirY = aimDirY;
+        if (player.isMoving()) {  // No recoil when not moving
+            double cos = recoil.kickCos[step], sin = recoil.kickSin[step];
+            dirX = aimDirX * cos - aimDirY * sin;
+            dirY = aimDirX * sin + aimDirY * cos;
+        }
+        bullets.spawn(player.getX(), player.getY(), dirX, dirY, owner, weapon.getDamage());
+        recordShot(dirX, dirY);
+    }
+
+    // Spray Bullets with Classic: the weapon's fan, each turned a random bit more
+    void sprayBullet(BulletPool bullets, Random random, int owner) {
+        aim();
+        Weapon weapon = getCurrentWeapon();
+        RecoilPattern recoil = weapon.getRecoilPattern();
+        int jitterFrom = player.isMoving() || input.spray ? RecoilPattern.STEPS : 0;  // Wider when moving or spraying
+        for (int i = 0; i < recoil.fanCos.length; i++) {
+            double fanX = aimDirX * recoil.fanCos[i] - aimDirY * recoil.fanSin[i];
+            double fanY = aimDirX * recoil.fanSin[i] + aimDirY * recoil.fanCos[i];
+            int jitter = jitterFrom + RecoilPattern.step(random.nextDouble());
+            double cos = recoil.jitterCos[jitter], sin = recoil.jitterSin[jitter];
+            double dirX = fanX * cos - fanY * sin;
+            double dirY = fanX * sin + fanY * cos;
+            bullets.spawn(player.getX(), player.getY(), dirX, dirY, owner, weapon.getDamage());
+            recordShot(dirX, dirY);
+        }
+    }
+
+    // Straight right when aiming at the player's own position, as atan2 would give
+    private void aim() {
+        double x = input.aimX - player.getX(), y = input.aimY - player.getY();
+        double length = Math.sqrt(x * x + y * y);
+        aimDirX = length > 0 ? x / length : 1;
+        aimDirY = length > 0 ? y / length : 0;
+    }
+
+    private void recordShot(double dirX, double dirY) {
+        if (shotCount < shotDirX.length) {
+            shotDirX[shotCount] = dirX;
+            shotDirY[shotCount] = dirY;
+            shotCount++;
+        }
+    }
+
+    // Save and restore everything updateWeapons and move depend on (replay keyframes)
+    void writeState(ByteBuffer out) {
+        player.writeState(out);
+        out.putInt(health);
+        input.writeState(out);
+        for (Weapon weapon : weapons) {
+            weapon.writeState(out);
+        }
+        out.put((byte) currentWeapon.ordinal());
+        out.put((byte) (isSwitchingWeapon ? 1 : 0));
+        out.putLong(switchStartTime).putLong(switchDuration);
+        out.put((byte) (isPlayerMoving ? 1 : 0));
+        out.put((byte) (isPlayerSpraying ? 1 : 0));
+        out.putLong(lastMoveTime);
+        out.putLong(recoilDecayStart).putLong(lastUpdateTime);
+    }
+
+    void readState(ByteBuffer in) {
+        player.readState(in);
+        health = in.getInt();
+        input.readState(in);
+        for (Weapon weapon : weapons) {
+            weapon.readState(in);
+        }
+        currentWeapon = WeaponType.values()[in.get()];
+        isSwitchingWeapon = in.get() != 0;
+        switchStartTime = in.getLong();
+        switchDuration = in.getLong();
+        isPlayerMoving = in.get() != 0;
+        isPlayerSpraying = in.get() != 0;
+        lastMoveTime = in.getLong();
+        recoilDecayStart = in.getLong();
+        lastUpdateTime = in.getLong();
+        shotCount = 0;
+        pendingTimers = 0;  // The owner calls restoreTimers next
+    }
+
+    // Switch weapons (1, 2, 3 keys). Putting a weapon away mid-reload cancels the reload,
+    // so switching back means starting it again. (It used to finish in the holster;
+    // the change is deliberate and moves headless checksums that switch mid-reload.)
+    private void switchWeapon(WeaponType newWeapon, GameClock clock) {
+        if (isSwitchingWeapon) {
+            return;  // Don't allow switching while a switch is already in progress
+        }
+
+        Weapon holstered = getCurrentWeapon();
+        if (holstered.isReloading()) {
+            holstered.cancelReload();
+            pendingTimers |= PENDING_RELOAD << currentWeapon.ordinal();
+        }
+
+        isSwitchingWeapon = true;
+        switchStartTime = clock.millis();
+        currentWeapon = newWeapon;
+
+        // Use the equip time of the selected weapon as the switching duration
+        Weapon weapon = getWeapon(newWeapon);
+        switchDuration = weapon.getEquipTime();  // dynamically set based on weapon
+        pendingTimers |= PENDING_EQUIP;
+    }
+
+    // A bullet hit (HitGrid.damage for the region). Health stops at 0.
+    void takeDamage(int amount) {
+        health = Math.max(0, health - amount);
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public int getHealth() {
+        return health;
+    }
+
+    public boolean isAlive() {
+        return health > 0;
+    }
+
+    public PlayerInput getInput() {
+        return input;
+    }
+
+    public WeaponType getCurrentWeaponType() {
+        return currentWeapon;
+    }
+
+    public Weapon getCurrentWeapon() {
+        return weapons[currentWeapon.ordinal()];
+    }
+
+    public Weapon getWeapon(WeaponType type) {
+        return weapons[type.ordinal()];
+    }
+
+    public boolean isSwitchingWeapon() {
+        return isSwitchingWeapon;
+    }
+
+    // Full recoil while moving or spraying, then down to the minimum over a third of a second
+    public float getRecoilFactor() {
+        if (isPlayerMoving || isPlayerSpraying) {
+            return 3f;
+        }
+        long steady = Math.max(0, lastUpdateTime - recoilDecayStart);
+        return Math.max(defaultRecoilFactor, 3f - RECOIL_DECAY_PER_MS * steady);
+    }
+
+    // Shots fired during the last tick
+    public int getShotCount() {
+        return shotCount;
+    }
+
+    // Unit vector of shot i
+    public double getShotDirX(int i) {
+        return shotDirX[i];
+    }
+
+    public double getShotDirY(int i) {
+        return shotDirY[i];
+    }
+}
@@ -0,0 +1,74 @@
+package valorant2d;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+// Measures what prediction buys at different round trip times. For each RTT a server
+// and two bot clients play on localhost over a LossyLink, and we print how long an
+// input takes to come back confirmed by the server (what the player would feel without
+// prediction; with it the move shows the same tick), how often and how far the
+// predicted player had to be corrected, and how often remote players could be
+// interpolated rather than held at their last position.
+//
+//   java valorant2d.PredictionLoopback [seconds per RTT] [jitterMs] [loss %]
+public class PredictionLoopback {
+
+    private static final int[] RTTS_MS = {50, 100, 150};
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int jitterMs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        double loss = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.01;
+
+        System.out.printf("%d s per run, %d ms jitter, %.1f%% loss each way%n%n", seconds, jitterMs, loss * 100);
+        for (int rtt : RTTS_MS) {
+            run(rtt, seconds, jitterMs, loss);
+        }
+    }
+
+    private static void run(int rttMs, int seconds, int jitterMs, double loss) throws IOException, InterruptedException {
+        int latencyMs = rttMs / 2;
+        GameServer server = new GameServer(new InetSocketAddress("127.0.0.1", 0), 60, 40, 1,
+                new LossyLink(latencyMs, jitterMs, loss, 1));
+        GameClient[] clients = {
+            new GameClient(server.getLocalAddress(), new LossyLink(latencyMs, jitterMs, loss, 2), 11),
+            new GameClient(server.getLocalAddress(), new LossyLink(latencyMs, jitterMs, loss, 3), 12),
+        };
+
+        Thread serverThread = new Thread(server, "Server");
+        Thread[] clientThreads = new Thread[clients.length];
+        serverThread.start();
+        for (int i = 0; i < clients.length; i++) {
+            clientThreads[i] = new Thread(clients[i], "Client " + i);
+            clientThreads[i].start();
+        }
+
+        Thread.sleep(seconds * 1000L);
+
+        for (int i = 0; i < clients.length; i++) {
+            clients[i].stop();
+            clientThreads[i].join();
+        }
+        server.stop();
+        serverThread.join();
+
+        System.out.printf("%d ms RTT%n", rttMs);
+        for (GameClient client : clients) {
+            PlayerPrediction prediction = client.getPrediction();
+            Histogram latency = client.getInputLatency();
+            if (prediction == null || latency.getCount() == 0) {
+                System.out.printf("  client %d: never connected%n", client.getPlayerIndex());
+                continue;
+            }
+            double minutes = seconds / 60.0;
+            double interpolated = client.getRemoteSamples() == 0 ? 0
+                    : 100.0 * (client.getRemoteSamples() - client.getRemoteHeld()) / client.getRemoteSamples();
+            System.out.printf("  client %d: input confirmed after p50 %.1f ms, p95 %.1f ms (predicted: same tick)%n",
+                    client.getPlayerIndex(), latency.percentile(50) / 1e6, latency.percentile(95) / 1e6);
+            System.out.printf("            %d corrections (%.1f/min), mean %.1f px, max %.1f px; remote players interpolated %.1f%% of frames%n",
+                    prediction.getCorrections(), prediction.getCorrections() / minutes, prediction.getMeanCorrection(),
+                    prediction.getMaxCorrection(), interpolated);
+        }
+        System.out.println();
+    }
+}
@@ -0,0 +1,85 @@
+package valorant2d;
+
+import java.util.Arrays;
+
+// Flies everything that is a point with a velocity (POSITION and VELOCITY, no
+// BODY), the way BulletPool.update does: the whole step is traced through the
+// map so fast projectiles can't skip over a wall, and a projectile that hits a
+// wall or leaves the world is destroyed. Where they hit is kept until the next
+// update, for impact effects. Part of the EntityWorld prototype: it doesn't test
+// players' hitboxes, which the game's bullets (BulletPool and HitGrid) do.
+class ProjectileSystem {
+	private static final int REQUIRED = EntityWorld.POSITION | EntityWorld.VELOCITY;
+
+	private final CollisionMap collision;
+	private final int worldWidth, worldHeight;
+	private final RayHit rayHit = new RayHit();
+
+	private double[] hitX = new double[64], hitY = new double[64];
+	private int hitCount = 0;
+
+	public ProjectileSystem(CollisionMap collision, int worldWidth, int worldHeight) {
+		this.collision = collision;
+		this.worldWidth = worldWidth;
+		this.worldHeight = worldHeight;
+	}
+
+	public void update(EntityWorld world) {
+		hitCount = 0;
+		for (int a = 0; a < world.getArchetypeCount(); a++) {
+			Archetype archetype = world.getArchetype(a);
+			if (archetype.has(REQUIRED) && !archetype.has(EntityWorld.BODY)) {
+				fly(world, archetype);
+			}
+		}
+	}
+
+	private void fly(EntityWorld world, Archetype archetype) {
+		double[] x = archetype.x, y = archetype.y, prevX = archetype.prevX, prevY = archetype.prevY;
+		double[] dx = archetype.dx, dy = archetype.dy;
+		int i = 0;
+		while (i < archetype.size()) {
+			double nextX = x[i] + dx[i];
+			double nextY = y[i] + dy[i];
+
+			if (collision.raycast(x[i], y[i], nextX, nextY, rayHit)) {
+				addHit(rayHit.getX(), rayHit.getY());
+				// The last row moves into this one and gets looked at next
+				world.destroy(archetype.getEntity(i));
+				continue;
+			}
+
+			prevX[i] = x[i];
+			prevY[i] = y[i];
+			x[i] = nextX;
+			y[i] = nextY;
+			if (x[i] < 0 || x[i] > worldWidth || y[i] < 0 || y[i] > worldHeight) {
+				world.destroy(archetype.getEntity(i));
+			} else {
+				i++;
+			}
+		}
+	}
+
+	private void addHit(double x, double y) {
+		if (hitCount == hitX.length) {
+			hitX = Arrays.copyOf(hitX, hitCount * 2);
+			hitY = Arrays.copyOf(hitY, hitCount * 2);
+		}
+		hitX[hitCount] = x;
+		hitY[hitCount] = y;
+		hitCount++;
+	}
+
+	public int getHitCount() {
+		return hitCount;
+	}
+
+	public double getHitX(int i) {
+		return hitX[i];
+	}
+
+	public double getHitY(int i) {
+		return hitY[i];
+	}
+}
@@ -0,0 +1,37 @@
+package valorant2d;
+
+// Where a ray stopped against the tile map. Reused between casts so
+// raycasting doesn't allocate.
+public class RayHit {
+	private double x, y;
+	private int row, col;
+	private double t;  // How far along the ray (0 = start, 1 = end)
+
+	void set(double x, double y, int row, int col, double t) {
+		this.x = x;
+		this.y = y;
+		this.row = row;
+		this.col = col;
+		this.t = t;
+	}
+
+	public double getX() {
+		return x;
+	}
+
+	public double getY() {
+		return y;
+	}
+
+	public int getRow() {
+		return row;
+	}
+
+	public int getCol() {
+		return col;
+	}
+
+	public double getT() {
+		return t;
+	}
+}
@@ -0,0 +1,53 @@
+package valorant2d;
+
+// How a weapon's shots stray from where the player aims. It's given as data,
+// in degrees, where the weapons are defined (PlayerState), and compiled straight
+// away into tables of direction vectors, so firing turns the aim with a few
+// multiplications per bullet and no trig or allocation. Random draws land on one
+// of STEPS evenly spaced angles across their range.
+//
+//   kickMin, kickMax  single shots while moving turn by this much
+//   fan               a spray fires one bullet at each of these angles from the aim
+//   jitter            and turns each one by up to half this either way
+//   wide              times this while moving or holding spray
+//
+// Tables are built with StrictMath, so every machine fires the same directions.
+// One pattern is shared by every weapon defined with it.
+public final class RecoilPattern {
+	static final int STEPS = 1024;
+
+	// Cosine and sine of every angle the pattern can turn by
+	final double[] kickCos = new double[STEPS], kickSin = new double[STEPS];
+	final double[] fanCos, fanSin;
+	final double[] jitterCos = new double[2 * STEPS], jitterSin = new double[2 * STEPS];  // Wide from STEPS on
+
+	public RecoilPattern(double kickMin, double kickMax, double[] fan, double jitter, double wide) {
+		for (int step = 0; step < STEPS; step++) {
+			double draw = (step + 0.5) / STEPS;  // The middle of the draws that land here
+			set(kickCos, kickSin, step, kickMin + draw * (kickMax - kickMin));
+			set(jitterCos, jitterSin, step, (draw - 0.5) * jitter);
+			set(jitterCos, jitterSin, STEPS + step, (draw - 0.5) * jitter * wide);
+		}
+		fanCos = new double[fan.length];
+		fanSin = new double[fan.length];
+		for (int i = 0; i < fan.length; i++) {
+			set(fanCos, fanSin, i, fan[i]);
+		}
+	}
+
+	private static void set(double[] cos, double[] sin, int i, double degrees) {
+		double radians = StrictMath.toRadians(degrees);
+		cos[i] = StrictMath.cos(radians);
+		sin[i] = StrictMath.sin(radians);
+	}
+
+	// The step a random draw in [0, 1) lands on
+	static int step(double draw) {
+		return (int) (draw * STEPS);
+	}
+
+	// Bullets in a spray
+	public int getFanSize() {
+		return fanCos.length;
+	}
+}
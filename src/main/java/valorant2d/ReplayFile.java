@@ -0,0 +1,116 @@
+package valorant2d;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Format of .v2dr replay files, written by ReplayRecorder and read by ReplayPlayer.
+// A replay is the match's starting conditions followed by player 0's input for every
+// tick. Because the simulation is deterministic, that's enough to play the match again
+// exactly. The file is only ever appended to, so a crash loses at most the last unflushed
+// second. Every so often a tick also carries a keyframe with the full simulation state,
+// so playback can jump to any point without running every tick before it.
+//
+//   int    magic 'V2DR'
+//   short  version
+//   short  ticks per second
+//   long   simulation seed
+//   int    map columns, int map rows, short tile size
+//   short  map file name length, then the name in UTF-8 (empty for a bordered map)
+//   int    ticks between keyframes
+//
+// then one record per tick:
+//
+//   byte   buttons (NetProtocol bits), top bit set if a flags byte follows
+//   byte   flags: SWITCH, KEYFRAME
+//   varint keyframe length, aim x (int), aim y (int), previous tick's millis (long),
+//          then Simulation.writeState from before this tick      (KEYFRAME only)
+//   byte   weapon to switch to (NetProtocol.weaponCode)           (SWITCH only)
+//   signed varints: aim x, aim y and game clock millis, each as a change from the last tick
+//
+// A tick where only the aim moves costs four bytes.
+final class ReplayFile {
+
+	static final int MAGIC = 0x56324452;  // "V2DR"
+	static final short VERSION = 3;  // 2: recoil saved as the time it started settling, 3: health and bullet owners
+
+	static final int HAS_FLAGS = 0x80;
+	static final int SWITCH = 1;
+	static final int KEYFRAME = 2;
+
+	// Per keyframe on top of Simulation.writeState: aim x, aim y, millis
+	static final int KEYFRAME_EXTRA_BYTES = 16;
+
+	private ReplayFile() {
+	}
+
+	// Everything needed to set up the match again
+	static final class Header {
+		final int ticksPerSecond;
+		final long seed;
+		final int cols, rows, tileSize;
+		final String mapFile;
+		final int keyframeInterval;
+
+		Header(int ticksPerSecond, long seed, int cols, int rows, int tileSize, String mapFile, int keyframeInterval) {
+			this.ticksPerSecond = ticksPerSecond;
+			this.seed = seed;
+			this.cols = cols;
+			this.rows = rows;
+			this.tileSize = tileSize;
+			this.mapFile = mapFile;
+			this.keyframeInterval = keyframeInterval;
+		}
+
+		void write(ByteBuffer out) {
+			byte[] name = mapFile.getBytes(StandardCharsets.UTF_8);
+			out.putInt(MAGIC);
+			out.putShort(VERSION);
+			out.putShort((short) ticksPerSecond);
+			out.putLong(seed);
+			out.putInt(cols);
+			out.putInt(rows);
+			out.putShort((short) tileSize);
+			out.putShort((short) name.length);
+			out.put(name);
+			out.putInt(keyframeInterval);
+		}
+
+		static Header read(ByteBuffer in, Path path) throws IOException {
+			if (in.remaining() < 6 || in.getInt() != MAGIC) {
+				throw new IOException(path + " is not a replay file");
+			}
+			short version = in.getShort();
+			if (version != VERSION) {
+				throw new IOException(path + ": unsupported replay version " + version);
+			}
+			int ticksPerSecond = in.getShort();
+			long seed = in.getLong();
+			int cols = in.getInt();
+			int rows = in.getInt();
+			int tileSize = in.getShort();
+			byte[] name = new byte[in.getShort()];
+			in.get(name);
+			int keyframeInterval = in.getInt();
+			if (ticksPerSecond <= 0 || cols <= 0 || rows <= 0 || tileSize <= 0 || keyframeInterval <= 0) {
+				throw new IOException(path + ": bad replay header");
+			}
+			return new Header(ticksPerSecond, seed, cols, rows, tileSize, new String(name, StandardCharsets.UTF_8),
+					keyframeInterval);
+		}
+
+		// The map the match was played on
+		TileMap openMap() throws IOException {
+			if (mapFile.isEmpty()) {
+				return TileMap.bordered(cols, rows, tileSize);
+			}
+			TileMap map = MapFile.open(Paths.get(mapFile));
+			if (map.getCols() != cols || map.getRows() != rows || map.getTileSize() != tileSize) {
+				throw new IOException(mapFile + " is not the map this replay was recorded on");
+			}
+			return map;
+		}
+	}
+}
@@ -0,0 +1,231 @@
+package valorant2d;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Plays a replay file (see ReplayFile) back through a fresh Simulation on a virtual
+// clock, one step() per recorded tick, as fast or slow as the caller steps it.
+// Opening the file maps it and scans the records once to find the keyframes;
+// seek() then restores the nearest keyframe at or before the target and only
+// simulates the ticks after it. A file that was cut short (the game was killed
+// while recording) plays up to its last complete tick.
+//
+// Checking a replay: play it through, then seek back and compare the state.
+//
+//   java valorant2d.ReplayPlayer <file> [seekSeconds]
+public class ReplayPlayer {
+
+	private final ByteBuffer data;
+	private final ReplayFile.Header header;
+	private final Simulation simulation;
+	private final GameClock clock = GameClock.virtual();
+	private final int firstRecord;  // Offset of tick 0's record
+
+	// Keyframe ticks and the offsets of their records, in order
+	private int[] keyframeTicks = new int[16];
+	private int[] keyframeOffsets = new int[16];
+	private int keyframeCount = 0;
+	private int tickCount = 0;
+
+	private int tick = 0;  // Next tick to run
+	private int position;  // Offset of its record
+	private int lastAimX, lastAimY;
+	private long lastMillis;
+
+	private ReplayPlayer(ByteBuffer data, Path path) throws IOException {
+		this.data = data;
+		header = ReplayFile.Header.read(data, path);
+		firstRecord = data.position();
+		simulation = new Simulation(header.openMap(), header.seed);
+		scan();
+		position = firstRecord;
+	}
+
+	public static ReplayPlayer open(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			try {
+				return new ReplayPlayer(buffer, path);
+			} catch (BufferUnderflowException | IllegalArgumentException e) {
+				throw new IOException(path + ": bad replay header", e);
+			}
+		}
+	}
+
+	// Find every complete tick record and note where the keyframes are
+	private void scan() {
+		int offset = firstRecord;
+		try {
+			while (offset < data.limit()) {
+				data.position(offset);
+				int buttons = data.get() & 0xFF;
+				int flags = (buttons & ReplayFile.HAS_FLAGS) != 0 ? data.get() : 0;
+				if ((flags & ReplayFile.KEYFRAME) != 0) {
+					int length = NetProtocol.getVarInt(data);
+					data.position(data.position() + length);
+					addKeyframe(tickCount, offset);
+				}
+				if ((flags & ReplayFile.SWITCH) != 0) {
+					data.get();
+				}
+				NetProtocol.getSignedVarInt(data);
+				NetProtocol.getSignedVarInt(data);
+				NetProtocol.getSignedVarInt(data);
+				tickCount++;
+				offset = data.position();
+			}
+		} catch (BufferUnderflowException | IllegalArgumentException e) {
+			// Truncated last record, the rest of the file is still good
+		}
+	}
+
+	private void addKeyframe(int tick, int offset) {
+		if (keyframeCount == keyframeTicks.length) {
+			keyframeTicks = Arrays.copyOf(keyframeTicks, keyframeCount * 2);
+			keyframeOffsets = Arrays.copyOf(keyframeOffsets, keyframeCount * 2);
+		}
+		keyframeTicks[keyframeCount] = tick;
+		keyframeOffsets[keyframeCount] = offset;
+		keyframeCount++;
+	}
+
+	// Decode the next tick record, set up player 0's input and the clock from it and
+	// run the tick. Returns false at the end of the replay.
+	public boolean step() {
+		if (tick >= tickCount) {
+			return false;
+		}
+		data.position(position);
+		int buttons = data.get() & 0xFF;
+		int flags = (buttons & ReplayFile.HAS_FLAGS) != 0 ? data.get() : 0;
+		if ((flags & ReplayFile.KEYFRAME) != 0) {
+			int length = NetProtocol.getVarInt(data);
+			data.position(data.position() + length);  // Already where it says we are
+		}
+
+		PlayerInput input = simulation.getInput();
+		NetProtocol.setButtons(input, buttons & ~ReplayFile.HAS_FLAGS);
+		input.switchTo = (flags & ReplayFile.SWITCH) != 0 ? NetProtocol.weapon(data.get()) : null;
+		lastAimX += NetProtocol.getSignedVarInt(data);
+		lastAimY += NetProtocol.getSignedVarInt(data);
+		lastMillis += NetProtocol.getSignedVarInt(data);
+		input.aimX = lastAimX;
+		input.aimY = lastAimY;
+		position = data.position();
+
+		clock.seek(lastMillis * 1_000_000);
+		clock.beginTick();
+		simulation.tick(clock);
+		tick++;
+		return true;
+	}
+
+	// Jump to just before the given tick runs
+	public void seek(int target) {
+		target = Math.max(0, Math.min(target, tickCount));
+
+		// Newest keyframe at or before the target
+		int k = Arrays.binarySearch(keyframeTicks, 0, keyframeCount, target);
+		if (k < 0) {
+			k = -k - 2;
+		}
+
+		// Restore it unless we're already between it and the target
+		if (k >= 0 && (tick > target || tick < keyframeTicks[k])) {
+			restore(k);
+		}
+		while (tick < target && step()) {
+		}
+	}
+
+	// Load a keyframe's state; its record is left for the next step to run
+	private void restore(int k) {
+		data.position(keyframeOffsets[k]);
+		int buttons = data.get() & 0xFF;
+		if ((buttons & ReplayFile.HAS_FLAGS) != 0) {
+			data.get();
+		}
+		NetProtocol.getVarInt(data);
+		lastAimX = data.getInt();
+		lastAimY = data.getInt();
+		lastMillis = data.getLong();
+		simulation.readState(data);
+		tick = keyframeTicks[k];
+		position = keyframeOffsets[k];
+	}
+
+	public Simulation getSimulation() {
+		return simulation;
+	}
+
+	public GameClock getClock() {
+		return clock;
+	}
+
+	public int getTick() {
+		return tick;
+	}
+
+	public int getTickCount() {
+		return tickCount;
+	}
+
+	public int getTicksPerSecond() {
+		return header.ticksPerSecond;
+	}
+
+	public int getKeyframeCount() {
+		return keyframeCount;
+	}
+
+	public long getSeed() {
+		return header.seed;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err.println("usage: ReplayPlayer <file> [seekSeconds]");
+			System.exit(1);
+		}
+		Path path = Paths.get(args[0]);
+		ReplayPlayer replay = open(path);
+		int rate = replay.getTicksPerSecond();
+		int seekTick = args.length > 1 ? (int) (Double.parseDouble(args[1]) * rate) : replay.getTickCount() * 2 / 3;
+		seekTick = Math.max(0, Math.min(seekTick, replay.getTickCount() - 1));
+		System.out.printf("%s: %d ticks (%.1f min), %d keyframes, seed %d%n", path, replay.getTickCount(),
+				replay.getTickCount() / (60.0 * rate), replay.getKeyframeCount(), replay.getSeed());
+
+		// Play it all, keeping the state just after the seek point to compare with later.
+		// (Before the tick runs, player 0's input may still be the previous tick's.)
+		Simulation simulation = replay.getSimulation();
+		ByteBuffer expected = ByteBuffer.allocate(simulation.maxStateBytes());
+		long start = System.nanoTime();
+		while (replay.step()) {
+			if (replay.getTick() == seekTick + 1) {
+				simulation.writeState(expected);
+				expected.flip();
+			}
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("played from the start in %.2f s (%.0fx real time), player ends at %d,%d%n", seconds,
+				replay.getTickCount() / (seconds * rate), simulation.getPlayer().getX(), simulation.getPlayer().getY());
+
+		// Jump back and check we land in exactly the same place
+		start = System.nanoTime();
+		replay.seek(seekTick);
+		double seekMs = (System.nanoTime() - start) / 1e6;
+		replay.step();
+		ByteBuffer actual = ByteBuffer.allocate(simulation.maxStateBytes());
+		simulation.writeState(actual);
+		actual.flip();
+		System.out.printf("seek to %.1f s took %.2f ms, state %s%n", (double) seekTick / rate, seekMs,
+				actual.equals(expected) ? "matches" : "DIFFERS");
+	}
+}
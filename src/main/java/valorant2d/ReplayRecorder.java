@@ -0,0 +1,162 @@
+package valorant2d;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+// Appends a match to a replay file (see ReplayFile), one record per tick. Records
+// are collected in memory and written about once a second, so recording costs a few
+// bytes of copying per tick plus a keyframe every keyframeInterval ticks.
+//
+// Recording a bot match without a window:
+//
+//   java valorant2d.ReplayRecorder <file> [minutes] [seed]
+public class ReplayRecorder implements Closeable {
+	private static final int FLUSH_TICKS = 60;
+
+	private final FileChannel channel;
+	private final ByteBuffer buffer;
+	private final int keyframeInterval;
+	private int tick = 0;
+	private int lastAimX, lastAimY;
+	private long lastMillis;
+
+	private long bytesWritten;
+	private int keyframes;
+
+	public ReplayRecorder(Path path, Simulation simulation, long seed, String mapFile, int ticksPerSecond,
+			int keyframeInterval) throws IOException {
+		this.keyframeInterval = keyframeInterval;
+		TileMap map = simulation.getMap();
+		ReplayFile.Header header = new ReplayFile.Header(ticksPerSecond, seed, map.getCols(), map.getRows(),
+				map.getTileSize(), mapFile, keyframeInterval);
+
+		// Room for a second of plain ticks on top of a keyframe
+		buffer = ByteBuffer.allocate(simulation.maxStateBytes() + ReplayFile.KEYFRAME_EXTRA_BYTES + 64 * FLUSH_TICKS);
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		header.write(buffer);
+		flush();
+	}
+
+	// Record player 0's input for the tick about to run. Call once the input is final
+	// and the clock has been sampled, just before Simulation.tick.
+	public synchronized void record(Simulation simulation, GameClock clock) throws IOException {
+		if (!channel.isOpen()) {
+			return;  // Closed on the way out (shutdown hook) while the game was still ticking
+		}
+		PlayerInput input = simulation.getInput();
+		boolean keyframe = tick % keyframeInterval == 0;
+		int flags = (keyframe ? ReplayFile.KEYFRAME : 0) | (input.switchTo != null ? ReplayFile.SWITCH : 0);
+
+		int buttons = NetProtocol.buttons(input);
+		buffer.put((byte) (flags != 0 ? buttons | ReplayFile.HAS_FLAGS : buttons));
+		if (flags != 0) {
+			buffer.put((byte) flags);
+		}
+		if (keyframe) {
+			writeKeyframe(simulation);
+		}
+		if (input.switchTo != null) {
+			buffer.put(NetProtocol.weaponCode(input.switchTo));
+		}
+
+		long millis = clock.millis();
+		NetProtocol.putSignedVarInt(buffer, input.aimX - lastAimX);
+		NetProtocol.putSignedVarInt(buffer, input.aimY - lastAimY);
+		NetProtocol.putSignedVarInt(buffer, (int) (millis - lastMillis));
+		lastAimX = input.aimX;
+		lastAimY = input.aimY;
+		lastMillis = millis;
+
+		tick++;
+		if (tick % FLUSH_TICKS == 0) {
+			flush();
+		}
+	}
+
+	// The whole simulation as it is before this tick, plus what the deltas that follow are against
+	private void writeKeyframe(Simulation simulation) throws IOException {
+		if (buffer.remaining() < simulation.maxStateBytes() + ReplayFile.KEYFRAME_EXTRA_BYTES + 64 * FLUSH_TICKS) {
+			flush();
+		}
+		int lengthAt = buffer.position();
+		buffer.position(lengthAt + 3);  // Varint length, patched in below
+		int start = buffer.position();
+		buffer.putInt(lastAimX).putInt(lastAimY).putLong(lastMillis);
+		simulation.writeState(buffer);
+		int length = buffer.position() - start;
+
+		// Always three varint bytes so the length can be written after the body
+		buffer.put(lengthAt, (byte) ((length & 0x7F) | 0x80));
+		buffer.put(lengthAt + 1, (byte) (((length >>> 7) & 0x7F) | 0x80));
+		buffer.put(lengthAt + 2, (byte) (length >>> 14));
+		keyframes++;
+	}
+
+	public synchronized void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			bytesWritten += channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (channel.isOpen()) {
+			flush();
+			channel.close();
+		}
+	}
+
+	public int getTicks() {
+		return tick;
+	}
+
+	public int getKeyframes() {
+		return keyframes;
+	}
+
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err.println("usage: ReplayRecorder <file> [minutes] [seed]");
+			System.exit(1);
+		}
+		Path path = Paths.get(args[0]);
+		int minutes = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+		int ticksPerSecond = GameServer.TICKS_PER_SECOND;
+
+		// Same map and bot as a default game and HeadlessRunner
+		Simulation simulation = new Simulation(TileMap.bordered(150, 100, Simulation.TILE_SIZE), seed);
+		GameClock clock = GameClock.virtual();
+		Random bot = new Random(seed ^ 0x5DEECE66DL);
+		int ticks = minutes * 60 * ticksPerSecond;
+
+		long start = System.nanoTime();
+		ReplayRecorder recorder = new ReplayRecorder(path, simulation, seed, "", ticksPerSecond, 10 * ticksPerSecond);
+		try (recorder) {
+			for (int tick = 0; tick < ticks; tick++) {
+				HeadlessRunner.updateBot(bot, simulation.getInput(), tick);
+				clock.beginTick();
+				recorder.record(simulation, clock);
+				simulation.tick(clock);
+				clock.advance(1_000_000_000L / ticksPerSecond);
+			}
+		}
+		// After close, so the counts include the last flush
+		System.out.printf("%d ticks (%d min) in %.2f s, %d keyframes, %d bytes (%.1f bytes/tick)%n", ticks, minutes,
+				(System.nanoTime() - start) / 1e9, recorder.getKeyframes(), recorder.getBytesWritten(),
+				(double) recorder.getBytesWritten() / ticks);
+	}
+}
@@ -0,0 +1,125 @@
+package valorant2d;
+
+// Which tiles block sight, as one bit per tile, and the shadowcasting that turns
+// it into a FieldOfView. The bits are copied out of the TileMap once, so casting
+// doesn't go through the map's chunks for every tile; keep them in step with
+// setWall when the map changes.
+//
+// Recursive shadowcasting: each of the eight octants around the viewer is
+// scanned row by row outwards, keeping the range of slopes that is still lit.
+// A wall narrows the range for the rows behind it and the part past the wall is
+// scanned as a new range, so tiles in shadow are never looked at. Walls that can
+// be seen count as visible, so their faces get drawn.
+public class SightMap {
+	// Octant transforms: map (dx, dy) in the first octant to map columns and rows
+	private static final int[] XX = { 1, 0, 0, -1, -1, 0, 0, 1 };
+	private static final int[] XY = { 0, 1, -1, 0, 0, -1, 1, 0 };
+	private static final int[] YX = { 0, 1, 1, 0, 0, -1, -1, 0 };
+	private static final int[] YY = { 1, 0, 0, 1, -1, 0, 0, -1 };
+
+	private final int rows, cols;
+	private final int tileSize;
+	private final int words;  // Longs per map row
+	private final long[] opaque;
+
+	public SightMap(TileMap map) {
+		this.rows = map.getRows();
+		this.cols = map.getCols();
+		this.tileSize = map.getTileSize();
+		this.words = (cols + 63) >>> 6;
+		this.opaque = new long[rows * words];
+		for (int row = 0; row < rows; row++) {
+			for (int col = 0; col < cols; col++) {
+				if (map.get(row, col) == Tile.WALL) {
+					opaque[row * words + (col >>> 6)] |= 1L << col;
+				}
+			}
+		}
+	}
+
+	public void setWall(int row, int col, boolean wall) {
+		if (wall) {
+			opaque[row * words + (col >>> 6)] |= 1L << col;
+		} else {
+			opaque[row * words + (col >>> 6)] &= ~(1L << col);
+		}
+	}
+
+	// Outside the map counts as a wall
+	public boolean isOpaque(int row, int col) {
+		if (row < 0 || col < 0 || row >= rows || col >= cols) {
+			return true;
+		}
+		return (opaque[row * words + (col >>> 6)] & (1L << col)) != 0;
+	}
+
+	// Fill fov with what can be seen from the tile at (row, col)
+	void cast(FieldOfView fov, int row, int col) {
+		int radius = fov.getRadius();
+		fov.reset(row, col, tileSize);
+		fov.set(row, col);
+		for (int octant = 0; octant < 8; octant++) {
+			castLight(fov, row, col, 1, 1.0, 0.0, radius, XX[octant], XY[octant], YX[octant], YY[octant]);
+		}
+	}
+
+	// Light rows from `distance` outwards between the slopes start and end (start >= end)
+	private void castLight(FieldOfView fov, int originRow, int originCol, int distance, double start, double end,
+			int radius, int xx, int xy, int yx, int yy) {
+		if (start < end) {
+			return;
+		}
+		int radiusSquared = radius * radius;
+		double newStart = 0;
+		for (int j = distance; j <= radius; j++) {
+			int dy = -j;
+			boolean blocked = false;
+			for (int dx = -j; dx <= 0; dx++) {
+				double leftSlope = (dx - 0.5) / (dy + 0.5);
+				double rightSlope = (dx + 0.5) / (dy - 0.5);
+				if (start < rightSlope) {
+					continue;
+				}
+				if (end > leftSlope) {
+					break;
+				}
+
+				int col = originCol + dx * xx + dy * xy;
+				int row = originRow + dx * yx + dy * yy;
+				if (dx * dx + dy * dy <= radiusSquared) {
+					fov.set(row, col);
+				}
+
+				boolean wall = isOpaque(row, col);
+				if (blocked) {
+					if (wall) {
+						newStart = rightSlope;  // Still in the wall's shadow
+					} else {
+						blocked = false;
+						start = newStart;
+					}
+				} else if (wall && j < radius) {
+					// A wall starts here: what's left of it is a range of its own
+					blocked = true;
+					castLight(fov, originRow, originCol, j + 1, start, leftSlope, radius, xx, xy, yx, yy);
+					newStart = rightSlope;
+				}
+			}
+			if (blocked) {
+				break;
+			}
+		}
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public int getCols() {
+		return cols;
+	}
+
+	public int getTileSize() {
+		return tileSize;
+	}
+}
@@ -0,0 +1,331 @@
+package valorant2d;
+
+import java.nio.ByteBuffer;
+
+// All of the game logic for one match: map, players, bullets, weapons and damage.
+// Nothing here touches the screen or the real clock, so it can run headless and
+// be stepped as fast as we like. Time comes in through the GameClock passed to
+// tick() and all randomness comes from a seeded Random, so the same seed and
+// inputs always play out the same way. writeState/readState save and restore all
+// of it apart from the map, for replay keyframes.
+//
+// A tick can be spread over several threads with setScheduler (TickScheduler).
+// Each phase works on chunks of players or bullets that only write to
+// themselves, and whatever they make for everyone else (dead bullets, new
+// shots) is merged on this thread in slot and player order, so a match plays
+// out exactly the same on any number of threads.
+//
+// Reloads, equips, cooldowns and recoil settling are timers in one TimerWheel,
+// keyed by game-clock milliseconds, so a tick only spends time on the ones
+// that run out in it. Players note what they want started or cancelled during
+// the parallel phases and the timers are scheduled on this thread afterwards.
+//
+// Bullets hit players through a HitGrid of everyone's hitboxes, built after
+// players move. Damage is handed out on this thread in the order sweep()
+// lists the hits, so it doesn't depend on the thread count either. The server
+// turns bullet damage off (setBulletDamage) and deals it from its lag
+// compensated hitscan instead; its bullets still stop at whoever they reach.
+public class Simulation {
+
+    public static final int TILE_SIZE = 40;
+    public static final int MAX_BULLETS = 4096;
+    public static final int SIGHT_RADIUS = 30;  // Tiles, enough to reach the corners of a 1080p view
+
+    // Entities per chunk of work. Bullets are cheap, so they go in bigger chunks.
+    private static final int PLAYER_CHUNK = 4;
+    private static final int BULLET_CHUNK = 256;
+
+    private TileMap map;  // Packed grid of tiles representing the game world
+    private CollisionMap collision;  // Tile lookups for walls (player, bullets, etc.)
+    private SightMap sight;  // Walls that block line of sight
+    private int width, height;  // World size in pixels
+
+    private PlayerState[] players;  // Everyone in the match, 0 is the local player in single player
+    private BulletPool bullets = new BulletPool(MAX_BULLETS);  // All active bullets in the game
+    private FieldOfView[] views;  // What each player can see, by player, cast when asked for
+    private HitGrid hitboxes;  // Where the living players are this tick, for bullets to hit
+    private boolean bulletDamage = true;  // Whether bullets that hit someone hurt them
+
+    private GameRandom random;
+
+    private final TimerWheel timers;
+    private boolean timersStale = true;  // Set up again from the players' state before the next tick
+
+    private TickScheduler scheduler = TickScheduler.SERIAL;
+    private final RayHit[] rayHits = new RayHit[TickScheduler.chunks(MAX_BULLETS, BULLET_CHUNK)];  // One per bullet chunk
+    private GameClock tickClock;  // The clock for the tick in progress, for the phases below
+    private int bulletCount;  // Bullets alive at the start of the bullet phase
+
+    // The phases, made once so a tick doesn't allocate for them (TickScheduler reuses its tasks too)
+    private final TickScheduler.Chunk movePlayers = this::movePlayers;
+    private final TickScheduler.Chunk advanceBullets = this::advanceBullets;
+    private final TickScheduler.Chunk updateWeapons = this::updateWeapons;
+    private final TimerWheel.Listener timerExpired = (owner, kind) -> players[owner].onTimer(kind, tickClock.millis());
+
+    // An empty map with walls around the edge, width x height pixels
+    public Simulation(int width, int height, long seed) {
+        this(TileMap.bordered((int) Math.ceil((double) width / TILE_SIZE), (int) Math.ceil((double) height / TILE_SIZE),
+                TILE_SIZE), seed);
+    }
+
+    // A map loaded from a file (MapFile) or generated
+    public Simulation(TileMap map, long seed) {
+        this(map, seed, 1);
+    }
+
+    // A match with several players, each starting in a different corner
+    public Simulation(TileMap map, long seed, int playerCount) {
+        this.map = map;
+        this.width = map.getWidth();
+        this.height = map.getHeight();
+        this.random = new GameRandom(seed);
+
+        collision = new CollisionMap(map);
+        for (int i = 0; i < rayHits.length; i++) {
+            rayHits[i] = new RayHit();
+        }
+
+        // Initialize the players after the map is set up
+        sight = new SightMap(map);
+        timers = new TimerWheel(playerCount * 8, 0);
+        players = new PlayerState[playerCount];
+        views = new FieldOfView[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            players[i] = new PlayerState(new Player(spawnX(i), spawnY(i), collision));
+            views[i] = new FieldOfView(SIGHT_RADIUS);
+        }
+        hitboxes = new HitGrid(playerCount, players[0].getPlayer().getSize());
+    }
+
+    // Corners in turn: top-left, bottom-right, top-right, bottom-left
+    private int spawnX(int i) {
+        boolean right = (i & 3) == 1 || (i & 3) == 2;
+        return (right ? map.getCols() - 3 : 2) * map.getTileSize();
+    }
+
+    private int spawnY(int i) {
+        boolean bottom = (i & 3) == 1 || (i & 3) == 3;
+        return (bottom ? map.getRows() - 3 : 2) * map.getTileSize();
+    }
+
+    // Advance the game by one tick. The clock has already been sampled for this tick.
+    public void tick(GameClock clock) {
+        tickClock = clock;
+        if (timersStale) {
+            restoreTimers(clock.millis());
+        }
+        int playerChunks = TickScheduler.chunks(players.length, PLAYER_CHUNK);
+        scheduler.run(playerChunks, movePlayers);
+        buildHitboxes();
+
+        // Always update bullets
+        bulletCount = bullets.size();
+        scheduler.run(TickScheduler.chunks(bulletCount, BULLET_CHUNK), advanceBullets);
+        bullets.sweep();
+        if (bulletDamage) {
+            applyDamage();
+        }
+
+        // Everything that finished by now, before anyone decides whether they can shoot
+        timers.advance(clock.millis(), timerExpired);
+
+        // Decide who shoots in parallel, then spawn the bullets in player order
+        // so they take the random numbers and pool slots they always would
+        scheduler.run(playerChunks, updateWeapons);
+        for (int i = 0; i < players.length; i++) {
+            players[i].fire(bullets, random, i);
+            players[i].scheduleTimers(timers, i);
+        }
+        tickClock = null;
+    }
+
+    // Start the wheel over from the players' timestamps. It starts just before now
+    // so anything already due fires in this tick's advance, as it would have.
+    private void restoreTimers(long now) {
+        timers.clear(now - 1);
+        for (int i = 0; i < players.length; i++) {
+            players[i].restoreTimers(timers, i, now);
+        }
+        timersStale = false;
+    }
+
+    private void movePlayers(int chunk) {
+        int end = Math.min(players.length, (chunk + 1) * PLAYER_CHUNK);
+        for (int i = chunk * PLAYER_CHUNK; i < end; i++) {
+            players[i].handleCommands(tickClock);
+            players[i].move();
+        }
+    }
+
+    private void advanceBullets(int chunk) {
+        int from = chunk * BULLET_CHUNK;
+        bullets.advance(from, Math.min(bulletCount, from + BULLET_CHUNK), collision, width, height, rayHits[chunk],
+                hitboxes);
+    }
+
+    // Everyone still standing, where they ended up this tick
+    private void buildHitboxes() {
+        hitboxes.clear();
+        for (int i = 0; i < players.length; i++) {
+            if (players[i].isAlive()) {
+                Player player = players[i].getPlayer();
+                int half = player.getSize() / 2;
+                hitboxes.add(i, player.getX() - half, player.getY() - half);
+            }
+        }
+    }
+
+    // The hits sweep() listed, in its order. Someone already down takes no more.
+    private void applyDamage() {
+        for (int h = 0; h < bullets.getPlayerHitCount(); h++) {
+            int hit = bullets.getPlayerHit(h);
+            PlayerState target = players[HitGrid.playerOf(hit)];
+            if (target.isAlive()) {
+                target.takeDamage(HitGrid.damage(bullets.getPlayerHitDamage(h), HitGrid.regionOf(hit)));
+            }
+        }
+    }
+
+    private void updateWeapons(int chunk) {
+        int end = Math.min(players.length, (chunk + 1) * PLAYER_CHUNK);
+        for (int i = chunk * PLAYER_CHUNK; i < end; i++) {
+            players[i].updateWeapons(tickClock);
+        }
+    }
+
+    // Everything that changes from tick to tick: the random sequence, players and bullets
+    public void writeState(ByteBuffer out) {
+        out.putLong(random.getState());
+        out.putInt(players.length);
+        for (PlayerState state : players) {
+            state.writeState(out);
+        }
+        bullets.writeState(out);
+    }
+
+    public void readState(ByteBuffer in) {
+        random.setState(in.getLong());
+        int count = in.getInt();
+        if (count != players.length) {
+            throw new IllegalArgumentException("state has " + count + " players, match has " + players.length);
+        }
+        for (PlayerState state : players) {
+            state.readState(in);
+        }
+        bullets.readState(in);
+        timersStale = true;
+    }
+
+    // Buffer size that always fits writeState
+    public int maxStateBytes() {
+        return 12 + players.length * 256 + bullets.maxStateBytes();
+    }
+
+    // Put a new player in slot i, as if the match had just started for them: full
+    // health, fresh weapons, at their spawn point. The old one's timers are cancelled.
+    // Call between ticks.
+    public void resetPlayer(int i) {
+        if (!timersStale) {
+            players[i].cancelTimers(timers);
+        }
+        players[i] = new PlayerState(new Player(spawnX(i), spawnY(i), collision));
+    }
+
+    // Change a tile at runtime
+    public void setTile(int row, int col, Tile.Type type) {
+        map.set(row, col, type.code());
+        sight.setWall(row, col, type == Tile.Type.WALL);
+        for (FieldOfView view : views) {
+            view.wallChanged(row, col);
+        }
+    }
+
+    // Threads to spread ticks over. The simulation doesn't own the scheduler, close it yourself.
+    public void setScheduler(TickScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    // Off when something else deals the damage (GameServer). Not part of the saved state.
+    public void setBulletDamage(boolean bulletDamage) {
+        this.bulletDamage = bulletDamage;
+    }
+
+    public TickScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public int getPlayerCount() {
+        return players.length;
+    }
+
+    public PlayerState getPlayerState(int i) {
+        return players[i];
+    }
+
+    // What player i can see from the middle of their body. Only cast again if
+    // they're on another tile or a wall near them changed since the last call, so
+    // nothing is spent on players nobody asks about (headless runs).
+    public FieldOfView getFieldOfView(int i) {
+        Player player = players[i].getPlayer();
+        views[i].update(sight, player.getX(), player.getY());  // Already the centre
+        return views[i];
+    }
+
+    public SightMap getSight() {
+        return sight;
+    }
+
+    public TileMap getMap() {
+        return map;
+    }
+
+    public CollisionMap getCollision() {
+        return collision;
+    }
+
+    public TimerWheel getTimers() {
+        return timers;
+    }
+
+    public BulletPool getBullets() {
+        return bullets;
+    }
+
+    // Shortcuts for player 0, the only player outside of networked matches
+
+    public PlayerInput getInput() {
+        return players[0].getInput();
+    }
+
+    public Player getPlayer() {
+        return players[0].getPlayer();
+    }
+
+    public WeaponType getCurrentWeaponType() {
+        return players[0].getCurrentWeaponType();
+    }
+
+    public Weapon getCurrentWeapon() {
+        return players[0].getCurrentWeapon();
+    }
+
+    public Weapon getWeapon(WeaponType type) {
+        return players[0].getWeapon(type);
+    }
+
+    public boolean isSwitchingWeapon() {
+        return players[0].isSwitchingWeapon();
+    }
+
+    public float getRecoilFactor() {
+        return players[0].getRecoilFactor();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,40 @@
+package valorant2d;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Lock-free triple buffer between the simulation (writer) and renderer (reader).
+// The writer always has a free snapshot to fill and the reader always gets the
+// newest complete one, so neither side ever waits on the other.
+public class SnapshotBuffer {
+	private static final int INDEX_MASK = 0b11;
+	private static final int FRESH = 0b100;  // Set when the middle snapshot hasn't been read yet
+
+	private final WorldSnapshot[] snapshots = new WorldSnapshot[3];
+	private final AtomicInteger middle = new AtomicInteger(1);
+	private int back = 0;   // Owned by the writer
+	private int front = 2;  // Owned by the reader
+
+	public SnapshotBuffer(int bulletCapacity) {
+		for (int i = 0; i < snapshots.length; i++) {
+			snapshots[i] = new WorldSnapshot(bulletCapacity);
+		}
+	}
+
+	// Writer: the snapshot to fill for this tick
+	public WorldSnapshot getWriteSnapshot() {
+		return snapshots[back];
+	}
+
+	// Writer: hand the filled snapshot over and take the old middle one to fill next
+	public void publish() {
+		back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+	}
+
+	// Reader: swap in the newest snapshot if there is one, otherwise keep the current one
+	public WorldSnapshot getLatest() {
+		if ((middle.get() & FRESH) != 0) {
+			front = middle.getAndSet(front) & INDEX_MASK;
+		}
+		return snapshots[front];
+	}
+}
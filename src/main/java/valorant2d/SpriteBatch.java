@@ -0,0 +1,113 @@
+package valorant2d;
+
+import java.awt.*;
+import java.util.Arrays;
+
+// Collects a frame's sprite draws and issues them grouped by atlas page, so each
+// page is validated once per flush and the pipeline sees one source image after
+// another instead of switching texture between sprites. Draws are kept in plain
+// arrays that only grow, so a frame doesn't allocate once the batch has seen
+// its busiest frame.
+//
+// Within a page sprites are drawn in the order they were added. Sprites on
+// different pages can end up in a different order, so flush between layers
+// that must stay on top of each other.
+public class SpriteBatch {
+	private final Atlas atlas;
+
+	private int[] sprite, x, y, width, height;
+	private int count = 0;
+
+	// Counting sort by page
+	private int[] order;
+	private final int[] pageStart;
+
+	public SpriteBatch(Atlas atlas, int capacity) {
+		this.atlas = atlas;
+		sprite = new int[capacity];
+		x = new int[capacity];
+		y = new int[capacity];
+		width = new int[capacity];
+		height = new int[capacity];
+		order = new int[capacity];
+		pageStart = new int[atlas.getPageCount() + 1];
+	}
+
+	public Atlas getAtlas() {
+		return atlas;
+	}
+
+	// Queue a sprite at its own size with its top-left corner at x, y
+	public void add(int sprite, int x, int y) {
+		add(sprite, x, y, atlas.getWidth(sprite), atlas.getHeight(sprite));
+	}
+
+	// Queue a sprite stretched to width x height
+	public void add(int sprite, int x, int y, int width, int height) {
+		if (count == this.sprite.length) {
+			grow();
+		}
+		this.sprite[count] = sprite;
+		this.x[count] = x;
+		this.y[count] = y;
+		this.width[count] = width;
+		this.height[count] = height;
+		count++;
+	}
+
+	private void grow() {
+		int capacity = Math.max(16, count * 2);
+		sprite = Arrays.copyOf(sprite, capacity);
+		x = Arrays.copyOf(x, capacity);
+		y = Arrays.copyOf(y, capacity);
+		width = Arrays.copyOf(width, capacity);
+		height = Arrays.copyOf(height, capacity);
+		order = new int[capacity];
+	}
+
+	// Draw everything queued and empty the batch. gc is the screen's
+	// GraphicsConfiguration, or null when drawing off-screen. Returns how many sprites were drawn.
+	public int flush(Graphics g, GraphicsConfiguration gc) {
+		int pages = atlas.getPageCount();
+		Arrays.fill(pageStart, 0);
+		for (int i = 0; i < count; i++) {
+			pageStart[atlas.getPage(sprite[i]) + 1]++;
+		}
+		for (int p = 0; p < pages; p++) {
+			pageStart[p + 1] += pageStart[p];
+		}
+		for (int i = 0; i < count; i++) {
+			order[pageStart[atlas.getPage(sprite[i])]++] = i;
+		}
+		// pageStart[p] is now where page p ends; it starts where page p - 1 ends
+
+		int start = 0;
+		for (int p = 0; p < pages; p++) {
+			int end = pageStart[p];
+			if (end > start) {
+				do {
+					drawPage(g, atlas.getPageImage(p, gc), start, end);
+				} while (atlas.contentsLost(p));
+			}
+			start = end;
+		}
+
+		int drawn = count;
+		count = 0;
+		return drawn;
+	}
+
+	private void drawPage(Graphics g, Image page, int start, int end) {
+		for (int k = start; k < end; k++) {
+			int i = order[k];
+			int s = sprite[i];
+			int sx = atlas.getX(s), sy = atlas.getY(s);
+			g.drawImage(page, x[i], y[i], x[i] + width[i], y[i] + height[i], sx, sy, sx + atlas.getWidth(s),
+					sy + atlas.getHeight(s), null);
+		}
+	}
+
+	public int size() {
+		return count;
+	}
+}
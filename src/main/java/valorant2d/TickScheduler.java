@@ -0,0 +1,116 @@
+package valorant2d;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Runs one phase of a tick as numbered chunks of work, on a fork-join pool when
+// there is more than one thread. The range of chunks is split in halves until
+// single chunks are left, and idle workers steal halves from busy ones, so
+// uneven chunks (a clump of bullets raycasting across the map) even out.
+//
+// Chunks must only write to their own entities. Anything they produce for the
+// rest of the world goes into a buffer owned by the chunk (or entity), and the
+// caller merges those in chunk order after run() returns. Chunks are cut the
+// same way whatever the thread count, so the result doesn't depend on it.
+//
+// One scheduler can be shared by any number of simulations, as long as they
+// tick one at a time. SERIAL runs every chunk on the calling thread.
+//
+// The fork-join tasks are kept and reinitialized from one run to the next: they
+// form a binary tree stored as an array (node i splits into 2i+1 and 2i+2), made
+// once for the most chunks seen so far, so a run allocates nothing of its own
+// (the pool still makes about 70 bytes a tick waking its workers).
+public class TickScheduler implements AutoCloseable {
+	public static final TickScheduler SERIAL = new TickScheduler(1);
+
+	public interface Chunk {
+		void run(int chunk);
+	}
+
+	private final int threads;
+	private final ForkJoinPool pool;  // null when serial
+	private Range[] tasks = new Range[0];  // The split tree, by node
+
+	public TickScheduler(int threads) {
+		this.threads = Math.max(1, threads);
+		this.pool = this.threads > 1 ? new ForkJoinPool(this.threads) : null;
+	}
+
+	// Number of chunks needed to cover count entities, chunkSize at a time
+	public static int chunks(int count, int chunkSize) {
+		return (count + chunkSize - 1) / chunkSize;
+	}
+
+	// Run job for chunks 0..chunks-1 and return once they're all done
+	public void run(int chunks, Chunk job) {
+		if (pool == null || chunks <= 1) {
+			for (int i = 0; i < chunks; i++) {
+				job.run(i);
+			}
+		} else {
+			Range root = tasks(chunks)[0];
+			root.set(job, 0, chunks);
+			pool.invoke(root);
+		}
+	}
+
+	// Enough nodes to split chunks down to single ones. Halving by midpoint keeps
+	// the tree within 4 * chunks nodes.
+	private Range[] tasks(int chunks) {
+		int nodes = 4 * chunks;
+		if (tasks.length < nodes) {
+			Range[] grown = new Range[nodes];
+			for (int i = 0; i < nodes; i++) {
+				grown[i] = new Range(grown, i);
+			}
+			tasks = grown;
+		}
+		return tasks;
+	}
+
+	private static final class Range extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Range[] tree;
+		private final int node;
+		private Chunk job;
+		private int from, to;
+
+		Range(Range[] tree, int node) {
+			this.tree = tree;
+			this.node = node;
+		}
+
+		// Ready to run again; the fork (or invoke) publishes these to the worker
+		void set(Chunk job, int from, int to) {
+			reinitialize();
+			this.job = job;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from == 1) {
+				job.run(from);
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			Range left = tree[2 * node + 1], right = tree[2 * node + 2];
+			left.set(job, from, mid);
+			right.set(job, mid, to);
+			invokeAll(left, right);
+		}
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	@Override
+	public void close() {
+		if (pool != null) {
+			pool.shutdown();
+		}
+	}
+}
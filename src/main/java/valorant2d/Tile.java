@@ -0,0 +1,34 @@
+package valorant2d;
+
+import java.util.Locale;
+
+// Tile types and which sprite draws them. The map itself is a packed byte grid (TileMap),
+// one byte per tile holding the type's code, so there are no per-tile objects.
+public final class Tile {
+	public enum Type {
+		FLOOR, WALL;
+
+		// Byte stored in the map and in map files
+		public byte code() {
+			return (byte) ordinal();
+		}
+
+		// Name of the type's sprite in the atlas (src/main/sprites/<name>.png)
+		public String spriteName() {
+			return name().toLowerCase(Locale.ROOT);
+		}
+	}
+
+	public static final byte FLOOR = 0;
+	public static final byte WALL = 1;
+
+	private static final Type[] TYPES = Type.values();
+
+	private Tile() {
+	}
+
+	// Codes we don't know (e.g. from a newer map file) read as floor
+	public static Type typeOf(byte code) {
+		return code >= 0 && code < TYPES.length ? TYPES[code] : Type.FLOOR;
+	}
+}
@@ -0,0 +1,229 @@
+package valorant2d;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.Arrays;
+
+// Keeps the tile map pre-drawn in images so a frame only needs a few drawImage calls.
+// The map is cut into square chunks that are drawn (and cached) only when they are
+// on screen, so the cost of a frame follows the screen size, not the map size.
+// Chunks are redrawn after one of their tiles is marked dirty, and dropped after
+// they have been off screen for a while.
+public class TileLayer {
+	private static final int CHUNK_TILES = TileMap.CHUNK_TILES;  // Same chunks as the map, so a chunk is one array
+	private static final int EVICT_FRAMES = 300;  // Frames off screen before a chunk's image is freed
+
+	private final TileMap map;
+	private final int rows, cols;
+	private final int tileSize;
+	private final int chunkPixels;
+	private final int chunkRows, chunkCols;
+
+	private final VolatileImage[] volatileImages;  // Accelerated copies when we're on screen
+	private final BufferedImage[] bufferedImages;  // Used when there is no GraphicsConfiguration (off-screen/headless)
+	private final boolean[] isDirty;  // Chunks that need redrawing, guarded by this
+	private final long[] lastDrawn;  // Frame each chunk was last on screen
+
+	// Chunks that currently hold an image, so eviction doesn't scan the whole map
+	private final int[] cached;
+	private int cachedCount = 0;
+
+	// Atlas sprite for every possible tile byte, and the batch tiles are drawn through
+	private final int[] spriteOf = new int[256];
+	private final SpriteBatch batch;
+
+	private long frame = 0;
+	private int tilesDrawn = 0;  // Tiles redrawn into the cache during the last draw
+	private int chunksDrawn = 0;  // Chunks blitted during the last draw
+
+	public TileLayer(TileMap map, Atlas atlas) {
+		this.map = map;
+		this.rows = map.getRows();
+		this.cols = map.getCols();
+		this.tileSize = map.getTileSize();
+		this.chunkPixels = CHUNK_TILES * tileSize;
+		this.chunkRows = (rows + CHUNK_TILES - 1) / CHUNK_TILES;
+		this.chunkCols = (cols + CHUNK_TILES - 1) / CHUNK_TILES;
+
+		int chunks = chunkRows * chunkCols;
+		this.volatileImages = new VolatileImage[chunks];
+		this.bufferedImages = new BufferedImage[chunks];
+		this.isDirty = new boolean[chunks];
+		this.lastDrawn = new long[chunks];
+		this.cached = new int[chunks];
+
+		for (int code = 0; code < spriteOf.length; code++) {
+			spriteOf[code] = atlas.find(Tile.typeOf((byte) code).spriteName());
+		}
+		this.batch = new SpriteBatch(atlas, CHUNK_TILES * CHUNK_TILES);
+	}
+
+	// Call this after changing a tile so the cached image picks it up.
+	// Tiles change on the simulation thread and get redrawn on the render thread,
+	// so the dirty flags are guarded (this only happens when the map actually changes).
+	// The whole chunk is redrawn, which is a few hundred sprite copies and only happens on change.
+	public synchronized void markDirty(int row, int col) {
+		isDirty[(row / CHUNK_TILES) * chunkCols + col / CHUNK_TILES] = true;
+	}
+
+	public synchronized void markAllDirty() {
+		Arrays.fill(isDirty, true);
+	}
+
+	// Draw the whole map
+	public void draw(Graphics g, GraphicsConfiguration gc) {
+		draw(g, gc, 0, 0, cols * tileSize, rows * tileSize);
+	}
+
+	// Draw the chunks that overlap the view rectangle (world pixels).
+	// g must already be translated so it draws in world coordinates.
+	public void draw(Graphics g, GraphicsConfiguration gc, int viewX, int viewY, int viewWidth, int viewHeight) {
+		tilesDrawn = 0;
+		chunksDrawn = 0;
+		frame++;
+
+		int firstCol = Math.max(0, Math.floorDiv(viewX, chunkPixels));
+		int lastCol = Math.min(chunkCols - 1, Math.floorDiv(viewX + viewWidth - 1, chunkPixels));
+		int firstRow = Math.max(0, Math.floorDiv(viewY, chunkPixels));
+		int lastRow = Math.min(chunkRows - 1, Math.floorDiv(viewY + viewHeight - 1, chunkPixels));
+
+		for (int chunkRow = firstRow; chunkRow <= lastRow; chunkRow++) {
+			for (int chunkCol = firstCol; chunkCol <= lastCol; chunkCol++) {
+				int chunk = chunkRow * chunkCols + chunkCol;
+				if (gc == null) {
+					drawBuffered(g, chunk);
+				} else {
+					drawVolatile(g, gc, chunk);
+				}
+				lastDrawn[chunk] = frame;
+				chunksDrawn++;
+			}
+		}
+
+		evictStale();
+	}
+
+	private void drawVolatile(Graphics g, GraphicsConfiguration gc, int chunk) {
+		int x = chunkX(chunk), y = chunkY(chunk);
+		VolatileImage image = volatileImages[chunk];
+		do {
+			boolean redraw = takeDirty(chunk);
+			if (image == null) {
+				image = createVolatile(gc, chunk);
+				redraw = true;
+			}
+
+			int status = image.validate(gc);
+			if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+				// Display mode changed, start over with a new image
+				image.flush();
+				image = createVolatile(gc, chunk);
+				redraw = true;
+			} else if (status == VolatileImage.IMAGE_RESTORED) {
+				// Contents were lost (e.g. alt-tab), so the chunk needs redrawing
+				redraw = true;
+			}
+
+			if (redraw) {
+				redrawChunk(image.createGraphics(), gc, chunk);
+			}
+
+			g.drawImage(image, x, y, null);
+		} while (image.contentsLost());
+	}
+
+	private VolatileImage createVolatile(GraphicsConfiguration gc, int chunk) {
+		if (volatileImages[chunk] == null) {
+			cached[cachedCount++] = chunk;
+		}
+		VolatileImage image = gc.createCompatibleVolatileImage(chunkWidth(chunk), chunkHeight(chunk));
+		volatileImages[chunk] = image;
+		return image;
+	}
+
+	private void drawBuffered(Graphics g, int chunk) {
+		BufferedImage image = bufferedImages[chunk];
+		boolean redraw = takeDirty(chunk);
+		if (image == null) {
+			image = new BufferedImage(chunkWidth(chunk), chunkHeight(chunk), BufferedImage.TYPE_INT_RGB);
+			bufferedImages[chunk] = image;
+			cached[cachedCount++] = chunk;
+			redraw = true;
+		}
+		if (redraw) {
+			redrawChunk(image.createGraphics(), null, chunk);
+		}
+		g.drawImage(image, chunkX(chunk), chunkY(chunk), null);
+	}
+
+	// Free the images of chunks that haven't been on screen for a while
+	private void evictStale() {
+		int i = 0;
+		while (i < cachedCount) {
+			int chunk = cached[i];
+			if (frame - lastDrawn[chunk] > EVICT_FRAMES) {
+				if (volatileImages[chunk] != null) {
+					volatileImages[chunk].flush();
+					volatileImages[chunk] = null;
+				}
+				bufferedImages[chunk] = null;
+				cached[i] = cached[--cachedCount];
+			} else {
+				i++;
+			}
+		}
+	}
+
+	public int getTilesDrawn() {
+		return tilesDrawn;
+	}
+
+	public int getChunksDrawn() {
+		return chunksDrawn;
+	}
+
+	public int getChunksCached() {
+		return cachedCount;
+	}
+
+	private synchronized boolean takeDirty(int chunk) {
+		boolean dirty = isDirty[chunk];
+		isDirty[chunk] = false;
+		return dirty;
+	}
+
+	// Draw every tile of a chunk into its image
+	private void redrawChunk(Graphics2D ig, GraphicsConfiguration gc, int chunk) {
+		ig.translate(-chunkX(chunk), -chunkY(chunk));
+		int firstRow = (chunk / chunkCols) * CHUNK_TILES;
+		int firstCol = (chunk % chunkCols) * CHUNK_TILES;
+		int lastRow = Math.min(rows, firstRow + CHUNK_TILES);
+		int lastCol = Math.min(cols, firstCol + CHUNK_TILES);
+		for (int row = firstRow; row < lastRow; row++) {
+			for (int col = firstCol; col < lastCol; col++) {
+				batch.add(spriteOf[map.get(row, col) & 0xFF], col * tileSize, row * tileSize, tileSize, tileSize);
+			}
+		}
+		batch.flush(ig, gc);
+		tilesDrawn += (lastRow - firstRow) * (lastCol - firstCol);
+		ig.dispose();
+	}
+
+	private int chunkX(int chunk) {
+		return (chunk % chunkCols) * chunkPixels;
+	}
+
+	private int chunkY(int chunk) {
+		return (chunk / chunkCols) * chunkPixels;
+	}
+
+	// Chunks on the right and bottom edges can be smaller than the rest
+	private int chunkWidth(int chunk) {
+		return Math.min(chunkPixels, cols * tileSize - chunkX(chunk));
+	}
+
+	private int chunkHeight(int chunk) {
+		return Math.min(chunkPixels, rows * tileSize - chunkY(chunk));
+	}
+}
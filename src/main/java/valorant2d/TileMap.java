@@ -0,0 +1,177 @@
+package valorant2d;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// The tile grid, one byte per tile (see Tile for the codes), split into square chunks.
+// A map loaded from a file (MapFile) only keeps the chunks it has been asked about:
+// a chunk is read from the mapped file the first time it's needed, and retainAround()
+// drops the ones far from the camera, so memory use follows the view and not the map.
+// Generated maps have no file behind them and keep every chunk.
+//
+// The simulation thread reads and changes tiles; the render thread only reads them.
+public class TileMap {
+	private static final int CHUNK_SHIFT = 4;
+	private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+	public static final int CHUNK_TILES = 1 << CHUNK_SHIFT;  // Chunk edge in tiles
+	static final int CHUNK_AREA = CHUNK_TILES * CHUNK_TILES;
+
+	private final int cols, rows;
+	private final int tileSize;
+	private final int chunkCols, chunkRows;
+
+	// null while a chunk isn't loaded. Set with compareAndSet so two threads loading
+	// the same chunk end up sharing one array.
+	private final AtomicReferenceArray<byte[]> chunks;
+	private final boolean[] pinned;  // Chunks changed at runtime, never dropped (simulation thread)
+
+	private final ByteBuffer source;  // Chunk-major tile bytes, null for generated maps
+	private final int sourceOffset;
+
+	// Chunk rectangle kept by the last retainAround call
+	private int keptFirstCol = -1, keptFirstRow = -1, keptLastCol = -1, keptLastRow = -1;
+
+	// A map with every tile set to floor
+	public TileMap(int cols, int rows, int tileSize) {
+		this(cols, rows, tileSize, null, 0);
+		for (int i = 0; i < chunks.length(); i++) {
+			chunks.set(i, new byte[CHUNK_AREA]);
+		}
+	}
+
+	// A map backed by a file, see MapFile
+	TileMap(int cols, int rows, int tileSize, ByteBuffer source, int sourceOffset) {
+		this.cols = cols;
+		this.rows = rows;
+		this.tileSize = tileSize;
+		this.chunkCols = (cols + CHUNK_TILES - 1) / CHUNK_TILES;
+		this.chunkRows = (rows + CHUNK_TILES - 1) / CHUNK_TILES;
+		this.chunks = new AtomicReferenceArray<>(chunkCols * chunkRows);
+		this.pinned = new boolean[chunkCols * chunkRows];
+		this.source = source;
+		this.sourceOffset = sourceOffset;
+	}
+
+	// Walls around the edge and floor everywhere else
+	public static TileMap bordered(int cols, int rows, int tileSize) {
+		TileMap map = new TileMap(cols, rows, tileSize);
+		for (int col = 0; col < cols; col++) {
+			map.set(0, col, Tile.WALL);
+			map.set(rows - 1, col, Tile.WALL);
+		}
+		for (int row = 0; row < rows; row++) {
+			map.set(row, 0, Tile.WALL);
+			map.set(row, cols - 1, Tile.WALL);
+		}
+		return map;
+	}
+
+	// Tile code at (row, col), which must be inside the map
+	public byte get(int row, int col) {
+		int chunk = (row >> CHUNK_SHIFT) * chunkCols + (col >> CHUNK_SHIFT);
+		byte[] tiles = chunks.getAcquire(chunk);
+		if (tiles == null) {
+			tiles = load(chunk);
+		}
+		return tiles[((row & CHUNK_MASK) << CHUNK_SHIFT) + (col & CHUNK_MASK)];
+	}
+
+	public Tile.Type getType(int row, int col) {
+		return Tile.typeOf(get(row, col));
+	}
+
+	// Change a tile (simulation thread). The chunk stays in memory from now on,
+	// since the file doesn't have the change.
+	public void set(int row, int col, byte type) {
+		int chunk = (row >> CHUNK_SHIFT) * chunkCols + (col >> CHUNK_SHIFT);
+		byte[] tiles = chunks.get(chunk);
+		if (tiles == null) {
+			tiles = load(chunk);
+		}
+		pinned[chunk] = true;
+		tiles[((row & CHUNK_MASK) << CHUNK_SHIFT) + (col & CHUNK_MASK)] = type;
+	}
+
+	// Read a chunk from the file
+	private byte[] load(int chunk) {
+		byte[] tiles = new byte[CHUNK_AREA];
+		source.get(sourceOffset + chunk * CHUNK_AREA, tiles);
+		return chunks.compareAndSet(chunk, null, tiles) ? tiles : chunks.get(chunk);
+	}
+
+	// Keep the chunks overlapping the given world rectangle (plus one chunk all round)
+	// loaded, and drop the rest. Cheap when the rectangle is still over the same chunks,
+	// so it can be called every tick with the camera's view (simulation thread).
+	public void retainAround(int x, int y, int width, int height) {
+		if (source == null) {
+			return;  // Nothing to reload from
+		}
+
+		int chunkPixels = CHUNK_TILES * tileSize;
+		int firstCol = Math.max(0, Math.floorDiv(x, chunkPixels) - 1);
+		int lastCol = Math.min(chunkCols - 1, Math.floorDiv(x + width - 1, chunkPixels) + 1);
+		int firstRow = Math.max(0, Math.floorDiv(y, chunkPixels) - 1);
+		int lastRow = Math.min(chunkRows - 1, Math.floorDiv(y + height - 1, chunkPixels) + 1);
+		if (firstCol == keptFirstCol && lastCol == keptLastCol && firstRow == keptFirstRow && lastRow == keptLastRow) {
+			return;
+		}
+		keptFirstCol = firstCol;
+		keptLastCol = lastCol;
+		keptFirstRow = firstRow;
+		keptLastRow = lastRow;
+
+		for (int chunkRow = 0; chunkRow < chunkRows; chunkRow++) {
+			for (int chunkCol = 0; chunkCol < chunkCols; chunkCol++) {
+				int chunk = chunkRow * chunkCols + chunkCol;
+				boolean keep = chunkRow >= firstRow && chunkRow <= lastRow && chunkCol >= firstCol && chunkCol <= lastCol;
+				if (keep) {
+					if (chunks.get(chunk) == null) {
+						load(chunk);  // Load ahead so the first draw doesn't have to
+					}
+				} else if (!pinned[chunk]) {
+					chunks.set(chunk, null);
+				}
+			}
+		}
+	}
+
+	public int getLoadedChunks() {
+		int loaded = 0;
+		for (int i = 0; i < chunks.length(); i++) {
+			if (chunks.get(i) != null) {
+				loaded++;
+			}
+		}
+		return loaded;
+	}
+
+	// A chunk's tiles, loading it if needed (for writing map files)
+	byte[] chunk(int chunk) {
+		byte[] tiles = chunks.get(chunk);
+		return tiles != null ? tiles : load(chunk);
+	}
+
+	public int getCols() {
+		return cols;
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public int getTileSize() {
+		return tileSize;
+	}
+
+	public int getChunkCount() {
+		return chunkCols * chunkRows;
+	}
+
+	public int getWidth() {
+		return cols * tileSize;
+	}
+
+	public int getHeight() {
+		return rows * tileSize;
+	}
+}
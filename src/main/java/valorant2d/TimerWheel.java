@@ -0,0 +1,237 @@
+package valorant2d;
+
+import java.util.Arrays;
+
+// Timers that fire at a given time, for things that finish later (a reload, an
+// equip, a cooldown) so nothing has to check every tick whether they're done.
+// Time is in whole units (the simulation uses game-clock milliseconds) and only
+// moves forward through advance(), which fires everything due by then in time
+// order. Empty stretches of time are skipped using a bit per slot, so the cost
+// of a tick is the timers that expire in it and not how many are waiting.
+//
+// Hierarchical: level 0 has a slot per unit for the next 64 units, level 1 a
+// slot per 64 units for the next 64 * 64, and so on. A timer goes in the lowest
+// level whose slot span reaches it and moves down a level each time the clock
+// enters its slot, so it's touched at most once per level.
+//
+// Each timer is a row of eight ints in one array (due time, owner, kind, the
+// links in its slot's list, and so on), so expiring one touches a cache line or
+// two rather than one per field. A handle is the row plus a generation, so
+// cancelling a timer that already fired does nothing. Scheduling, cancelling
+// and firing don't allocate. Times are kept relative to the start, which can be
+// anything (negative too), and run for 64^6 units from it. Not thread safe.
+public class TimerWheel {
+	public static final int NONE = -1;
+
+	public interface Listener {
+		void expired(int owner, int kind);
+	}
+
+	private static final int SLOT_BITS = 6;
+	private static final int SLOTS = 1 << SLOT_BITS;
+	private static final int SLOT_MASK = SLOTS - 1;
+	private static final int LEVELS = 6;  // 64^6 units, over two years in milliseconds
+	private static final long MAX_TIME = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+	private static final int INDEX_BITS = 20;
+	private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+	private static final int MAX_GENERATION = (1 << (31 - INDEX_BITS)) - 1;
+
+	// Fields of a timer's row
+	private static final int DUE_LOW = 0, DUE_HIGH = 1;
+	private static final int OWNER = 2, KIND = 3;
+	private static final int NEXT = 4, PREV = 5;  // NEXT also chains free rows
+	private static final int SLOT = 6;  // NONE while free
+	private static final int GENERATION = 7;
+	private static final int STRIDE = 8;
+
+	private final int[] head = new int[LEVELS * SLOTS];  // First timer in each slot
+	private final long[] occupied = new long[LEVELS];  // Bit per non-empty slot
+	private long origin;  // The start, what the times below are relative to
+	private long current;  // Everything due by now has fired
+
+	private int[] timers;  // STRIDE ints per timer
+	private int rows = 0;
+	private int freeHead = NONE;
+	private int count = 0;
+	private long fired = 0;
+
+	public TimerWheel(int capacity, long start) {
+		timers = new int[Math.max(16, capacity) * STRIDE];
+		Arrays.fill(head, NONE);
+		this.origin = start;
+	}
+
+	// Fire `kind` for `owner` at time `at` (next advance if that's already passed).
+	// Returns a handle for cancel().
+	public int schedule(long at, int owner, int kind) {
+		int timer = allocate();
+		int row = timer * STRIDE;
+		long due = Math.min(Math.max(at - origin, current + 1), MAX_TIME);
+		timers[row + DUE_LOW] = (int) due;
+		timers[row + DUE_HIGH] = (int) (due >>> 32);
+		timers[row + OWNER] = owner;
+		timers[row + KIND] = kind;
+		link(timer, due);
+		count++;
+		return (timers[row + GENERATION] << INDEX_BITS) | timer;
+	}
+
+	// Returns false if the timer had already fired or been cancelled
+	public boolean cancel(int handle) {
+		if (handle == NONE) {
+			return false;
+		}
+		int timer = handle & INDEX_MASK;
+		int row = timer * STRIDE;
+		if (timer >= rows || timers[row + SLOT] == NONE || timers[row + GENERATION] != handle >>> INDEX_BITS) {
+			return false;
+		}
+		unlink(timer);
+		release(timer);
+		return true;
+	}
+
+	// Move time forward to `now`, firing every timer due by then. Returns how many fired.
+	public int advance(long now, Listener listener) {
+		if (now - origin >= MAX_TIME) {
+			throw new IllegalStateException("time " + now + " is past the end of the wheel, clear it first");
+		}
+		now -= origin;
+		int firedNow = 0;
+		while (current < now) {
+			if (count == 0) {
+				current = now;  // Nothing to fire on the way
+				break;
+			}
+			// Level 0 only holds timers due later in this block of 64, so jump to just
+			// before the first of them, or to the end of the block if there are none
+			long target = occupied[0] != 0 ? (current & ~SLOT_MASK) + Long.numberOfTrailingZeros(occupied[0]) - 1
+					: current | SLOT_MASK;
+			if (target > current) {
+				current = Math.min(target, now);
+				continue;
+			}
+			current++;
+
+			// Entering a new slot on the levels above: bring its timers down, top level first
+			int rolled = 0;
+			while (rolled + 1 < LEVELS && (current & ((1L << (SLOT_BITS * (rolled + 1))) - 1)) == 0) {
+				rolled++;
+			}
+			for (int level = rolled; level >= 1; level--) {
+				cascade(level, (int) (current >>> (SLOT_BITS * level)) & SLOT_MASK);
+			}
+
+			int slot = (int) current & SLOT_MASK;
+			while (head[slot] != NONE) {
+				int timer = head[slot];
+				int row = timer * STRIDE;
+				int timerOwner = timers[row + OWNER], timerKind = timers[row + KIND];
+				unlink(timer);
+				release(timer);
+				fired++;
+				firedNow++;
+				listener.expired(timerOwner, timerKind);
+			}
+		}
+		return firedNow;
+	}
+
+	// Drop every timer and start again at `start` (e.g. after restoring a keyframe)
+	public void clear(long start) {
+		Arrays.fill(head, NONE);
+		Arrays.fill(occupied, 0);
+		for (int timer = 0; timer < rows; timer++) {
+			if (timers[timer * STRIDE + SLOT] != NONE) {
+				release(timer);
+			}
+		}
+		origin = start;
+		current = 0;
+	}
+
+	private void cascade(int level, int index) {
+		int slot = level * SLOTS + index;
+		while (head[slot] != NONE) {
+			int timer = head[slot];
+			int row = timer * STRIDE;
+			unlink(timer);
+			link(timer, ((long) timers[row + DUE_HIGH] << 32) | (timers[row + DUE_LOW] & 0xFFFFFFFFL));
+		}
+	}
+
+	// Put a timer in the slot for its due time, on the level where that first differs from now
+	private void link(int timer, long due) {
+		int level = (63 - Long.numberOfLeadingZeros(due ^ current)) / SLOT_BITS;
+		int slot = level * SLOTS + ((int) (due >>> (SLOT_BITS * level)) & SLOT_MASK);
+		int row = timer * STRIDE;
+		int first = head[slot];
+		timers[row + SLOT] = slot;
+		timers[row + PREV] = NONE;
+		timers[row + NEXT] = first;
+		if (first != NONE) {
+			timers[first * STRIDE + PREV] = timer;
+		}
+		head[slot] = timer;
+		occupied[level] |= 1L << (slot & SLOT_MASK);
+	}
+
+	private void unlink(int timer) {
+		int row = timer * STRIDE;
+		int slot = timers[row + SLOT];
+		int before = timers[row + PREV], after = timers[row + NEXT];
+		if (before != NONE) {
+			timers[before * STRIDE + NEXT] = after;
+		} else {
+			head[slot] = after;
+		}
+		if (after != NONE) {
+			timers[after * STRIDE + PREV] = before;
+		}
+		if (head[slot] == NONE) {
+			occupied[slot / SLOTS] &= ~(1L << (slot & SLOT_MASK));
+		}
+		timers[row + SLOT] = NONE;
+	}
+
+	private int allocate() {
+		if (freeHead != NONE) {
+			int timer = freeHead;
+			freeHead = timers[timer * STRIDE + NEXT];
+			return timer;
+		}
+		if (rows * STRIDE == timers.length) {
+			if (rows * 2 - 1 > INDEX_MASK) {
+				throw new IllegalStateException("too many timers");
+			}
+			timers = Arrays.copyOf(timers, timers.length * 2);
+		}
+		int row = rows * STRIDE;
+		timers[row + SLOT] = NONE;
+		timers[row + GENERATION] = 0;
+		return rows++;
+	}
+
+	private void release(int timer) {
+		int row = timer * STRIDE;
+		timers[row + SLOT] = NONE;
+		int generation = timers[row + GENERATION];
+		timers[row + GENERATION] = generation == MAX_GENERATION ? 0 : generation + 1;
+		timers[row + NEXT] = freeHead;
+		freeHead = timer;
+		count--;
+	}
+
+	public long getTime() {
+		return origin + current;
+	}
+
+	public int size() {
+		return count;
+	}
+
+	public long getFired() {
+		return fired;
+	}
+}
@@ -0,0 +1,63 @@
+package valorant2d;
+
+import java.awt.*;
+import java.awt.event.KeyEvent;
+
+public class TitleScreen {
+
+    // Fonts and colors are made once; the two lines of text are cached images (Label)
+    private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 72);
+    private static final Font INSTRUCTION_FONT = new Font("Arial", Font.PLAIN, 24);
+    private static final Color BACKGROUND = new Color(30, 30, 30);  // Dark gray
+    private static final Color TITLE_COLOR = new Color(255, 255, 255);  // White color for the title
+    private static final Color INSTRUCTION_COLOR = new Color(200, 200, 200);  // Light grey for instructions
+
+    private final Label title = new Label(TITLE_FONT, TITLE_COLOR, "My Shooter Game");
+    private final Label instruction = new Label(INSTRUCTION_FONT, INSTRUCTION_COLOR, "Loading...");
+    private final Atlas.Loader atlasLoader;  // Null when there is nothing to wait for
+    private boolean waiting;  // Still showing "Loading..."
+    private int WIDTH, HEIGHT;
+
+    // Constructor that initializes the screen width and height
+    public TitleScreen(int width, int height, Atlas.Loader atlasLoader) {
+        this.WIDTH = width;
+        this.HEIGHT = height;
+        this.atlasLoader = atlasLoader;
+        this.waiting = atlasLoader != null;
+        if (!waiting) {
+            instruction.setText("Press Enter to Start");
+        }
+    }
+
+    // Render the title screen visuals
+    public void render(Graphics g) {
+        // Set background color to dark gray
+        g.setColor(BACKGROUND);
+        g.fillRect(0, 0, WIDTH, HEIGHT);  // Use the instance variables for width and height
+
+        // Draw the game title (e.g., "My Shooter Game")
+        title.draw(g, (WIDTH - title.getWidth()) / 2, HEIGHT / 3);
+
+        // Draw instructions (e.g., "Press Enter to Start"), once the sprites are loaded
+        if (waiting && atlasLoader.isDone()) {
+            instruction.setText(atlasLoader.get() != null ? "Press Enter to Start"
+                    : "Couldn't load sprites: " + atlasLoader.getError().getMessage());
+            waiting = false;
+        }
+        instruction.draw(g, (WIDTH - instruction.getWidth()) / 2, HEIGHT / 2 + 100);
+    }
+
+    // The game can't start until the sprites are in
+    public boolean isReady() {
+        return atlasLoader == null || atlasLoader.get() != null;
+    }
+
+    // Handle user input during the title screen
+    public void keyPressed(KeyEvent e) {
+        if (e.getKeyCode() == KeyEvent.VK_ENTER && isReady()) {
+        	
+            Game.setGameState(GameState.MENU);
+            
+        }
+    }
+}
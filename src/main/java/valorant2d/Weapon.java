@@ -0,0 +1,209 @@
+package valorant2d;
+
+import java.nio.ByteBuffer;
+
+// Ammo, fire rate and reload state for one weapon.
+// Nothing here reads the clock to find out whether a cooldown or reload is over:
+// shooting and reloading take the time they happen, the owner schedules a timer
+// for the due time (getFireReadyTime etc., see PlayerState and TimerWheel) and
+// calls setFireReady, setSprayReady or finishReload when it fires.
+public class Weapon {
+	static final int SPRAY_COOLDOWN_MS = 1500;
+
+	private WeaponType type;
+	private int magSize, reserveAmmoMax, bulletsInMag, reserveAmmo;
+	private int fireRateMs, equipTimeMs, reloadTimeMs, sprayFireRateMs;
+	private int damage;  // To the body, HitGrid scales it for head and legs
+	private RecoilPattern recoil;  // Where its shots go relative to the aim
+	private long lastFiredTime;
+	private boolean isReloading = false;
+	private long reloadStartTime = 0;
+	
+	private long sprayCooldownStartTime;  // Time when cooldown started
+	private final int sprayCooldownMs = SPRAY_COOLDOWN_MS;
+
+	// Cleared by shooting and spraying, set again when their timers fire
+	private boolean fireReady = true;
+	private boolean sprayReady = true;
+
+	public Weapon(WeaponType type, int magSize, int reserveAmmoMax, int fireRateMs, int equipTimeMs, int reloadTimeMs, int sprayFireRateMs,
+			int damage, RecoilPattern recoil) {
+		this.type = type;
+		this.magSize = magSize;
+		this.reserveAmmoMax = reserveAmmoMax;
+		this.bulletsInMag = magSize;
+		this.reserveAmmo = reserveAmmoMax;
+		this.fireRateMs = fireRateMs;
+		this.equipTimeMs = equipTimeMs;
+		this.reloadTimeMs = reloadTimeMs;
+		this.sprayFireRateMs = sprayFireRateMs;
+		this.damage = damage;
+		this.recoil = recoil;
+
+		// Ready to fire straight away, even when the game clock starts at 0
+		this.lastFiredTime = -fireRateMs;
+		this.sprayCooldownStartTime = -sprayCooldownMs;
+	}
+
+	public boolean canShoot() {
+		return !isReloading && bulletsInMag > 0 && fireReady;
+	}
+
+	public boolean canSpray() {
+		// Can spray if not reloading, have enough bullets, and the 1.5 second cooldown is over
+		return !isReloading && bulletsInMag >= 3 && sprayReady;
+	}
+
+	public void shoot(long now) {
+		if (canShoot()) {
+			bulletsInMag--;
+			lastFiredTime = now;
+			fireReady = false;
+		}
+	}
+
+	public void spray(long now) {
+		if (canSpray()) {
+			bulletsInMag -= 3;  // Spray uses 3 bullets
+			lastFiredTime = now;
+			sprayCooldownStartTime = now;  // Start the cooldown after spraying
+			fireReady = false;
+			sprayReady = false;
+		}
+	}
+
+	public boolean shouldAutoReload() {
+		return bulletsInMag <= 0 && reserveAmmo > 0;
+	}
+
+	// Returns true if a reload started, in which case it's done at getReloadDoneTime
+	public boolean startReload(long now) {
+		if (!isReloading && reserveAmmo > 0 && bulletsInMag < magSize) {
+			isReloading = true;
+			reloadStartTime = now;
+			return true;
+		}
+		return false;
+	}
+
+	public void finishReload() {
+		if (isReloading) {
+			int needed = magSize - bulletsInMag;
+			int toReload = Math.min(needed, reserveAmmo);
+			bulletsInMag += toReload;
+			reserveAmmo -= toReload;
+			isReloading = false;
+		}
+	}
+
+	// Put away mid-reload: the mag stays as it was
+	public void cancelReload() {
+		isReloading = false;
+	}
+
+	void setFireReady() {
+		fireReady = true;
+	}
+
+	void setSprayReady() {
+		sprayReady = true;
+	}
+
+	// When the timers run out
+
+	long getFireReadyTime() {
+		return lastFiredTime + fireRateMs;
+	}
+
+	long getSprayReadyTime() {
+		return sprayCooldownStartTime + sprayCooldownMs;
+	}
+
+	long getReloadDoneTime() {
+		return reloadStartTime + reloadTimeMs;
+	}
+
+	// After readState, which cooldowns were already over at `now`
+	void restoreReady(long now) {
+		fireReady = now >= getFireReadyTime();
+		sprayReady = now >= getSprayReadyTime();
+	}
+
+	boolean isFireReady() {
+		return fireReady;
+	}
+
+	boolean isSprayReady() {
+		return sprayReady;
+	}
+
+	// Save and restore the ammo and timers (replay keyframes)
+	void writeState(ByteBuffer out) {
+		out.putInt(bulletsInMag).putInt(reserveAmmo);
+		out.put((byte) (isReloading ? 1 : 0));
+		out.putLong(lastFiredTime).putLong(reloadStartTime).putLong(sprayCooldownStartTime);
+	}
+
+	void readState(ByteBuffer in) {
+		bulletsInMag = in.getInt();
+		reserveAmmo = in.getInt();
+		isReloading = in.get() != 0;
+		lastFiredTime = in.getLong();
+		reloadStartTime = in.getLong();
+		sprayCooldownStartTime = in.getLong();
+	}
+
+	public boolean isReloading() {
+		return isReloading;
+	}
+
+	public WeaponType getType() {
+		return type;
+	}
+
+	public int getBulletsInMag() {
+		return bulletsInMag;
+	}
+
+	public int getReserveAmmo() {
+		return reserveAmmo;
+	}
+
+	public long getEquipTime() {
+		return equipTimeMs;
+	}
+	
+	public long getReloadTime() {
+		return reloadTimeMs;
+	}
+
+	public int getDamage() {
+		return damage;
+	}
+
+	public RecoilPattern getRecoilPattern() {
+		return recoil;
+	}
+
+	// The rest of the stats and timers, for copying into the EntityWorld prototype (WeaponSystem.equip)
+
+	int getMagSize() {
+		return magSize;
+	}
+
+	int getFireRate() {
+		return fireRateMs;
+	}
+
+	long getLastFiredTime() {
+		return lastFiredTime;
+	}
+
+	long getReloadStartTime() {
+		return reloadStartTime;
+	}
+
+	long getSprayCooldownStartTime() {
+		return sprayCooldownStartTime;
+	}
+}
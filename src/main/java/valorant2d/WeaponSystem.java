@@ -0,0 +1,169 @@
+package valorant2d;
+
+import java.util.Random;
+
+// Reloading and firing for everything holding a weapon (POSITION, BODY, CONTROL
+// and WEAPON), with the same rules as Weapon and PlayerState: fire rate,
+// three-round Classic spray with its cooldown, reload on request or when the
+// magazine runs dry. Shots come out of the middle of the body as new projectile
+// entities, with the same recoil tables (and the same random draws) as PlayerState.
+//
+// Part of the EntityWorld prototype. Timers are still checked against the clock
+// every tick, as Weapon did before TimerWheel: the wheel is keyed by player and
+// would need an entity-keyed twin here. The results are the same, tick for tick.
+class WeaponSystem {
+	private static final int REQUIRED = EntityWorld.POSITION | EntityWorld.BODY | EntityWorld.CONTROL
+			| EntityWorld.WEAPON;
+	private static final double SPEED = 40;  // Projectile speed, as BulletPool
+
+	private final Random random;
+	private final RecoilPattern[] recoil = new RecoilPattern[WeaponType.values().length];  // By weapon type, from equip
+
+	public WeaponSystem(Random random) {
+		this.random = random;
+	}
+
+	// Put a weapon in an entity's hands, ammo and timers included
+	public void equip(Archetype archetype, int row, Weapon weapon) {
+		recoil[weapon.getType().ordinal()] = weapon.getRecoilPattern();
+		archetype.weaponType[row] = (byte) weapon.getType().ordinal();
+		archetype.magSize[row] = weapon.getMagSize();
+		archetype.bulletsInMag[row] = weapon.getBulletsInMag();
+		archetype.reserveAmmo[row] = weapon.getReserveAmmo();
+		archetype.fireRateMs[row] = weapon.getFireRate();
+		archetype.reloadTimeMs[row] = (int) weapon.getReloadTime();
+		archetype.lastFiredTime[row] = weapon.getLastFiredTime();
+		archetype.reloadStartTime[row] = weapon.getReloadStartTime();
+		archetype.sprayCooldownStartTime[row] = weapon.getSprayCooldownStartTime();
+		archetype.reloading[row] = weapon.isReloading();
+	}
+
+	public void update(EntityWorld world, GameClock clock) {
+		long now = clock.millis();
+		for (int a = 0; a < world.getArchetypeCount(); a++) {
+			Archetype archetype = world.getArchetype(a);
+			if (archetype.has(REQUIRED)) {
+				update(world, archetype, now);
+			}
+		}
+	}
+
+	private void update(EntityWorld world, Archetype archetype, long now) {
+		byte[] buttons = archetype.buttons;
+		int[] inMag = archetype.bulletsInMag, reserve = archetype.reserveAmmo, magSize = archetype.magSize;
+		long[] lastFired = archetype.lastFiredTime, reloadStart = archetype.reloadStartTime;
+		long[] sprayStart = archetype.sprayCooldownStartTime;
+		boolean[] reloading = archetype.reloading;
+		for (int i = 0, n = archetype.size(); i < n; i++) {
+			int held = buttons[i];
+			if ((held & NetProtocol.RELOAD) != 0) {
+				startReload(archetype, i, now);
+				buttons[i] = (byte) (held & ~NetProtocol.RELOAD);  // One-shot
+			}
+
+			// Finish a reload
+			if (reloading[i] && now - reloadStart[i] >= archetype.reloadTimeMs[i]) {
+				int loaded = Math.min(magSize[i] - inMag[i], reserve[i]);
+				inMag[i] += loaded;
+				reserve[i] -= loaded;
+				reloading[i] = false;
+			}
+
+			boolean shot = false, sprayed = false;
+			if ((held & NetProtocol.FIRE) != 0 && canShoot(archetype, i, now)) {
+				inMag[i]--;
+				lastFired[i] = now;
+				shot = true;
+			}
+			if ((held & NetProtocol.SPRAY) != 0 && !reloading[i] && inMag[i] >= 3
+					&& now - sprayStart[i] >= Weapon.SPRAY_COOLDOWN_MS
+					&& archetype.weaponType[i] == WeaponType.SECONDARY.ordinal()) {
+				inMag[i] -= 3;
+				lastFired[i] = now;
+				sprayStart[i] = now;
+				sprayed = true;
+			}
+			if (shot) {
+				shoot(world, archetype, i);
+			}
+			if (sprayed) {
+				spray(world, archetype, i, held);
+			}
+
+			if (inMag[i] <= 0 && reserve[i] > 0) {
+				startReload(archetype, i, now);
+			}
+		}
+	}
+
+	private static boolean canShoot(Archetype archetype, int i, long now) {
+		return !archetype.reloading[i] && archetype.bulletsInMag[i] > 0
+				&& now - archetype.lastFiredTime[i] >= archetype.fireRateMs[i];
+	}
+
+	private static void startReload(Archetype archetype, int i, long now) {
+		if (!archetype.reloading[i] && archetype.reserveAmmo[i] > 0
+				&& archetype.bulletsInMag[i] < archetype.magSize[i]) {
+			archetype.reloading[i] = true;
+			archetype.reloadStartTime[i] = now;
+		}
+	}
+
+	// One bullet, with a little recoil when moving
+	private void shoot(EntityWorld world, Archetype archetype, int i) {
+		double centerX = centerX(archetype, i), centerY = centerY(archetype, i);
+		double aimX = archetype.aimX[i] - centerX, aimY = archetype.aimY[i] - centerY;
+		double length = Math.sqrt(aimX * aimX + aimY * aimY);
+		aimX = length > 0 ? aimX / length : 1;
+		aimY = length > 0 ? aimY / length : 0;
+		RecoilPattern pattern = recoil[archetype.weaponType[i]];
+		int step = RecoilPattern.step(random.nextDouble());
+		if (isMoving(archetype, i)) {
+			double cos = pattern.kickCos[step], sin = pattern.kickSin[step];
+			spawn(world, centerX, centerY, aimX * cos - aimY * sin, aimX * sin + aimY * cos);
+		} else {
+			spawn(world, centerX, centerY, aimX, aimY);
+		}
+	}
+
+	// The weapon's fan, with more spread when moving or spraying
+	private void spray(EntityWorld world, Archetype archetype, int i, int held) {
+		double centerX = centerX(archetype, i), centerY = centerY(archetype, i);
+		double aimX = archetype.aimX[i] - centerX, aimY = archetype.aimY[i] - centerY;
+		double length = Math.sqrt(aimX * aimX + aimY * aimY);
+		aimX = length > 0 ? aimX / length : 1;
+		aimY = length > 0 ? aimY / length : 0;
+		RecoilPattern pattern = recoil[archetype.weaponType[i]];
+		int jitterFrom = isMoving(archetype, i) || (held & NetProtocol.SPRAY) != 0 ? RecoilPattern.STEPS : 0;
+		for (int k = 0; k < pattern.fanCos.length; k++) {
+			double fanX = aimX * pattern.fanCos[k] - aimY * pattern.fanSin[k];
+			double fanY = aimX * pattern.fanSin[k] + aimY * pattern.fanCos[k];
+			int jitter = jitterFrom + RecoilPattern.step(random.nextDouble());
+			double cos = pattern.jitterCos[jitter], sin = pattern.jitterSin[jitter];
+			spawn(world, centerX, centerY, fanX * cos - fanY * sin, fanX * sin + fanY * cos);
+		}
+	}
+
+	private static void spawn(EntityWorld world, double x, double y, double dirX, double dirY) {
+		int entity = world.create(EntityWorld.PROJECTILE);
+		Archetype projectiles = world.archetypeOf(entity);
+		int row = world.rowOf(entity);
+		projectiles.x[row] = projectiles.prevX[row] = x;
+		projectiles.y[row] = projectiles.prevY[row] = y;
+		projectiles.dx[row] = dirX * SPEED;
+		projectiles.dy[row] = dirY * SPEED;
+	}
+
+	// Whole pixels, like Player.getX
+	private static double centerX(Archetype archetype, int i) {
+		return (int) archetype.x[i] + archetype.width[i] / 2;
+	}
+
+	private static double centerY(Archetype archetype, int i) {
+		return (int) archetype.y[i] + archetype.height[i] / 2;
+	}
+
+	private static boolean isMoving(Archetype archetype, int i) {
+		return archetype.x[i] != archetype.prevX[i] || archetype.y[i] != archetype.prevY[i];
+	}
+}
@@ -1,3 +1,4 @@
+package valorant2d;
 
 public enum WeaponType {
 	PRIMARY, SECONDARY, KNIFE
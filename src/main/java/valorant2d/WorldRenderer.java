@@ -0,0 +1,121 @@
+package valorant2d;
+
+import java.awt.*;
+
+// Draws a PLAYING frame (map, player, bullets, HUD) from a snapshot. It only needs
+// a Graphics, so it can draw to the screen or into an off-screen image.
+// The world can be bigger than the view: the camera follows the player and only
+// what is inside the view gets drawn. Tiles the player can't see (the snapshot's
+// FieldOfView) are darkened and bullets on them aren't drawn at all.
+public class WorldRenderer {
+
+    private static final Color FOG = new Color(0, 0, 0, 170);
+
+    private TileMap map;
+    private TileLayer tileLayer;  // Pre-rendered image of the map
+    private Hud hud = new Hud();
+    private Camera camera;
+    private boolean worldFillsView;
+    private Metrics metrics;
+
+    // Player and bullets are queued here and drawn a page at a time
+    private SpriteBatch sprites;
+    private int playerSprite, bulletSprite;
+
+    public WorldRenderer(TileMap map, Atlas atlas, int viewWidth, int viewHeight, Metrics metrics) {
+        int worldWidth = map.getWidth();
+        int worldHeight = map.getHeight();
+        this.map = map;
+        this.tileLayer = new TileLayer(map, atlas);
+        this.sprites = new SpriteBatch(atlas, 256);
+        this.playerSprite = atlas.find("player");
+        this.bulletSprite = atlas.find("bullet");
+        this.camera = new Camera(viewWidth, viewHeight, worldWidth, worldHeight);
+        this.worldFillsView = worldWidth >= viewWidth && worldHeight >= viewHeight;
+        this.metrics = metrics;
+    }
+
+    // gc is the screen's GraphicsConfiguration, or null when drawing off-screen
+    public void render(Graphics g, GraphicsConfiguration gc, WorldSnapshot snapshot, float alpha) {
+        long start = System.nanoTime();
+
+        // Follow where the player is drawn this frame, not where the last tick left it
+        Player player = snapshot.getPlayer();
+        camera.centerOn(player.getDrawX(alpha) + player.getSize() / 2, player.getDrawY(alpha) + player.getSize() / 2);
+        int viewX = camera.getX(), viewY = camera.getY();
+        int viewWidth = camera.getViewWidth(), viewHeight = camera.getViewHeight();
+
+        if (!worldFillsView) {
+            // Small map, clear what the tiles don't cover
+            g.setColor(Color.BLACK);
+            g.fillRect(0, 0, viewWidth, viewHeight);
+        }
+
+        // Everything in the world is drawn in world coordinates from here on
+        g.translate(-viewX, -viewY);
+
+        // Draw map tiles
+        renderGameWorld(g, gc, viewX, viewY, viewWidth, viewHeight);
+        int fogged = drawFog(g, snapshot.getFieldOfView(), viewX, viewY, viewWidth, viewHeight);
+        long worldDone = System.nanoTime();
+
+        // Draw player and bullets
+        sprites.add(playerSprite, player.getDrawX(alpha), player.getDrawY(alpha), player.getSize(), player.getSize());
+        int bulletsDrawn = snapshot.getBullets().draw(sprites, bulletSprite, alpha, snapshot.getFieldOfView(), viewX,
+                viewY, viewWidth, viewHeight);
+        sprites.flush(g, gc);
+        long entitiesDone = System.nanoTime();
+
+        // HUD stays in screen coordinates
+        g.translate(viewX, viewY);
+
+        // Draw HUD (weapon & ammo information)
+        hud.draw(g, snapshot);
+
+        metrics.renderWorld.record(worldDone - start);
+        metrics.renderEntities.record(entitiesDone - worldDone);
+        metrics.renderHud.record(System.nanoTime() - entitiesDone);
+        metrics.renderTiles.record(tileLayer.getTilesDrawn());
+        metrics.renderChunks.record(tileLayer.getChunksDrawn());
+        metrics.renderBullets.record(bulletsDrawn);
+        metrics.renderFog.record(fogged);
+    }
+
+    // Darken the tiles in view that can't be seen, one rectangle per run of them
+    // along a row. Returns how many tiles were darkened.
+    private int drawFog(Graphics g, FieldOfView fov, int viewX, int viewY, int viewWidth, int viewHeight) {
+        int tileSize = map.getTileSize();
+        int firstCol = Math.max(0, viewX / tileSize);
+        int lastCol = Math.min(map.getCols() - 1, (viewX + viewWidth - 1) / tileSize);
+        int firstRow = Math.max(0, viewY / tileSize);
+        int lastRow = Math.min(map.getRows() - 1, (viewY + viewHeight - 1) / tileSize);
+        int fogged = 0;
+        g.setColor(FOG);
+        for (int row = firstRow; row <= lastRow; row++) {
+            int col = firstCol;
+            while (col <= lastCol) {
+                if (fov.isVisible(row, col)) {
+                    col++;
+                    continue;
+                }
+                int runStart = col;
+                while (col <= lastCol && !fov.isVisible(row, col)) {
+                    col++;
+                }
+                g.fillRect(runStart * tileSize, row * tileSize, (col - runStart) * tileSize, tileSize);
+                fogged += col - runStart;
+            }
+        }
+        return fogged;
+    }
+
+    private void renderGameWorld(Graphics g, GraphicsConfiguration gc, int viewX, int viewY, int viewWidth, int viewHeight) {
+        // The map is cached in chunks, so this is one image draw per chunk on screen
+        tileLayer.draw(g, gc, viewX, viewY, viewWidth, viewHeight);
+    }
+
+    // Let the cached map layer know a tile changed
+    public void markDirty(int row, int col) {
+        tileLayer.markDirty(row, col);
+    }
+}
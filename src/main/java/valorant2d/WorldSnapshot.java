@@ -0,0 +1,77 @@
+package valorant2d;
+
+// Copy of everything the renderer needs from one simulation tick.
+// The simulation fills it, publishes it through SnapshotBuffer and
+// never touches it again until the renderer has let go of it.
+public class WorldSnapshot {
+	private long tickTime;  // System.nanoTime() the tick was scheduled for
+	private final Player player;
+	private final BulletPool bullets;
+	private final FieldOfView fieldOfView = new FieldOfView(Simulation.SIGHT_RADIUS);
+
+	// HUD state
+	private WeaponType weaponType = WeaponType.PRIMARY;
+	private int bulletsInMag, reserveAmmo;
+	private boolean isReloading, isSwitchingWeapon;
+	private int health;
+
+	public WorldSnapshot(int bulletCapacity) {
+		player = new Player(0, 0, null);
+		bullets = new BulletPool(bulletCapacity);
+	}
+
+	public void capture(long tickTime, Simulation simulation) {
+		Weapon weapon = simulation.getCurrentWeapon();
+		this.tickTime = tickTime;
+		this.player.copyFrom(simulation.getPlayer());
+		this.bullets.copyFrom(simulation.getBullets());
+		this.fieldOfView.copyFrom(simulation.getFieldOfView(0));
+		this.weaponType = simulation.getCurrentWeaponType();
+		this.bulletsInMag = weapon.getBulletsInMag();
+		this.reserveAmmo = weapon.getReserveAmmo();
+		this.isReloading = weapon.isReloading();
+		this.isSwitchingWeapon = simulation.isSwitchingWeapon();
+		this.health = simulation.getPlayerState(0).getHealth();
+	}
+
+	public long getTickTime() {
+		return tickTime;
+	}
+
+	public Player getPlayer() {
+		return player;
+	}
+
+	public BulletPool getBullets() {
+		return bullets;
+	}
+
+	// What the player can see; everything else is drawn under fog
+	public FieldOfView getFieldOfView() {
+		return fieldOfView;
+	}
+
+	public WeaponType getWeaponType() {
+		return weaponType;
+	}
+
+	public int getBulletsInMag() {
+		return bulletsInMag;
+	}
+
+	public int getReserveAmmo() {
+		return reserveAmmo;
+	}
+
+	public boolean isReloading() {
+		return isReloading;
+	}
+
+	public boolean isSwitchingWeapon() {
+		return isSwitchingWeapon;
+	}
+
+	public int getHealth() {
+		return health;
+	}
+}
@@ -0,0 +1,146 @@
+package valorant2d;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+// The EntityWorld prototype's systems against the game's own code: one bot plays
+// the same inputs on a Simulation and on an EntityWorld, and every tick the
+// player's position, ammo and reload state, every bullet and every wall hit must
+// match. Matches are a minute long, so the magazine and reserve run through
+// manual reloads (the bot presses reload now and then), reloads on an empty
+// magazine and running dry, many times over across the seeds.
+//
+// The prototype has no weapon switching or damage, so the bot holds one weapon
+// the whole match and is the only player.
+class EntityWorldTest {
+
+	private static final int TICKS = 60 * GameServer.TICKS_PER_SECOND;
+	private static final int SEEDS = 8;
+	private static final long TICK_NANOS = 1_000_000_000L / GameServer.TICKS_PER_SECOND;
+
+	static Stream<Arguments> matches() {
+		Stream.Builder<Arguments> matches = Stream.builder();
+		for (WeaponType weaponType : WeaponType.values()) {
+			for (long seed = 1; seed <= SEEDS; seed++) {
+				matches.add(Arguments.of(weaponType, seed));
+			}
+		}
+		return matches.build();
+	}
+
+	@ParameterizedTest(name = "{0}, seed {1}")
+	@MethodSource("matches")
+	void systemsAgreeWithSimulation(WeaponType weaponType, long seed) {
+		Simulation simulation = new Simulation(1920, 1080, seed);
+		GameClock clock = GameClock.virtual();
+		PlayerState state = simulation.getPlayerState(0);
+		PlayerInput input = state.getInput();
+
+		// Let the simulation finish switching weapons first; the world has no switching
+		input.switchTo = weaponType;
+		for (int i = 0; i < GameServer.TICKS_PER_SECOND; i++) {
+			clock.beginTick();
+			simulation.tick(clock);
+			clock.advance(TICK_NANOS);
+		}
+
+		EntityWorld world = new EntityWorld(Simulation.MAX_BULLETS);
+		CollisionMap collision = simulation.getCollision();
+		MovementSystem movement = new MovementSystem(collision);
+		ProjectileSystem projectiles = new ProjectileSystem(collision, simulation.getWidth(), simulation.getHeight());
+		GameRandom random = new GameRandom(0);
+		random.setState(randomState(simulation));  // Both draw recoil from the same sequence
+		WeaponSystem weapons = new WeaponSystem(random);
+
+		Player player = state.getPlayer();
+		Weapon weapon = state.getWeapon(weaponType);
+		int entity = world.create(EntityWorld.PLAYER);
+		Archetype players = world.archetypeOf(entity);
+		int row = world.rowOf(entity);
+		players.x[row] = players.prevX[row] = player.getX() - player.getSize() / 2;
+		players.y[row] = players.prevY[row] = player.getY() - player.getSize() / 2;
+		players.width[row] = players.height[row] = player.getSize();
+		weapons.equip(players, row, weapon);
+
+		Random bot = new Random(seed ^ 0x5DEECE66DL);
+		int shots = 0, reloads = 0;
+		boolean wasReloading = weapon.isReloading();
+		for (int tick = 0; tick < TICKS; tick++) {
+			HeadlessRunner.updateBot(bot, input, tick);
+			input.switchTo = null;
+			players.buttons[row] = (byte) NetProtocol.buttons(input);
+			players.aimX[row] = input.aimX;
+			players.aimY[row] = input.aimY;
+
+			clock.beginTick();
+			simulation.tick(clock);
+			movement.update(world);
+			projectiles.update(world);
+			weapons.update(world, clock);
+			clock.advance(TICK_NANOS);
+
+			shots += state.getShotCount();
+			if (weapon.isReloading() && !wasReloading) {
+				reloads++;
+			}
+			wasReloading = weapon.isReloading();
+
+			assertEquals(simulation.getBullets().getHitCount(), projectiles.getHitCount(), "wall hits at tick " + tick);
+			String mismatch = mismatch(simulation, world, players, row);
+			if (mismatch != null) {
+				fail("tick " + tick + ": " + mismatch);
+			}
+		}
+		assertTrue(shots > 0, "the bot never fired");
+		if (weapon.getReloadTime() > 0) {
+			assertTrue(reloads > 0, "the bot never reloaded");
+		}
+	}
+
+	private static long randomState(Simulation simulation) {
+		ByteBuffer state = ByteBuffer.allocate(simulation.maxStateBytes());
+		simulation.writeState(state);
+		return state.getLong(0);  // writeState starts with the random state
+	}
+
+	private static String mismatch(Simulation simulation, EntityWorld world, Archetype players, int row) {
+		Player player = simulation.getPlayer();
+		Weapon weapon = simulation.getCurrentWeapon();
+		int size = player.getSize();
+		if (players.x[row] + size / 2 != player.getX() || players.y[row] + size / 2 != player.getY()) {
+			return "player at " + players.x[row] + "," + players.y[row];
+		}
+		if (players.bulletsInMag[row] != weapon.getBulletsInMag() || players.reserveAmmo[row] != weapon.getReserveAmmo()
+				|| players.reloading[row] != weapon.isReloading()) {
+			return "ammo " + players.bulletsInMag[row] + "/" + players.reserveAmmo[row] + (players.reloading[row]
+					? ", reloading" : "") + ", simulation has " + weapon.getBulletsInMag() + "/" + weapon.getReserveAmmo()
+					+ (weapon.isReloading() ? ", reloading" : "");
+		}
+		BulletPool bullets = simulation.getBullets();
+		Archetype projectiles = null;
+		for (int a = 0; a < world.getArchetypeCount(); a++) {
+			if (world.getArchetype(a).getMask() == EntityWorld.PROJECTILE) {
+				projectiles = world.getArchetype(a);
+			}
+		}
+		int count = projectiles == null ? 0 : projectiles.size();
+		if (count != bullets.size()) {
+			return count + " bullets, simulation has " + bullets.size();
+		}
+		for (int i = 0; i < count; i++) {
+			if (projectiles.x[i] != bullets.getX(i) || projectiles.y[i] != bullets.getY(i)) {
+				return "bullet " + i + " at " + projectiles.x[i] + "," + projectiles.y[i];
+			}
+		}
+		return null;
+	}
+}
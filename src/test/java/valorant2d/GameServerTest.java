@@ -0,0 +1,180 @@
+package valorant2d;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// A server stepped by hand over loopback, with clients that speak NetProtocol
+// directly. The server's clock is real time, so each step sleeps a tick to let
+// weapon cooldowns run out as they would in a match.
+class GameServerTest {
+
+	private static final int MAP_TILES = 8;  // Too small for MapFile.generate to put blocks in: the spawns see each other
+	private static final long TIMEOUT_NANOS = 5_000_000_000L;
+
+	private GameServer server;
+	private final List<Client> clients = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), MAP_TILES, MAP_TILES, 1,
+				LossyLink.direct());
+		server.setDeltaEnabled(false);  // Every snapshot stands alone, so the clients keep no baselines
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		for (Client client : clients) {
+			client.channel.close();
+		}
+		server.close();
+	}
+
+	@Test
+	void slotGoesToTheNextClientWithAFreshPlayer() throws Exception {
+		Client shooter = connect(0);
+		Client victim = connect(1);
+		PlayerState target = server.getSimulation().getPlayerState(1);
+		int spawnX = target.getPlayer().getX(), spawnY = target.getPlayer().getY();
+
+		// The victim walks off its spawn and fires away from the shooter, so its position and ammo change
+		victim.input.right = victim.input.down = victim.input.fire = true;
+		victim.input.aimX = victim.input.aimY = MAP_TILES * Simulation.TILE_SIZE;
+		for (int i = 0; i < 10; i++) {
+			step();
+		}
+		victim.input.clear();
+		assertTrue(target.getPlayer().getX() != spawnX || target.getPlayer().getY() != spawnY, "the victim never moved");
+
+		// Then the shooter kills it. On the server only judgeShots deals damage.
+		long deadline = System.nanoTime() + TIMEOUT_NANOS;
+		shooter.input.fire = true;
+		while (target.isAlive()) {
+			assertTrue(System.nanoTime() < deadline, "the shooter never killed the victim");
+			shooter.input.aimX = target.getPlayer().getX();
+			shooter.input.aimY = target.getPlayer().getY();
+			step();
+		}
+		shooter.input.clear();
+		assertTrue(server.getHits() > 0);
+
+		victim.send(NetProtocol.DISCONNECT);
+		victim.index = -1;
+		server.receiveAll();
+		Client newcomer = connect(1);
+		step();
+
+		NetSnapshot seen = newcomer.awaitSnapshot();
+		PlayerState fresh = new PlayerState(new Player(spawnX, spawnY, null));
+		assertEquals(PlayerState.MAX_HEALTH, seen.getHealth(1));
+		assertEquals(spawnX, seen.getX(1));
+		assertEquals(spawnY, seen.getY(1));
+		assertEquals(fresh.getCurrentWeapon().getType(), seen.getWeapon(1));
+		assertEquals(fresh.getCurrentWeapon().getBulletsInMag(), seen.getBulletsInMag(1));
+		assertEquals(fresh.getCurrentWeapon().getReserveAmmo(), seen.getReserveAmmo(1));
+	}
+
+	private Client connect(int expectedIndex) throws Exception {
+		Client client = new Client(server);
+		clients.add(client);
+		client.channel.write(ByteBuffer.wrap(new byte[] { NetProtocol.CONNECT, NetProtocol.VERSION }));
+		long deadline = System.nanoTime() + TIMEOUT_NANOS;
+		while (client.index < 0) {
+			assertTrue(System.nanoTime() < deadline, "no WELCOME");
+			server.receiveAll();
+			client.receive();
+			Thread.sleep(1);
+		}
+		assertEquals(expectedIndex, client.index);
+		return client;
+	}
+
+	// Every client sends this tick's input, then the server runs a tick
+	private void step() throws Exception {
+		for (Client client : clients) {
+			client.sendInput();
+		}
+		server.receiveAll();
+		server.tick();
+		for (Client client : clients) {
+			client.receive();
+		}
+		Thread.sleep(1000 / GameServer.TICKS_PER_SECOND);
+	}
+
+	private static final class Client {
+		final DatagramChannel channel;
+		final PlayerInput input = new PlayerInput();
+		final NetSnapshot empty = new NetSnapshot(2, 0);
+		final NetSnapshot latest = new NetSnapshot(2, Simulation.MAX_BULLETS);
+		final ByteBuffer buffer = ByteBuffer.allocate(NetProtocol.MAX_PACKET);
+		int index = -1;
+		int seq = 0;
+		int snapshots = 0;
+
+		Client(GameServer server) throws IOException {
+			channel = DatagramChannel.open();
+			channel.connect(server.getLocalAddress());
+			channel.configureBlocking(false);
+		}
+
+		void send(byte type) throws IOException {
+			channel.write(ByteBuffer.wrap(new byte[] { type }));
+		}
+
+		void sendInput() throws IOException {
+			if (index < 0) {
+				return;  // Not connected
+			}
+			buffer.clear();
+			buffer.put(NetProtocol.INPUT);
+			buffer.putInt(latest.getTick());
+			buffer.put((byte) 1);
+			NetProtocol.putInput(buffer, seq++, input);
+			buffer.flip();
+			channel.write(buffer);
+		}
+
+		void receive() throws IOException {
+			while (true) {
+				buffer.clear();
+				if (channel.receive(buffer) == null) {
+					return;
+				}
+				buffer.flip();
+				switch (buffer.get()) {
+					case NetProtocol.WELCOME -> index = buffer.get();
+					case NetProtocol.SNAPSHOT -> {
+						latest.tick = buffer.getInt();
+						buffer.getInt();  // Baseline, always none
+						buffer.getInt();  // Input applied
+						latest.decode(buffer, empty);
+						snapshots++;
+					}
+					default -> throw new AssertionError("unexpected packet " + buffer.get(0));
+				}
+			}
+		}
+
+		NetSnapshot awaitSnapshot() throws Exception {
+			long deadline = System.nanoTime() + TIMEOUT_NANOS;
+			while (snapshots == 0) {
+				assertTrue(System.nanoTime() < deadline, "no snapshot");
+				receive();
+				Thread.sleep(1);
+			}
+			return latest;
+		}
+	}
+}
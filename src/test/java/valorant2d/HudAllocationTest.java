@@ -0,0 +1,89 @@
+package valorant2d;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// A frame where nothing on screen changed must not allocate: the HUD, title and
+// menu screens are drawn many times over and the thread's allocation counter
+// (com.sun.management.ThreadMXBean) has to stay put. HudBenchmark measures the
+// same paths with -prof gc; this fails the build if one of them starts allocating.
+//
+// Java2D's drawImage makes a small temporary per call until the JIT compiles it
+// and escape analysis takes it out, so frames are counted in rounds until the
+// allocation settles. Anything our code keeps (a String, an image) never does.
+class HudAllocationTest {
+
+	private static final int WIDTH = 1920, HEIGHT = 1080;
+	private static final int FRAMES = 1_000;  // Per round
+	private static final int MAX_ROUNDS = 30;
+	private static final long ALLOWED_BYTES = 1024;  // Slack for the counter itself, far under a byte a frame
+
+	private final com.sun.management.ThreadMXBean threads =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	private BufferedImage frame;
+	private Graphics g;
+
+	@BeforeEach
+	void setUp() {
+		assertTrue(threads.isThreadAllocatedMemorySupported(), "JVM can't count allocation per thread");
+		threads.setThreadAllocatedMemoryEnabled(true);
+		frame = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		g = frame.getGraphics();
+	}
+
+	@AfterEach
+	void tearDown() {
+		g.dispose();
+	}
+
+	@Test
+	void hudDoesNotAllocate() {
+		Simulation simulation = new Simulation(WIDTH, HEIGHT, 1);
+		WorldSnapshot snapshot = new WorldSnapshot(Simulation.MAX_BULLETS);
+		snapshot.capture(0, simulation);
+		Hud hud = new Hud();
+		assertNoAllocation("Hud", () -> hud.draw(g, snapshot));
+	}
+
+	@Test
+	void titleScreenDoesNotAllocate() {
+		TitleScreen title = new TitleScreen(WIDTH, HEIGHT, null);
+		assertNoAllocation("TitleScreen", () -> title.render(g));
+	}
+
+	@Test
+	void menuScreenDoesNotAllocate() {
+		// MenuScreen takes its size from the panel it listens to
+		Canvas panel = new Canvas();
+		panel.setSize(WIDTH, HEIGHT);
+		MenuScreen menu = new MenuScreen(panel);
+		assertNoAllocation("MenuScreen", () -> menu.render(g));
+	}
+
+	private void assertNoAllocation(String name, Runnable drawFrame) {
+		long thread = Thread.currentThread().getId();
+		threads.getThreadAllocatedBytes(thread);  // First call may set things up
+		long allocated = 0;
+		for (int round = 0; round < MAX_ROUNDS; round++) {
+			long before = threads.getThreadAllocatedBytes(thread);
+			for (int i = 0; i < FRAMES; i++) {
+				drawFrame.run();
+			}
+			allocated = threads.getThreadAllocatedBytes(thread) - before;
+			if (allocated <= ALLOWED_BYTES) {
+				return;
+			}
+		}
+		fail(name + " still allocated " + allocated + " bytes over " + FRAMES + " unchanged frames after "
+				+ MAX_ROUNDS * FRAMES + " frames");
+	}
+}